@@ -0,0 +1,68 @@
+package com.scottlogic.deg.benchmarks;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.generator.generation.combinationstrategies.*;
+import com.scottlogic.deg.generator.generation.databags.DataBag;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CombinationStrategyBenchmarks {
+    private static final int SEQUENCES = 3;
+    private static final int BAGS_PER_SEQUENCE = 20;
+
+    @Param({"exhaustive", "pinning", "minimal", "reductive"})
+    public String strategy;
+
+    private CombinationStrategy combinationStrategy;
+    private List<List<DataBag>> sequences;
+
+    @Setup
+    public void setup() {
+        combinationStrategy = createStrategy(strategy);
+
+        sequences = new ArrayList<>();
+        for (int sequence = 0; sequence < SEQUENCES; sequence++) {
+            Field field = new Field("field" + sequence);
+            sequences.add(IntStream.range(0, BAGS_PER_SEQUENCE)
+                .mapToObj(value -> new DataBag(Collections.singletonMap(field, new DataBagValue(value))))
+                .collect(Collectors.toList()));
+        }
+    }
+
+    @Benchmark
+    public void permute(Blackhole blackhole) {
+        Stream<Stream<DataBag>> dataBagSequences = sequences.stream().map(List::stream);
+
+        combinationStrategy.permute(dataBagSequences).forEach(blackhole::consume);
+    }
+
+    private static CombinationStrategy createStrategy(String strategy) {
+        switch (strategy) {
+            case "exhaustive":
+                return new ExhaustiveCombinationStrategy();
+            case "pinning":
+                return new PinningCombinationStrategy();
+            case "minimal":
+                return new MinimalCombinationStrategy();
+            case "reductive":
+                return new ReductiveCombinationStrategy();
+            default:
+                throw new IllegalArgumentException("Unknown combination strategy: " + strategy);
+        }
+    }
+}
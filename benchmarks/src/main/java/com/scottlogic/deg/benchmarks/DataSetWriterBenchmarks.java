@@ -0,0 +1,71 @@
+package com.scottlogic.deg.benchmarks;
+
+import com.google.inject.Injector;
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.profile.Profile;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.generator.generation.DataGenerator;
+import com.scottlogic.deg.output.writer.DataSetWriter;
+import com.scottlogic.deg.output.writer.OutputWriterFactory;
+import com.scottlogic.deg.output.writer.csv.CsvOutputWriterFactory;
+import com.scottlogic.deg.output.writer.json.JsonOutputWriterFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataSetWriterBenchmarks {
+    private static final String exampleName = "user-account";
+    private static final int ROWS = 1000;
+
+    @Param({"csv", "json"})
+    public String format;
+
+    private OutputWriterFactory writerFactory;
+    private ProfileFields fields;
+    private List<GeneratedObject> rows;
+
+    @Setup
+    public void setup() throws IOException {
+        Injector injector = ExampleProfiles.createInjector(exampleName, "--max-rows", Integer.toString(ROWS));
+        Profile profile = ExampleProfiles.readProfile(injector, exampleName);
+
+        fields = profile.getFields();
+        rows = injector.getInstance(DataGenerator.class)
+            .generateData(profile)
+            .collect(Collectors.toList());
+        writerFactory = format.equals("csv")
+            ? new CsvOutputWriterFactory()
+            : new JsonOutputWriterFactory();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void writeRows() throws IOException {
+        try (DataSetWriter writer = writerFactory.createWriter(new NullOutputStream(), fields)) {
+            // the profile may produce fewer rows than ROWS, so repeat them to write as many as are reported
+            for (int index = 0; index < ROWS; index++) {
+                writer.writeRow(rows.get(index % rows.size()));
+            }
+        }
+    }
+
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
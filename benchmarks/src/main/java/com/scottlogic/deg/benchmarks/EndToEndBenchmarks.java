@@ -0,0 +1,61 @@
+package com.scottlogic.deg.benchmarks;
+
+import com.google.inject.Injector;
+import com.scottlogic.deg.common.profile.Profile;
+import com.scottlogic.deg.generator.generation.DataGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates data for the profiles under examples/, from a read profile to generated rows, with each generation engine
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndToEndBenchmarks {
+    private static final int MAX_ROWS = 1000;
+
+    @Param({"integer-range", "partitioning", "regex", "setwise-combination", "user-account"})
+    public String example;
+
+    @Param({"FULL_SEQUENTIAL", "RANDOM"})
+    public String generationType;
+
+    @Param({"STREAMING", "BATCH"})
+    public String generationEngine;
+
+    private DataGenerator dataGenerator;
+    private Profile profile;
+
+    @Setup
+    public void setup() throws IOException {
+        Injector injector = ExampleProfiles.createInjector(
+            example,
+            "--generation-type", generationType,
+            "--generation-engine", generationEngine,
+            "--max-rows", Integer.toString(MAX_ROWS));
+
+        dataGenerator = injector.getInstance(DataGenerator.class);
+        profile = ExampleProfiles.readProfile(injector, example);
+    }
+
+    @Benchmark
+    public void generateData(Blackhole blackhole) {
+        dataGenerator.generateData(profile).forEach(blackhole::consume);
+    }
+
+    /**
+     * Reads every value of each row, as the writers do
+     */
+    @Benchmark
+    public void generateAndFormatData(Blackhole blackhole) {
+        dataGenerator.generateData(profile)
+            .forEach(row -> blackhole.consume(row.getFormattedValues(profile.getFields())));
+    }
+}
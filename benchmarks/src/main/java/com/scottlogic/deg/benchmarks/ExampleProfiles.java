@@ -0,0 +1,45 @@
+package com.scottlogic.deg.benchmarks;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.scottlogic.deg.common.profile.Profile;
+import com.scottlogic.deg.orchestrator.generate.GenerateCommandLine;
+import com.scottlogic.deg.orchestrator.guice.AllModule;
+import com.scottlogic.deg.profile.reader.ProfileReader;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sets up the generator for the profiles under examples/, the same way as the command line does.
+ * Benchmarks are run from the root of the repository, so the examples are found relative to it.
+ */
+class ExampleProfiles {
+    private ExampleProfiles() {}
+
+    static Path getProfilePath(String exampleName) {
+        return Paths.get("examples", exampleName, "profile.json");
+    }
+
+    static Injector createInjector(String exampleName, String... options) {
+        List<String> args = new ArrayList<>(Arrays.asList(
+            "--profile-file", getProfilePath(exampleName).toString(),
+            "--quiet"));
+        args.addAll(Arrays.asList(options));
+
+        GenerateCommandLine commandLine = CommandLine.populateCommand(
+            new GenerateCommandLine(),
+            args.toArray(new String[0]));
+
+        return Guice.createInjector(new AllModule(commandLine));
+    }
+
+    static Profile readProfile(Injector injector, String exampleName) throws IOException {
+        return injector.getInstance(ProfileReader.class).read(getProfilePath(exampleName));
+    }
+}
@@ -0,0 +1,77 @@
+package com.scottlogic.deg.benchmarks;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.RuleInformation;
+import com.scottlogic.deg.common.profile.constraints.atomic.*;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecFactory;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
+import com.scottlogic.deg.generator.restrictions.StringRestrictionsFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FieldSpecMergerBenchmarks {
+    private static final Field field = new Field("field");
+    private static final Set<RuleInformation> rules = Collections.singleton(new RuleInformation("rule"));
+
+    @Param({"numeric", "string", "set"})
+    public String restrictions;
+
+    private final FieldSpecMerger merger = new FieldSpecMerger();
+    private final FieldSpecFactory fieldSpecFactory = new FieldSpecFactory(new StringRestrictionsFactory());
+    private FieldSpec left;
+    private FieldSpec right;
+
+    @Setup
+    public void setup() {
+        switch (restrictions) {
+            case "numeric":
+                left = construct(
+                    new IsOfTypeConstraint(field, IsOfTypeConstraint.Types.NUMERIC, rules),
+                    new IsGreaterThanConstantConstraint(field, 10, rules));
+                right = construct(new IsLessThanConstantConstraint(field, 1000, rules));
+                break;
+
+            case "string":
+                left = construct(
+                    new IsOfTypeConstraint(field, IsOfTypeConstraint.Types.STRING, rules),
+                    new MatchesRegexConstraint(field, Pattern.compile("[a-z]{1,10}"), rules));
+                right = construct(new IsStringShorterThanConstraint(field, 5, rules));
+                break;
+
+            case "set":
+                left = construct(new IsInSetConstraint(field, new HashSet<>(Arrays.asList(1, 2, 3, 4, 5, "a", "b")), rules));
+                right = construct(
+                    new IsOfTypeConstraint(field, IsOfTypeConstraint.Types.NUMERIC, rules),
+                    new IsLessThanConstantConstraint(field, 4, rules));
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unknown restrictions: " + restrictions);
+        }
+    }
+
+    @Benchmark
+    public Optional<FieldSpec> merge() {
+        return merger.merge(left, right);
+    }
+
+    private FieldSpec construct(AtomicConstraint... constraints) {
+        FieldSpec fieldSpec = FieldSpec.Empty;
+        for (AtomicConstraint constraint : constraints) {
+            fieldSpec = merger.merge(fieldSpec, fieldSpecFactory.construct(constraint))
+                .orElseThrow(() -> new IllegalStateException("Benchmark restrictions are contradictory"));
+        }
+
+        return fieldSpec;
+    }
+}
@@ -0,0 +1,89 @@
+package com.scottlogic.deg.benchmarks;
+
+import com.google.inject.Injector;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.Profile;
+import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
+import com.scottlogic.deg.generator.decisiontree.DecisionTreeFactory;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecHelper;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+import com.scottlogic.deg.generator.reducer.ConstraintReducer;
+import com.scottlogic.deg.generator.walker.reductive.Merged;
+import com.scottlogic.deg.generator.walker.reductive.ReductiveTreePruner;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pruning the root node of the partitioning example for one value of its first field. A cold prune is a cache miss,
+ * the pruning itself plus adding it to the cache; a warm prune is served from the cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReductiveTreePrunerBenchmarks {
+    private static final String exampleName = "partitioning";
+
+    /**
+     * Cold prunes cycle through this many copies of the tree, twice as many as their cache holds, so each prune's
+     * entry has always been evicted by the time that copy is pruned again
+     */
+    private static final int COLD_TREE_COUNT = 32;
+
+    private ReductiveTreePruner uncachedPruner;
+    private ReductiveTreePruner coldPruner;
+    private ReductiveTreePruner warmPruner;
+    private ConstraintNode[] rootNodes;
+    private int nextRootNode;
+    private Field field;
+    private DataBagValue value;
+
+    @Setup
+    public void setup() throws IOException {
+        Injector injector = ExampleProfiles.createInjector(exampleName);
+        DecisionTreeFactory treeFactory = injector.getInstance(DecisionTreeFactory.class);
+        Profile profile = ExampleProfiles.readProfile(injector, exampleName);
+
+        rootNodes = new ConstraintNode[COLD_TREE_COUNT];
+        for (int index = 0; index < COLD_TREE_COUNT; index++) {
+            rootNodes[index] = treeFactory.analyse(profile).getRootNode();
+        }
+        field = new Field("p1f1");
+        value = new DataBagValue("p1-string");
+
+        uncachedPruner = createPruner(injector, 0);
+        coldPruner = createPruner(injector, COLD_TREE_COUNT / 2);
+        warmPruner = createPruner(injector, 10_000);
+        warmPruner.pruneConstraintNode(rootNodes[0], field, value);
+    }
+
+    @Benchmark
+    public Merged<ConstraintNode> pruneConstraintNode_uncached() {
+        return uncachedPruner.pruneConstraintNode(rootNodes[0], field, value);
+    }
+
+    @Benchmark
+    public Merged<ConstraintNode> pruneConstraintNode_cold() {
+        ConstraintNode rootNode = rootNodes[nextRootNode];
+        nextRootNode = (nextRootNode + 1) % COLD_TREE_COUNT;
+        return coldPruner.pruneConstraintNode(rootNode, field, value);
+    }
+
+    @Benchmark
+    public Merged<ConstraintNode> pruneConstraintNode_warm() {
+        return warmPruner.pruneConstraintNode(rootNodes[0], field, value);
+    }
+
+    private static ReductiveTreePruner createPruner(Injector injector, int cacheSize) {
+        return new ReductiveTreePruner(
+            injector.getInstance(FieldSpecMerger.class),
+            injector.getInstance(ConstraintReducer.class),
+            injector.getInstance(FieldSpecHelper.class),
+            cacheSize);
+    }
+}
@@ -0,0 +1,66 @@
+package com.scottlogic.deg.benchmarks;
+
+import com.scottlogic.deg.generator.generation.string.RegexStringGenerator;
+import com.scottlogic.deg.generator.generation.string.StringGenerator;
+import com.scottlogic.deg.generator.utils.JavaUtilRandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegexStringGeneratorBenchmarks {
+    private static final int VALUES_PER_INVOCATION = 1000;
+
+    @Param({"[a-z]{1,10}", "^[a-z0-9]{1,5}\\@[a-z]{1,3}\\.co(m|\\.uk)$", "[A-Z]{2}[0-9]{3}[a-z]?"})
+    public String regex;
+
+    private RandomNumberGenerator randomNumberGenerator;
+    private RegexStringGenerator otherGenerator;
+
+    @Setup
+    public void setup() {
+        randomNumberGenerator = new JavaUtilRandomNumberGenerator(0);
+        otherGenerator = new RegexStringGenerator("[a-zA-Z0-9]{0,8}", true);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES_PER_INVOCATION)
+    public void generateRandomValues(Blackhole blackhole) {
+        RegexStringGenerator generator = new RegexStringGenerator(regex, true);
+        consume(generator.generateRandomValues(randomNumberGenerator), blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES_PER_INVOCATION)
+    public void generateAllValues(Blackhole blackhole) {
+        RegexStringGenerator generator = new RegexStringGenerator(regex, true);
+        consume(generator.generateAllValues(), blackhole);
+    }
+
+    @Benchmark
+    public StringGenerator intersect() {
+        return new RegexStringGenerator(regex, true).intersect(otherGenerator);
+    }
+
+    /**
+     * Consume exactly VALUES_PER_INVOCATION values, starting again from the first value if a finite regex has fewer,
+     * so the throughput reported per value is right whatever the regex
+     */
+    private static void consume(Iterable<String> values, Blackhole blackhole) {
+        Iterator<String> iterator = values.iterator();
+        for (int count = 0; count < VALUES_PER_INVOCATION; count++) {
+            if (!iterator.hasNext()) {
+                iterator = values.iterator();
+            }
+            blackhole.consume(iterator.next());
+        }
+    }
+}
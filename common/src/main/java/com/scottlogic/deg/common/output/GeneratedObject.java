@@ -1,8 +1,17 @@
 package com.scottlogic.deg.common.output;
 
 import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
 
 /** A set of values representing one complete, discrete output (eg, this could be used to make a full CSV row) */
 public interface GeneratedObject {
     Object getFormattedValue(Field field);
+
+    /**
+     * The formatted values of the given fields, in the same order. Writers that output every field of a row should
+     * use this rather than asking for each field in turn, as some rows can find all of their values at once.
+     */
+    default Object[] getFormattedValues(ProfileFields fields) {
+        return fields.stream().map(this::getFormattedValue).toArray();
+    }
 }
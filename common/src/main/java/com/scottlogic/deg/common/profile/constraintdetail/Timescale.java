@@ -2,6 +2,7 @@ package com.scottlogic.deg.common.profile.constraintdetail;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -14,31 +15,31 @@ import java.util.stream.Stream;
  */
 public enum Timescale {
 
-    MILLIS("millis",
+    MILLIS("millis", ChronoUnit.MILLIS,
         current -> current.plusNanos(1_000_000),
         d -> OffsetDateTime.of(d.getYear(), d.getMonth().getValue(), d.getDayOfMonth(), d.getHour(), d.getMinute(), d.getSecond(), nanoToMilli(d.getNano()), ZoneOffset.UTC)),
 
-    SECONDS("seconds",
+    SECONDS("seconds", ChronoUnit.SECONDS,
         current -> current.plusSeconds(1),
         d -> OffsetDateTime.of(d.getYear(), d.getMonth().getValue(), d.getDayOfMonth(), d.getHour(), d.getMinute(), d.getSecond(), 0, ZoneOffset.UTC)),
 
-    MINUTES("minutes",
+    MINUTES("minutes", ChronoUnit.MINUTES,
         current -> current.plusMinutes(1),
         d -> OffsetDateTime.of(d.getYear(), d.getMonth().getValue(), d.getDayOfMonth(), d.getHour(), d.getMinute(), 0, 0, ZoneOffset.UTC)),
 
-    HOURS("hours",
+    HOURS("hours", ChronoUnit.HOURS,
         current -> current.plusHours(1),
         d -> OffsetDateTime.of(d.getYear(), d.getMonth().getValue(), d.getDayOfMonth(), d.getHour(), 0, 0, 0, ZoneOffset.UTC)),
 
-    DAYS("days",
+    DAYS("days", ChronoUnit.DAYS,
         current -> current.plusDays(1),
         d -> OffsetDateTime.of(d.getYear(), d.getMonth().getValue(), d.getDayOfMonth(), 0, 0, 0, 0, ZoneOffset.UTC)),
 
-    MONTHS("months",
+    MONTHS("months", ChronoUnit.MONTHS,
         current -> current.plusMonths(1),
         d -> OffsetDateTime.of(d.getYear(), d.getMonth().getValue(), 1, 0, 0, 0, 0, ZoneOffset.UTC)),
 
-    YEARS("years",
+    YEARS("years", ChronoUnit.YEARS,
         current -> current.plusYears(1),
         d -> OffsetDateTime.of(d.getYear(), 1, 1, 0, 0, 0, 0, ZoneOffset.UTC));
 
@@ -46,12 +47,15 @@ public enum Timescale {
 
     private final String name;
 
+    private final ChronoUnit unit;
+
     private final Function<OffsetDateTime, OffsetDateTime> next;
 
     private final Function<OffsetDateTime, OffsetDateTime> granularityFunction;
 
-    Timescale(final String name, final Function<OffsetDateTime, OffsetDateTime> next, final Function<OffsetDateTime, OffsetDateTime> granularityFunction) {
+    Timescale(final String name, final ChronoUnit unit, final Function<OffsetDateTime, OffsetDateTime> next, final Function<OffsetDateTime, OffsetDateTime> granularityFunction) {
         this.name = name;
+        this.unit = unit;
         this.next = next;
         this.granularityFunction = granularityFunction;
     }
@@ -77,6 +81,13 @@ public enum Timescale {
             .orElseThrow(() -> new IllegalArgumentException(String.format("Must be one of the supported datetime units (%s)", enumNames)));
     }
 
+    /**
+     * @return the unit that getNext() adds, so that many steps can be added at once
+     */
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+
     public Function<OffsetDateTime, OffsetDateTime> getNext() {
         return next;
     }
@@ -9,4 +9,5 @@ public class Defaults {
     public static final BigDecimal NUMERIC_MAX = new BigDecimal("1e20");
     public static final BigDecimal NUMERIC_MIN = new BigDecimal("-1e20");
     public static final int MAX_STRING_LENGTH = 1000;
+    public static final int DEFAULT_MAX_AUTOMATON_STATES = 1_000_000;
 }
@@ -0,0 +1,6 @@
+package com.scottlogic.deg.generator.config.detail;
+
+public enum StringSamplingType {
+    WALK,
+    UNIFORM
+}
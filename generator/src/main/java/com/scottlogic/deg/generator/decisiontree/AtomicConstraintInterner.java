@@ -0,0 +1,58 @@
+package com.scottlogic.deg.generator.decisiontree;
+
+import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gives each distinct (by equals) AtomicConstraint a dense integer id and a canonical instance, so tree nodes can
+ * represent their constraints as bitsets of ids. Ids are handed out in the order constraints are first seen - while
+ * reading the profile for most of them - and are never reused.
+ *
+ * Each tree has its own interner, created by the DecisionTreeFactory along with the tree, and the nodes derived from
+ * the tree's nodes share it; the interner and its ids are discarded with the tree, so they don't grow from one profile
+ * to the next. Ids are only comparable between nodes that share an interner.
+ *
+ * The canonical instance is the first one seen; equal constraints can carry different rules, so nodes keep their own
+ * instances and only use the ids for membership, equality and hashing.
+ *
+ * Nodes are created on every walker thread, and almost always from constraints that already have ids, so looking up
+ * an id doesn't take a lock; only assigning a new id locks, and then only part of the map.
+ */
+public final class AtomicConstraintInterner {
+    public static final int NOT_INTERNED = -1;
+
+    private final Map<AtomicConstraint, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicConstraint> canonicalConstraints = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Get the id of the given constraint, assigning the next id if no equal constraint has been seen before
+     */
+    public int intern(AtomicConstraint constraint) {
+        Integer id = ids.get(constraint);
+        if (id != null) {
+            return id;
+        }
+
+        return ids.computeIfAbsent(constraint, newConstraint -> {
+            int newId = nextId.getAndIncrement();
+            canonicalConstraints.put(newId, newConstraint);
+            return newId;
+        });
+    }
+
+    /**
+     * Get the id of the given constraint without assigning one, or NOT_INTERNED if no equal constraint has been seen
+     */
+    public int find(AtomicConstraint constraint) {
+        Integer id = ids.get(constraint);
+        return id == null ? NOT_INTERNED : id;
+    }
+
+    public AtomicConstraint getCanonicalConstraint(int id) {
+        return canonicalConstraints.get(id);
+    }
+}
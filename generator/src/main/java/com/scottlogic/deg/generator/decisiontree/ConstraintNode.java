@@ -6,21 +6,29 @@ import com.scottlogic.deg.generator.fieldspecs.RowSpec;
 import java.util.*;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public interface ConstraintNode extends Node {
     Collection<AtomicConstraint> getAtomicConstraints();
+    /**
+     * The ids of the node's constraints in the given interner, which are only taken from the node when it shares the
+     * interner
+     */
+    IntStream getAtomicConstraintIds(AtomicConstraintInterner interner);
+    AtomicConstraintInterner getInterner();
     Collection<DecisionNode> getDecisions();
     Optional<RowSpec> getOrCreateRowSpec(Supplier<Optional<RowSpec>> createRowSpecFunc);
     ConstraintNode removeDecisions(Collection<DecisionNode> decisionsToRemove);
     ConstraintNode cloneWithoutAtomicConstraint(AtomicConstraint excludeAtomicConstraint);
     boolean atomicConstraintExists(AtomicConstraint constraint);
+    boolean atomicConstraintExists(AtomicConstraintInterner interner, int constraintId);
     ConstraintNode addAtomicConstraints(Collection<AtomicConstraint> constraints);
     ConstraintNode addDecisions(Collection<DecisionNode> decisions);
     ConstraintNode setDecisions(Collection<DecisionNode> decisions);
     ConstraintNode markNode(NodeMarking marking);
     ConstraintNode accept(NodeVisitor visitor);
 
-    static ConstraintNode merge(Iterator<ConstraintNode> constraintNodeIterator) {
+    static ConstraintNode merge(Iterator<ConstraintNode> constraintNodeIterator, AtomicConstraintInterner interner) {
         Collection<AtomicConstraint> atomicConstraints = new ArrayList<>();
         Collection<DecisionNode> decisions = new ArrayList<>();
         Set<NodeMarking> markings = new HashSet<>();
@@ -33,7 +41,7 @@ public interface ConstraintNode extends Node {
             markings.addAll(constraintNode.getNodeMarkings());
         }
 
-        return new TreeConstraintNode(atomicConstraints, decisions, markings);
+        return new TreeConstraintNode(atomicConstraints, decisions, markings, interner);
     }
 
     default Set<NodeMarking> getNodeMarkings(){
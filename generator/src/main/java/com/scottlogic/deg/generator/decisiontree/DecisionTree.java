@@ -6,11 +6,21 @@ public class DecisionTree {
     public final ConstraintNode rootNode;
     public final ProfileFields fields;
     public final String description;
+    public final int partitionNumber;
 
     public DecisionTree(ConstraintNode rootNode, ProfileFields fields, String description) {
+        this(rootNode, fields, description, 0);
+    }
+
+    /**
+     * @param partitionNumber the position of this tree among the partitions of its profile, in the order they were
+     *                        produced by the partitioner; 0 for a tree that hasn't been partitioned
+     */
+    public DecisionTree(ConstraintNode rootNode, ProfileFields fields, String description, int partitionNumber) {
         this.rootNode = rootNode;
         this.fields = fields;
         this.description = description;
+        this.partitionNumber = partitionNumber;
     }
 
     public ConstraintNode getRootNode() {
@@ -25,6 +35,10 @@ public class DecisionTree {
         return fields;
     }
 
+    public int getPartitionNumber() {
+        return partitionNumber;
+    }
+
     public String toString(){
         return description;
     }
@@ -9,7 +9,8 @@ public class DecisionTreeSimplifier {
         return new DecisionTree(
             simplify(originalTree.getRootNode()),
             originalTree.getFields(),
-            originalTree.getDescription());
+            originalTree.getDescription(),
+            originalTree.getPartitionNumber());
     }
 
     public ConstraintNode simplify(ConstraintNode node) {
@@ -68,7 +69,9 @@ public class DecisionTreeSimplifier {
                             .collect(Collectors.toList()),
                         Stream
                             .concat(node1.getDecisions().stream(), node2.getDecisions().stream())
-                            .collect(Collectors.toList())
+                            .collect(Collectors.toList()),
+                        Collections.emptySet(),
+                        node1.getInterner()
                     )).markNode(NodeMarking.OPTIMISED);
     }
 }
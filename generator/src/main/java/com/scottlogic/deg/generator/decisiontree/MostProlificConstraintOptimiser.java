@@ -6,7 +6,6 @@ import com.scottlogic.deg.common.profile.constraints.atomic.NotConstraint;
 import com.scottlogic.deg.common.profile.RuleInformation;
 
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -30,7 +29,7 @@ public class MostProlificConstraintOptimiser implements DecisionTreeOptimiser {
         if (newRootNode == null)
             return tree;
 
-        return new DecisionTree(newRootNode, tree.getFields(), tree.getDescription());
+        return new DecisionTree(newRootNode, tree.getFields(), tree.getDescription(), tree.getPartitionNumber());
     }
 
     private ConstraintNode optimiseLevelOfTree(ConstraintNode rootNode, int depth){
@@ -59,7 +58,8 @@ public class MostProlificConstraintOptimiser implements DecisionTreeOptimiser {
     }
 
     private ConstraintNode optimiseDecisions(ConstraintNode rootNode, int depth){
-        AtomicConstraint mostProlificAtomicConstraint = getMostProlificAtomicConstraint(rootNode.getDecisions());
+        AtomicConstraintInterner interner = rootNode.getInterner();
+        AtomicConstraint mostProlificAtomicConstraint = getMostProlificAtomicConstraint(rootNode.getDecisions(), interner);
         if (mostProlificAtomicConstraint == null){
             return null;
         }
@@ -67,21 +67,21 @@ public class MostProlificConstraintOptimiser implements DecisionTreeOptimiser {
         AtomicConstraint negatedMostProlificConstraint = mostProlificAtomicConstraint.negate();
 
         List<DecisionNode> factorisableDecisionNodes = rootNode.getDecisions().stream()
-            .filter(node -> this.decisionIsFactorisable(node, mostProlificAtomicConstraint, negatedMostProlificConstraint))
+            .filter(node -> this.decisionIsFactorisable(node, mostProlificAtomicConstraint, negatedMostProlificConstraint, interner))
             .collect(Collectors.toList());
         if (factorisableDecisionNodes.size() < 2){
             return null;
         }
 
         // Add most prolific constraint to new decision node
-        ConstraintNode factorisingConstraintNode = new TreeConstraintNode(mostProlificAtomicConstraint).markNode(NodeMarking.OPTIMISED);
-        ConstraintNode negatedFactorisingConstraintNode = new TreeConstraintNode(negatedMostProlificConstraint).markNode(NodeMarking.OPTIMISED);
+        ConstraintNode factorisingConstraintNode = asConstraintNode(mostProlificAtomicConstraint, interner).markNode(NodeMarking.OPTIMISED);
+        ConstraintNode negatedFactorisingConstraintNode = asConstraintNode(negatedMostProlificConstraint, interner).markNode(NodeMarking.OPTIMISED);
 
         Set<ConstraintNode> otherOptions = new HashSet<>();
         Set<DecisionNode> decisionsToRemove = new HashSet<>();
 
         for (DecisionNode decision : factorisableDecisionNodes) {
-            DecisionAnalyser analyser = new DecisionAnalyser(decision, mostProlificAtomicConstraint);
+            DecisionAnalyser analyser = new DecisionAnalyser(decision, mostProlificAtomicConstraint, interner);
             DecisionAnalysisResult result = analyser.performAnalysis();
 
             // Perform movement of options
@@ -122,32 +122,53 @@ public class MostProlificConstraintOptimiser implements DecisionTreeOptimiser {
         return newNode.addDecisions(Collections.singletonList(decisionUnderFactorisedNode));
     }
 
-    private int disfavourNotConstraints(Map.Entry<AtomicConstraint, List<AtomicConstraint>> entry){
-        return entry.getKey() instanceof NotConstraint ? 1 : 0;
+    /**
+     * Find the atomic constraint that appears in the most options of the given decisions (and in more than one),
+     * preferring constraints that aren't negated and then the lowest by toString() when there is a tie.
+     * Options are counted through their interned constraint ids, so each option costs a scan of its bitset.
+     */
+    private AtomicConstraint getMostProlificAtomicConstraint(Collection<DecisionNode> decisions, AtomicConstraintInterner interner) {
+        List<ConstraintNode> options = FlatMappingSpliterator.flatMap(
+            decisions.stream(),
+            dn -> dn.getOptions().stream())
+            .collect(Collectors.toList());
+
+        Map<Integer, Integer> occurrences = new HashMap<>();
+        options.forEach(option -> option.getAtomicConstraintIds(interner)
+            .forEach(id -> occurrences.merge(id, 1, Integer::sum)));
+
+        int maxOccurrences = occurrences.values().stream()
+            .mapToInt(Integer::intValue)
+            .max()
+            .orElse(0);
+        if (maxOccurrences <= 1) {
+            return null;
+        }
+
+        Comparator<List<AtomicConstraint>> comparator = Comparator
+            .comparing((List<AtomicConstraint> identicalConstraints) -> disfavourNotConstraints(identicalConstraints.get(0)))
+            .thenComparing(identicalConstraints -> identicalConstraints.get(0).toString());
+
+        return occurrences.entrySet().stream()
+            .filter(entry -> entry.getValue() == maxOccurrences)
+            .map(entry -> getIdenticalAtomicConstraints(options, entry.getKey(), interner))
+            .min(comparator)
+            .map(this::getAtomicConstraintWithAllRules)
+            .orElse(null);
     }
 
-    private AtomicConstraint getMostProlificAtomicConstraint(Collection<DecisionNode> decisions) {
-        Map<AtomicConstraint, List<AtomicConstraint>> decisionConstraints =
-            FlatMappingSpliterator.flatMap(
-                FlatMappingSpliterator.flatMap(
-                    decisions.stream(),
-                    dn -> dn.getOptions().stream()),
-                option -> option.getAtomicConstraints().stream())
-            .collect(Collectors.groupingBy(Function.identity()));
-
-        Comparator<Map.Entry<AtomicConstraint, List<AtomicConstraint>>> comparator = Comparator
-            .comparing(entry -> entry.getValue().size());
-        comparator = comparator.reversed()
-            .thenComparing(this::disfavourNotConstraints)
-            .thenComparing(entry -> entry.getKey().toString());
-
-        return decisionConstraints.entrySet()
-            .stream()
-            .filter(constraint -> constraint.getValue().size() > 1) // where the number of occurrences > 1
-            .sorted(comparator)
-            .map(entry -> getAtomicConstraintWithAllRules(entry.getValue()))
-            .findFirst()
-            .orElse(null); //otherwise return null
+    private List<AtomicConstraint> getIdenticalAtomicConstraints(List<ConstraintNode> options, int constraintId, AtomicConstraintInterner interner) {
+        AtomicConstraint canonicalConstraint = interner.getCanonicalConstraint(constraintId);
+
+        return FlatMappingSpliterator.flatMap(
+            options.stream().filter(option -> option.atomicConstraintExists(interner, constraintId)),
+            option -> option.getAtomicConstraints().stream())
+            .filter(canonicalConstraint::equals)
+            .collect(Collectors.toList());
+    }
+
+    private int disfavourNotConstraints(AtomicConstraint constraint){
+        return constraint instanceof NotConstraint ? 1 : 0;
     }
 
     private AtomicConstraint getAtomicConstraintWithAllRules(List<AtomicConstraint> identicalAtomicConstraints) {
@@ -165,20 +186,30 @@ public class MostProlificConstraintOptimiser implements DecisionTreeOptimiser {
         return firstAtomicConstraint.withRules(rules);
     }
 
-    private boolean decisionIsFactorisable(DecisionNode decision, AtomicConstraint factorisingConstraint, AtomicConstraint negatedFactorisingConstraint){
+    private boolean decisionIsFactorisable(DecisionNode decision, AtomicConstraint factorisingConstraint, AtomicConstraint negatedFactorisingConstraint, AtomicConstraintInterner interner){
         // The decision should contain ONE option with the MPC
+        int factorisingConstraintId = interner.intern(factorisingConstraint);
         boolean optionWithMPCExists = decision.getOptions().stream()
-            .filter(option -> option.atomicConstraintExists(factorisingConstraint))
+            .filter(option -> option.atomicConstraintExists(interner, factorisingConstraintId))
             .count() == 1;
 
         // The decision should contain ONE separate option with the negated MPC (which is atomic).
+        int negatedFactorisingConstraintId = interner.intern(negatedFactorisingConstraint);
         boolean optionWithNegatedMPCExists = decision.getOptions().stream()
-            .filter(option -> option.atomicConstraintExists(negatedFactorisingConstraint) && option.getAtomicConstraints().size() == 1)
+            .filter(option -> option.atomicConstraintExists(interner, negatedFactorisingConstraintId) && option.getAtomicConstraints().size() == 1)
             .count() == 1;
 
         return optionWithMPCExists && optionWithNegatedMPCExists;
     }
 
+    private static ConstraintNode asConstraintNode(AtomicConstraint constraint, AtomicConstraintInterner interner) {
+        return new TreeConstraintNode(
+            Collections.singleton(constraint),
+            Collections.emptyList(),
+            Collections.emptySet(),
+            interner);
+    }
+
     private static <T> T coalesce(T... items){
         for (T item : items) {
             if (item != null)
@@ -192,11 +223,13 @@ public class MostProlificConstraintOptimiser implements DecisionTreeOptimiser {
         private DecisionNode decision;
         private AtomicConstraint factorisingConstraint;
         private AtomicConstraint negatedFactorisingConstraint;
+        private AtomicConstraintInterner interner;
         private Set<AtomicConstraint> atomicConstraintsAssociatedWithFactorisingOption = new HashSet<>();
         private Set<AtomicConstraint> atomicConstraintsAssociatedWithNegatedOption = new HashSet<>();
 
-        DecisionAnalyser(DecisionNode decisionNode, AtomicConstraint factorisingConstraint){
+        DecisionAnalyser(DecisionNode decisionNode, AtomicConstraint factorisingConstraint, AtomicConstraintInterner interner){
             this.decision = decisionNode;
+            this.interner = interner;
             this.factorisingConstraint = factorisingConstraint;
             this.negatedFactorisingConstraint = factorisingConstraint.negate();
         }
@@ -207,9 +240,11 @@ public class MostProlificConstraintOptimiser implements DecisionTreeOptimiser {
         DecisionAnalysisResult performAnalysis() {
             DecisionAnalysisResult result = new DecisionAnalysisResult();
             List<ConstraintNode> otherOptions = new ArrayList<>();
+            int factorisingConstraintId = interner.intern(factorisingConstraint);
+            int negatedFactorisingConstraintId = interner.intern(negatedFactorisingConstraint);
             for (ConstraintNode option : decision.getOptions()) {
-                boolean optionContainsProlificConstraint = option.atomicConstraintExists(factorisingConstraint);
-                boolean optionContainsNegatedProlificConstraint = option.atomicConstraintExists(negatedFactorisingConstraint);
+                boolean optionContainsProlificConstraint = option.atomicConstraintExists(interner, factorisingConstraintId);
+                boolean optionContainsNegatedProlificConstraint = option.atomicConstraintExists(interner, negatedFactorisingConstraintId);
                 if (optionContainsProlificConstraint && optionContainsNegatedProlificConstraint) {
                     throw new RuntimeException("Contradictory constraint node");
                 } else if (optionContainsProlificConstraint) {
@@ -19,38 +19,42 @@ import java.util.stream.Collectors;
 public class ProfileDecisionTreeFactory implements DecisionTreeFactory {
     private final DecisionTreeSimplifier decisionTreeSimplifier = new DecisionTreeSimplifier();
 
+    /**
+     * Each tree gets its own AtomicConstraintInterner, shared by all of its nodes
+     */
     @Override
     public DecisionTree analyse(Profile profile) {
+        AtomicConstraintInterner interner = new AtomicConstraintInterner();
         Iterator<ConstraintNode> nodes = profile.getRules().stream()
-            .map(this::convertRule)
+            .map(rule -> convertRule(rule, interner))
             .map(decisionTreeSimplifier::simplify)
             .iterator();
 
-        return new DecisionTree(ConstraintNode.merge(nodes), profile.getFields(), profile.getDescription());
+        return new DecisionTree(ConstraintNode.merge(nodes, interner), profile.getFields(), profile.getDescription());
     }
 
-    private ConstraintNode convertRule(Rule rule) {
-        return convertAndConstraint(new AndConstraint(rule.constraints));
+    private ConstraintNode convertRule(Rule rule, AtomicConstraintInterner interner) {
+        return convertAndConstraint(new AndConstraint(rule.constraints), interner);
     }
 
-    private ConstraintNode convertConstraint(Constraint constraintToConvert) {
+    private ConstraintNode convertConstraint(Constraint constraintToConvert, AtomicConstraintInterner interner) {
         if (constraintToConvert instanceof NegatedGrammaticalConstraint) {
-            return convertNegatedConstraint(constraintToConvert);
+            return convertNegatedConstraint(constraintToConvert, interner);
         }
         else if (constraintToConvert instanceof AndConstraint) {
-            return convertAndConstraint((AndConstraint) constraintToConvert);
+            return convertAndConstraint((AndConstraint) constraintToConvert, interner);
         }
         else if (constraintToConvert instanceof OrConstraint) {
-            return convertOrConstraint((OrConstraint) constraintToConvert);
+            return convertOrConstraint((OrConstraint) constraintToConvert, interner);
         } else if (constraintToConvert instanceof ConditionalConstraint) {
-            return convertConditionalConstraint((ConditionalConstraint) constraintToConvert);
+            return convertConditionalConstraint((ConditionalConstraint) constraintToConvert, interner);
         } else {
             AtomicConstraint atomicConstraint = (AtomicConstraint) constraintToConvert;
-            return asConstraintNode(atomicConstraint);
+            return asConstraintNode(atomicConstraint, interner);
         }
     }
 
-    private ConstraintNode convertNegatedConstraint(Object constraintToConvert) {
+    private ConstraintNode convertNegatedConstraint(Object constraintToConvert, AtomicConstraintInterner interner) {
         Constraint negatedConstraint = ((NegatedGrammaticalConstraint) constraintToConvert).negatedConstraint;
 
         // ¬AND(X, Y, Z) reduces to OR(¬X, ¬Y, ¬Z)
@@ -58,14 +62,14 @@ public class ProfileDecisionTreeFactory implements DecisionTreeFactory {
             Collection<Constraint> subConstraints = ((AndConstraint) negatedConstraint).subConstraints;
 
             return convertOrConstraint(
-                new OrConstraint(negateEach(subConstraints)));
+                new OrConstraint(negateEach(subConstraints)), interner);
         }
         // ¬OR(X, Y, Z) reduces to AND(¬X, ¬Y, ¬Z)
         else if (negatedConstraint instanceof OrConstraint) {
             Collection<Constraint> subConstraints = ((OrConstraint) negatedConstraint).subConstraints;
 
             return convertAndConstraint(
-                new AndConstraint(negateEach(subConstraints)));
+                new AndConstraint(negateEach(subConstraints)), interner);
         }
         // ¬IF(X, then: Y) reduces to AND(X, ¬Y)
         // ¬IF(X, then: Y, else: Z) reduces to OR(AND(X, ¬Y), AND(¬X, ¬Z))
@@ -76,45 +80,46 @@ public class ProfileDecisionTreeFactory implements DecisionTreeFactory {
                 new AndConstraint(conditional.condition, conditional.whenConditionIsTrue.negate());
 
             if (conditional.whenConditionIsFalse == null) {
-                return convertAndConstraint(positiveNegation);
+                return convertAndConstraint(positiveNegation, interner);
             }
 
             Constraint negativeNegation =
                 new AndConstraint(conditional.condition.negate(), conditional.whenConditionIsFalse.negate());
 
             return convertOrConstraint(
-                new OrConstraint(positiveNegation, negativeNegation));
+                new OrConstraint(positiveNegation, negativeNegation), interner);
 
         }
         // if we got this far, it must be an atomic constraint
         else {
             AtomicConstraint atomicConstraint = (AtomicConstraint) constraintToConvert;
-            return asConstraintNode(atomicConstraint);
+            return asConstraintNode(atomicConstraint, interner);
         }
     }
 
-    private ConstraintNode convertAndConstraint(AndConstraint constraintToConvert) {
+    private ConstraintNode convertAndConstraint(AndConstraint constraintToConvert, AtomicConstraintInterner interner) {
         // AND(X, Y, Z) becomes a flattened list of constraint nodes
         Collection<Constraint> subConstraints = constraintToConvert.subConstraints;
 
-        Iterator<ConstraintNode> iterator = subConstraints.stream().map(this::convertConstraint)
+        Iterator<ConstraintNode> iterator = subConstraints.stream()
+            .map(constraint -> convertConstraint(constraint, interner))
             .iterator();
 
-        return ConstraintNode.merge(iterator);
+        return ConstraintNode.merge(iterator, interner);
     }
 
-    private ConstraintNode convertOrConstraint(OrConstraint constraintToConvert) {
+    private ConstraintNode convertOrConstraint(OrConstraint constraintToConvert, AtomicConstraintInterner interner) {
         // OR(X, Y, Z) becomes a decision node
         Collection<Constraint> subConstraints = constraintToConvert.subConstraints;
 
         List<ConstraintNode> options = subConstraints.stream()
-            .map(this::convertConstraint)
+            .map(constraint -> convertConstraint(constraint, interner))
             .collect(Collectors.toList());
 
-        return asConstraintNode(new TreeDecisionNode(options));
+        return asConstraintNode(new TreeDecisionNode(options), interner);
     }
 
-    private ConstraintNode convertConditionalConstraint(ConditionalConstraint constraintToConvert) {
+    private ConstraintNode convertConditionalConstraint(ConditionalConstraint constraintToConvert, AtomicConstraintInterner interner) {
         Constraint ifConstraint = constraintToConvert.condition;
         Constraint thenConstraint = constraintToConvert.whenConditionIsTrue;
         Constraint elseConstraint = constraintToConvert.whenConditionIsFalse;
@@ -123,7 +128,7 @@ public class ProfileDecisionTreeFactory implements DecisionTreeFactory {
             new AndConstraint(ifConstraint, thenConstraint),
             elseConstraint == null ? ifConstraint.negate() : new AndConstraint(ifConstraint.negate(), elseConstraint));
 
-        return convertOrConstraint(convertedConstraint);
+        return convertOrConstraint(convertedConstraint, interner);
     }
 
     private static Collection<Constraint> negateEach(Collection<Constraint> constraints) {
@@ -132,15 +137,19 @@ public class ProfileDecisionTreeFactory implements DecisionTreeFactory {
             .collect(Collectors.toList());
     }
 
-    private static ConstraintNode asConstraintNode(AtomicConstraint constraint) {
+    private static ConstraintNode asConstraintNode(AtomicConstraint constraint, AtomicConstraintInterner interner) {
         return new TreeConstraintNode(
             Collections.singleton(constraint),
-            Collections.emptyList());
+            Collections.emptyList(),
+            Collections.emptySet(),
+            interner);
     }
 
-    private static ConstraintNode asConstraintNode(DecisionNode decision) {
+    private static ConstraintNode asConstraintNode(DecisionNode decision, AtomicConstraintInterner interner) {
         return new TreeConstraintNode(
             Collections.emptyList(),
-            Collections.singleton(decision));
+            Collections.singleton(decision),
+            Collections.emptySet(),
+            interner);
     }
 }
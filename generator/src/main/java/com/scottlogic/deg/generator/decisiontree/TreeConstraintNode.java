@@ -8,21 +8,47 @@ import java.util.*;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public final class TreeConstraintNode implements ConstraintNode {
     public static final ConstraintNode empty = new TreeConstraintNode(Collections.emptySet(), Collections.emptySet(), Collections.emptySet());
 
-    private final Collection<AtomicConstraint> atomicConstraints;
+    /** Distinct atomic constraints, in the order they were first added */
+    private final List<AtomicConstraint> atomicConstraints;
+    /** The interner the ids of atomicConstraints are taken from, shared with the nodes derived from this one */
+    private final AtomicConstraintInterner interner;
+    /** The interned id of each of atomicConstraints */
+    private final BitSet atomicConstraintIds;
+    /** The sum of the hash codes of atomicConstraints, so nodes with different interners hash alike */
+    private int atomicConstraintsHashCode;
     private final Collection<DecisionNode> decisions;
     private final Set<NodeMarking> nodeMarkings;
 
+    /**
+     * Create a node with its own interner, only nodes derived from it will share the ids of its constraints
+     */
     public TreeConstraintNode(Collection<AtomicConstraint> atomicConstraints, Collection<DecisionNode> decisions) {
         this(atomicConstraints, decisions, Collections.emptySet());
     }
 
+    /**
+     * Create a node with its own interner, only nodes derived from it will share the ids of its constraints
+     */
     public TreeConstraintNode(Collection<AtomicConstraint> atomicConstraints, Collection<DecisionNode> decisions, Set<NodeMarking> nodeMarkings) {
-        this.atomicConstraints = Collections.unmodifiableCollection(atomicConstraints);
+        this(atomicConstraints, decisions, nodeMarkings, new AtomicConstraintInterner());
+    }
+
+    public TreeConstraintNode(Collection<AtomicConstraint> atomicConstraints, Collection<DecisionNode> decisions, Set<NodeMarking> nodeMarkings, AtomicConstraintInterner interner) {
+        this(new ArrayList<>(atomicConstraints.size()), interner, new BitSet(), 0, decisions, nodeMarkings);
+        atomicConstraints.forEach(this::addIfAbsent);
+    }
+
+    private TreeConstraintNode(List<AtomicConstraint> atomicConstraints, AtomicConstraintInterner interner, BitSet atomicConstraintIds, int atomicConstraintsHashCode, Collection<DecisionNode> decisions, Set<NodeMarking> nodeMarkings) {
+        this.atomicConstraints = atomicConstraints;
+        this.interner = interner;
+        this.atomicConstraintIds = atomicConstraintIds;
+        this.atomicConstraintsHashCode = atomicConstraintsHashCode;
         this.decisions = Collections.unmodifiableCollection(decisions);
         this.nodeMarkings = Collections.unmodifiableSet(nodeMarkings);
     }
@@ -49,7 +75,19 @@ public final class TreeConstraintNode implements ConstraintNode {
     }
 
     public Collection<AtomicConstraint> getAtomicConstraints() {
-        return new HashSet<>(atomicConstraints);
+        return Collections.unmodifiableList(atomicConstraints);
+    }
+
+    public IntStream getAtomicConstraintIds(AtomicConstraintInterner interner) {
+        if (interner == this.interner) {
+            return atomicConstraintIds.stream();
+        }
+
+        return atomicConstraints.stream().mapToInt(interner::intern);
+    }
+
+    public AtomicConstraintInterner getInterner() {
+        return interner;
     }
 
     public Collection<DecisionNode> getDecisions() {
@@ -92,6 +130,9 @@ public final class TreeConstraintNode implements ConstraintNode {
 
         return new TreeConstraintNode(
           this.atomicConstraints,
+          this.interner,
+          this.atomicConstraintIds,
+          this.atomicConstraintsHashCode,
           decisions.stream()
               .filter(existingDecision -> !shouldRemove.apply(existingDecision))
               .collect(Collectors.toList()),
@@ -100,37 +141,59 @@ public final class TreeConstraintNode implements ConstraintNode {
     }
 
     public ConstraintNode cloneWithoutAtomicConstraint(AtomicConstraint excludeAtomicConstraint) {
-        return new TreeConstraintNode(
-            this.atomicConstraints
-                .stream()
-                .filter(c -> !c.equals(excludeAtomicConstraint))
-                .collect(Collectors.toList()),
+        if (!atomicConstraintExists(excludeAtomicConstraint)) {
+            return new TreeConstraintNode(atomicConstraints, interner, atomicConstraintIds, atomicConstraintsHashCode, decisions, nodeMarkings);
+        }
+
+        TreeConstraintNode newNode = new TreeConstraintNode(
+            new ArrayList<>(atomicConstraints.size() - 1),
+            interner,
+            new BitSet(),
+            0,
             decisions,
-            this.nodeMarkings);
+            nodeMarkings);
+        atomicConstraints.stream()
+            .filter(c -> !c.equals(excludeAtomicConstraint))
+            .forEach(newNode::addIfAbsent);
+        return newNode;
     }
 
     public boolean atomicConstraintExists(AtomicConstraint constraint) {
-        return atomicConstraints
-            .stream()
-            .anyMatch(c -> c.equals(constraint));
+        return atomicConstraintExists(interner, interner.find(constraint));
+    }
+
+    public boolean atomicConstraintExists(AtomicConstraintInterner interner, int constraintId) {
+        if (constraintId == AtomicConstraintInterner.NOT_INTERNED) {
+            return false;
+        }
+
+        if (interner == this.interner) {
+            return atomicConstraintIds.get(constraintId);
+        }
+
+        return atomicConstraintExists(interner.getCanonicalConstraint(constraintId));
     }
 
     public ConstraintNode addAtomicConstraints(Collection<AtomicConstraint> constraints) {
-        return new TreeConstraintNode(
-            Stream
-                .concat(
-                    this.atomicConstraints.stream(),
-                    constraints.stream())
-                .collect(Collectors.toList()),
+        TreeConstraintNode newNode = new TreeConstraintNode(
+            new ArrayList<>(this.atomicConstraints),
+            this.interner,
+            (BitSet) this.atomicConstraintIds.clone(),
+            this.atomicConstraintsHashCode,
             this.decisions,
             this.nodeMarkings
         );
+        constraints.forEach(newNode::addIfAbsent);
+        return newNode;
     }
 
     @Override
     public ConstraintNode addDecisions(Collection<DecisionNode> decisions) {
         return new TreeConstraintNode(
             atomicConstraints,
+            interner,
+            atomicConstraintIds,
+            atomicConstraintsHashCode,
             Stream
                 .concat(
                     this.decisions.stream(),
@@ -142,7 +205,7 @@ public final class TreeConstraintNode implements ConstraintNode {
 
     @Override
     public ConstraintNode setDecisions(Collection<DecisionNode> decisions) {
-        return new TreeConstraintNode(this.atomicConstraints, decisions, this.nodeMarkings);
+        return new TreeConstraintNode(this.atomicConstraints, this.interner, this.atomicConstraintIds, this.atomicConstraintsHashCode, decisions, this.nodeMarkings);
     }
 
     @Override
@@ -156,7 +219,7 @@ public final class TreeConstraintNode implements ConstraintNode {
             Stream.of(Collections.singleton(marking), this.nodeMarkings),
             Collection::stream)
             .collect(Collectors.toSet());
-        return new TreeConstraintNode(this.atomicConstraints, this.decisions, newMarkings);
+        return new TreeConstraintNode(this.atomicConstraints, this.interner, this.atomicConstraintIds, this.atomicConstraintsHashCode, this.decisions, newMarkings);
     }
 
     @Override
@@ -164,13 +227,25 @@ public final class TreeConstraintNode implements ConstraintNode {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         TreeConstraintNode that = (TreeConstraintNode) o;
-        return Objects.equals(atomicConstraints, that.atomicConstraints) &&
-            Objects.equals(decisions, that.decisions);
+        return sameAtomicConstraints(that) &&
+            decisions.size() == that.decisions.size() &&
+            decisions.containsAll(that.decisions) &&
+            that.decisions.containsAll(decisions);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(atomicConstraints, decisions);
+        return 31 * atomicConstraintsHashCode + decisions.stream().mapToInt(Object::hashCode).sum();
+    }
+
+    private boolean sameAtomicConstraints(TreeConstraintNode other) {
+        if (interner == other.interner) {
+            return atomicConstraintIds.equals(other.atomicConstraintIds);
+        }
+
+        return atomicConstraintsHashCode == other.atomicConstraintsHashCode &&
+            atomicConstraints.size() == other.atomicConstraints.size() &&
+            other.atomicConstraints.stream().allMatch(this::atomicConstraintExists);
     }
 
     @Override
@@ -179,8 +254,23 @@ public final class TreeConstraintNode implements ConstraintNode {
 
         return visitor.visit(
             new TreeConstraintNode(
-                new ArrayList<>(atomicConstraints),
+                atomicConstraints,
+                interner,
+                atomicConstraintIds,
+                atomicConstraintsHashCode,
                 decisionNodeStream.collect(Collectors.toSet()),
                 nodeMarkings));
     }
+
+    /**
+     * Only to be used while constructing a node, before it is shared
+     */
+    private void addIfAbsent(AtomicConstraint constraint) {
+        int id = interner.intern(constraint);
+        if (!atomicConstraintIds.get(id)) {
+            atomicConstraintIds.set(id);
+            atomicConstraints.add(constraint);
+            atomicConstraintsHashCode += constraint.hashCode();
+        }
+    }
 }
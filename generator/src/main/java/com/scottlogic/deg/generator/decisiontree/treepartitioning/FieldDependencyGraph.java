@@ -0,0 +1,204 @@
+package com.scottlogic.deg.generator.decisiontree.treepartitioning;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
+import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
+import com.scottlogic.deg.generator.decisiontree.DecisionNode;
+import com.scottlogic.deg.generator.decisiontree.DecisionTree;
+
+import java.util.*;
+
+/**
+ * Which fields of a decision tree depend on each other. Two fields are directly dependent when a root-level constraint
+ * or decision of the tree acts on both of them, and dependent when they are linked by a chain of direct dependencies.
+ *
+ * Fields are given dense indices (profile order, then any constrained fields missing from the profile) so the fields
+ * of each root-level constraint are held as a bitset, and the groups of dependent fields are found with a union-find
+ * over those indices.
+ */
+public class FieldDependencyGraph {
+    private final List<Field> fields = new ArrayList<>();
+    private final Map<Field, Integer> fieldIndices = new HashMap<>();
+    private final List<RootLevelConstraint> constraints = new ArrayList<>();
+    private final List<BitSet> constraintFields = new ArrayList<>();
+    private final int[] parents;
+    private final BitSet constrainedFields = new BitSet();
+
+    public FieldDependencyGraph(DecisionTree decisionTree) {
+        decisionTree.getFields().forEach(this::getOrAddIndex);
+
+        ConstraintNode rootNode = decisionTree.getRootNode();
+        rootNode.getAtomicConstraints().forEach(constraint -> {
+            BitSet fieldSet = new BitSet();
+            fieldSet.set(getOrAddIndex(constraint.getField()));
+            addConstraint(new RootLevelConstraint(constraint), fieldSet);
+        });
+        rootNode.getDecisions().forEach(decision -> {
+            BitSet fieldSet = new BitSet();
+            addFields(decision, fieldSet);
+            addConstraint(new RootLevelConstraint(decision), fieldSet);
+        });
+
+        parents = new int[fields.size()];
+        int[] sizes = new int[fields.size()];
+        for (int index = 0; index < parents.length; index++) {
+            parents[index] = index;
+            sizes[index] = 1;
+        }
+
+        for (BitSet fieldSet : constraintFields) {
+            int first = fieldSet.nextSetBit(0);
+            for (int other = fieldSet.nextSetBit(first + 1); other >= 0; other = fieldSet.nextSetBit(other + 1)) {
+                union(first, other, sizes);
+            }
+        }
+
+        // flatten so every field points straight at the root of its group
+        for (int index = 0; index < parents.length; index++) {
+            parents[index] = find(index);
+        }
+    }
+
+    public List<Field> getFields() {
+        return Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * @return true if the fields are the same or are linked by the constraints of the tree
+     */
+    public boolean areDependent(Field first, Field second) {
+        return parents[getIndex(first)] == parents[getIndex(second)];
+    }
+
+    /**
+     * @return the fields linked to the given field by the constraints of the tree, including the field itself, in
+     * profile order
+     */
+    public List<Field> getDependentFields(Field field) {
+        int root = parents[getIndex(field)];
+        List<Field> dependentFields = new ArrayList<>();
+        for (int index = 0; index < parents.length; index++) {
+            if (parents[index] == root) {
+                dependentFields.add(fields.get(index));
+            }
+        }
+        return dependentFields;
+    }
+
+    /**
+     * @return the groups of fields that depend on each other, ordered by their first field
+     */
+    public List<List<Field>> getDependentFieldGroups() {
+        Map<Integer, List<Field>> groupsByRoot = new LinkedHashMap<>();
+        for (int index = 0; index < parents.length; index++) {
+            groupsByRoot.computeIfAbsent(parents[index], root -> new ArrayList<>()).add(fields.get(index));
+        }
+        return new ArrayList<>(groupsByRoot.values());
+    }
+
+    /**
+     * Split the fields and root-level constraints of the tree into independent groups. Groups with constraints come
+     * first, ordered by their first field, followed by each unconstrained field on its own.
+     */
+    List<Partition> getPartitions() {
+        Map<Integer, Partition> partitionsByRoot = new LinkedHashMap<>();
+        List<Partition> unconstrainedPartitions = new ArrayList<>();
+        for (int index = 0; index < parents.length; index++) {
+            if (constrainedFields.get(index)) {
+                partitionsByRoot.computeIfAbsent(parents[index], root -> new Partition()).fields.add(fields.get(index));
+            } else {
+                Partition partition = new Partition();
+                partition.fields.add(fields.get(index));
+                unconstrainedPartitions.add(partition);
+            }
+        }
+
+        List<Partition> fieldlessPartitions = new ArrayList<>();
+        for (int constraintIndex = 0; constraintIndex < constraints.size(); constraintIndex++) {
+            int firstField = constraintFields.get(constraintIndex).nextSetBit(0);
+            Partition partition;
+            if (firstField < 0) {
+                partition = new Partition();
+                fieldlessPartitions.add(partition);
+            } else {
+                partition = partitionsByRoot.get(parents[firstField]);
+            }
+            partition.add(constraints.get(constraintIndex));
+        }
+
+        List<Partition> partitions = new ArrayList<>(partitionsByRoot.values());
+        partitions.addAll(fieldlessPartitions);
+        partitions.addAll(unconstrainedPartitions);
+        return partitions;
+    }
+
+    private void addConstraint(RootLevelConstraint constraint, BitSet fieldSet) {
+        constraints.add(constraint);
+        constraintFields.add(fieldSet);
+        constrainedFields.or(fieldSet);
+    }
+
+    private void addFields(DecisionNode decision, BitSet fieldSet) {
+        for (ConstraintNode option : decision.getOptions()) {
+            option.getAtomicConstraints().forEach(constraint -> fieldSet.set(getOrAddIndex(constraint.getField())));
+            option.getDecisions().forEach(subDecision -> addFields(subDecision, fieldSet));
+        }
+    }
+
+    private int getOrAddIndex(Field field) {
+        Integer index = fieldIndices.get(field);
+        if (index != null) {
+            return index;
+        }
+
+        fieldIndices.put(field, fields.size());
+        fields.add(field);
+        return fields.size() - 1;
+    }
+
+    private int getIndex(Field field) {
+        Integer index = fieldIndices.get(field);
+        if (index == null) {
+            throw new IllegalArgumentException("Field " + field + " is not part of the decision tree");
+        }
+        return index;
+    }
+
+    private int find(int index) {
+        while (parents[index] != index) {
+            parents[index] = parents[parents[index]];
+            index = parents[index];
+        }
+        return index;
+    }
+
+    private void union(int first, int second, int[] sizes) {
+        int firstRoot = find(first);
+        int secondRoot = find(second);
+        if (firstRoot == secondRoot) {
+            return;
+        }
+
+        if (sizes[firstRoot] < sizes[secondRoot]) {
+            int swap = firstRoot;
+            firstRoot = secondRoot;
+            secondRoot = swap;
+        }
+        parents[secondRoot] = firstRoot;
+        sizes[firstRoot] += sizes[secondRoot];
+    }
+
+    static class Partition {
+        final List<Field> fields = new ArrayList<>();
+        final List<AtomicConstraint> atomicConstraints = new ArrayList<>();
+        final List<DecisionNode> decisionNodes = new ArrayList<>();
+
+        void add(RootLevelConstraint constraint) {
+            if (constraint.getAtomicConstraint() != null) {
+                atomicConstraints.add(constraint.getAtomicConstraint());
+            } else {
+                decisionNodes.add(constraint.getDecisionNode());
+            }
+        }
+    }
+}
@@ -11,10 +11,14 @@ import java.util.stream.Collectors;
  * A complete set of information needed to generate a row satisfying a set of constraints.
  *
  * Typically created by combining choices over a decision tree.
+ *
+ * RowSpecs are immutable, and are used as (part of) cache keys by the walkers, so the hash code is computed once and
+ * kept.
  */
 public class RowSpec {
-    private ProfileFields fields;
-    Map<Field, FieldSpec> fieldToFieldSpec;
+    private final ProfileFields fields;
+    private final Map<Field, FieldSpec> fieldToFieldSpec;
+    private int hashCode;
 
     public RowSpec(
         ProfileFields fields,
@@ -89,5 +93,24 @@ public class RowSpec {
     public String toString() {
         return Objects.toString(fieldToFieldSpec);
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RowSpec rowSpec = (RowSpec) o;
+        if (hashCode != 0 && rowSpec.hashCode != 0 && hashCode != rowSpec.hashCode) return false;
+        return Objects.equals(fields, rowSpec.fields) &&
+            Objects.equals(fieldToFieldSpec, rowSpec.fieldToFieldSpec);
+    }
+
+    @Override
+    public int hashCode() {
+        // 0 means not yet computed; racing threads compute the same value, as with String.hashCode()
+        if (hashCode == 0) {
+            hashCode = Objects.hash(fields, fieldToFieldSpec);
+        }
+        return hashCode;
+    }
 }
 
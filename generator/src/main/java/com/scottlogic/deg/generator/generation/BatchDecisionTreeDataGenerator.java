@@ -0,0 +1,142 @@
+package com.scottlogic.deg.generator.generation;
+
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.profile.Profile;
+import com.scottlogic.deg.common.util.FlatMappingSpliterator;
+import com.scottlogic.deg.generator.decisiontree.DecisionTree;
+import com.scottlogic.deg.generator.decisiontree.DecisionTreeFactory;
+import com.scottlogic.deg.generator.decisiontree.DecisionTreeOptimiser;
+import com.scottlogic.deg.generator.decisiontree.treepartitioning.TreePartitioner;
+import com.scottlogic.deg.generator.generation.batches.*;
+import com.scottlogic.deg.generator.generation.databags.DataBag;
+import com.scottlogic.deg.generator.walker.DecisionTreeWalker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Generates data in the same way as the DecisionTreeDataGenerator, but the rows of each partition are packed into
+ * column-wise batches as they are walked and the partitions are combined a batch at a time, so no map of values is
+ * created per combined row. Rows are passed on as views over the batches.
+ */
+public class BatchDecisionTreeDataGenerator implements DataGenerator {
+    private static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private final DecisionTreeWalker treeWalker;
+    private final DataGeneratorMonitor monitor;
+    private final DecisionTreeFactory decisionTreeGenerator;
+    private final TreePartitioner treePartitioner;
+    private final DecisionTreeOptimiser treeOptimiser;
+    private final BatchCombinationStrategy partitionCombiner;
+    private final long maxRows;
+    private final int batchSize;
+
+    @Inject
+    public BatchDecisionTreeDataGenerator(
+        DecisionTreeFactory decisionTreeGenerator,
+        DecisionTreeWalker treeWalker,
+        TreePartitioner treePartitioner,
+        DecisionTreeOptimiser optimiser,
+        DataGeneratorMonitor monitor,
+        BatchCombinationStrategy combinationStrategy,
+        @Named("config:maxRows") long maxRows) {
+        this(decisionTreeGenerator, treeWalker, treePartitioner, optimiser, monitor, combinationStrategy, maxRows, DEFAULT_BATCH_SIZE);
+    }
+
+    public BatchDecisionTreeDataGenerator(
+        DecisionTreeFactory decisionTreeGenerator,
+        DecisionTreeWalker treeWalker,
+        TreePartitioner treePartitioner,
+        DecisionTreeOptimiser optimiser,
+        DataGeneratorMonitor monitor,
+        BatchCombinationStrategy combinationStrategy,
+        long maxRows,
+        int batchSize) {
+        this.decisionTreeGenerator = decisionTreeGenerator;
+        this.treePartitioner = treePartitioner;
+        this.treeOptimiser = optimiser;
+        this.treeWalker = treeWalker;
+        this.monitor = monitor;
+        this.partitionCombiner = combinationStrategy;
+        this.maxRows = maxRows;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Stream<GeneratedObject> generateData(Profile profile) {
+        monitor.generationStarting();
+        DecisionTree decisionTree = decisionTreeGenerator.analyse(profile);
+        FieldIndexes fieldIndexes = new FieldIndexes(profile.getFields());
+
+        // start walking every partition before combining them, so that walkers which produce rows
+        // concurrently can work on all partitions at once
+        List<PartitionBatches> partitionedBatches = treePartitioner
+            .splitTreeIntoPartitions(decisionTree)
+            .map(treeOptimiser::optimiseTree)
+            .map(tree -> new PartitionBatches(tree, fieldIndexes))
+            .collect(Collectors.toList());
+
+        Stream<RowBatch> batches = partitionedBatches.size() == 1
+            ? partitionedBatches.get(0).get()
+            : partitionCombiner.permuteRestartable(new ArrayList<>(partitionedBatches), fieldIndexes, batchSize);
+
+        return FlatMappingSpliterator.flatMap(
+            batches,
+            batch -> IntStream.range(0, batch.size()).mapToObj(batch::getRow))
+            .limit(maxRows)
+            .peek(monitor::rowEmitted)
+            .onClose(() -> partitionedBatches.forEach(PartitionBatches::close));
+    }
+
+    /**
+     * The batches of a partition, the first walk is started straight away and the partition is walked again each
+     * time the combination strategy needs to produce its batches again
+     */
+    private class PartitionBatches implements Supplier<Stream<RowBatch>> {
+        private final DecisionTree partition;
+        private final FieldIndexes fieldIndexes;
+        private Stream<RowBatch> latestWalk;
+        private boolean firstWalkTaken;
+
+        PartitionBatches(DecisionTree partition, FieldIndexes fieldIndexes) {
+            this.partition = partition;
+            this.fieldIndexes = fieldIndexes;
+            this.latestWalk = walk();
+        }
+
+        @Override
+        public Stream<RowBatch> get() {
+            if (firstWalkTaken) {
+                latestWalk = walk();
+            }
+
+            firstWalkTaken = true;
+            return latestWalk;
+        }
+
+        void close() {
+            latestWalk.close();
+        }
+
+        private Stream<RowBatch> walk() {
+            Stream<DataBag> rows = treeWalker.walk(partition);
+            DataBagBatchingIterator batches = new DataBagBatchingIterator(
+                rows.iterator(),
+                partition.getFields(),
+                fieldIndexes,
+                batchSize);
+
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED), false)
+                .onClose(rows::close);
+        }
+    }
+}
@@ -12,6 +12,10 @@ import com.scottlogic.deg.generator.generation.databags.*;
 import com.scottlogic.deg.common.output.GeneratedObject;
 import com.scottlogic.deg.generator.walker.DecisionTreeWalker;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class DecisionTreeDataGenerator implements DataGenerator {
@@ -46,14 +50,47 @@ public class DecisionTreeDataGenerator implements DataGenerator {
         monitor.generationStarting();
         DecisionTree decisionTree = decisionTreeGenerator.analyse(profile);
 
-        Stream<Stream<DataBag>> partitionedDataBags = treePartitioner
+        // start walking every partition before combining them, so that walkers which produce rows
+        // concurrently can work on all partitions at once
+        List<PartitionWalk> partitionWalks = treePartitioner
             .splitTreeIntoPartitions(decisionTree)
             .map(treeOptimiser::optimiseTree)
-            .map(treeWalker::walk);
+            .map(PartitionWalk::new)
+            .collect(Collectors.toList());
 
-        return partitionCombiner.permute(partitionedDataBags)
+        return partitionCombiner.permuteRestartable(new ArrayList<>(partitionWalks))
             .map(d->(GeneratedObject)d)
             .limit(maxRows)
-            .peek(monitor::rowEmitted);
+            .peek(monitor::rowEmitted)
+            .onClose(() -> partitionWalks.forEach(PartitionWalk::close));
+    }
+
+    /**
+     * The rows of a partition, the first walk is started straight away and the partition is walked again each time
+     * the combination strategy needs to produce the rows again
+     */
+    private class PartitionWalk implements Supplier<Stream<DataBag>> {
+        private final DecisionTree partition;
+        private Stream<DataBag> latestWalk;
+        private boolean firstWalkTaken;
+
+        PartitionWalk(DecisionTree partition) {
+            this.partition = partition;
+            this.latestWalk = treeWalker.walk(partition);
+        }
+
+        @Override
+        public Stream<DataBag> get() {
+            if (firstWalkTaken) {
+                latestWalk = treeWalker.walk(partition);
+            }
+
+            firstWalkTaken = true;
+            return latestWalk;
+        }
+
+        void close() {
+            latestWalk.close();
+        }
     }
 }
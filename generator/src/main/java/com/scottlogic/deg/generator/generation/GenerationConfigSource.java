@@ -3,16 +3,25 @@ package com.scottlogic.deg.generator.generation;
 import com.scottlogic.deg.generator.config.detail.*;
 
 import java.nio.file.Path;
+import java.util.Optional;
 
 public interface GenerationConfigSource  {
     DataGenerationType getGenerationType();
     CombinationStrategyType getCombinationStrategyType();
+    int getMaxCachedRowsPerPartition();
     TreeWalkerType getWalkerType();
+    GenerationEngineType getGenerationEngineType();
+    StringSamplingType getStringSamplingType();
+    int getMaxAutomatonStates();
     long getMaxRows();
+    Optional<Long> getSeed();
 
     MonitorType getMonitorType();
     boolean shouldDoPartitioning();
     boolean visualiseReductions();
     boolean requireFieldTyping();
     boolean dontOptimise();
+    int getPartitionThreadCount();
+    int getWalkerThreadCount();
+    boolean allowUnorderedRows();
 }
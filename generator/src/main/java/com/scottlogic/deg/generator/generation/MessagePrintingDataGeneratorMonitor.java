@@ -41,7 +41,7 @@ public class MessagePrintingDataGeneratorMonitor implements ReductiveDataGenerat
     public void unableToStepFurther(ReductiveState reductiveState) {
         println(
             "%d: Unable to step further %s ",
-            reductiveState.getFieldValues().size(),
+            reductiveState.getFixedFieldCount(),
             reductiveState.toString(true));
     }
 
@@ -49,7 +49,7 @@ public class MessagePrintingDataGeneratorMonitor implements ReductiveDataGenerat
     public void noValuesForField(ReductiveState reductiveState, Field field) {
         println(
             "%d: No values for field %s: %s ",
-            reductiveState.getFieldValues().size(),
+            reductiveState.getFixedFieldCount(),
             field,
             reductiveState.toString(true));
     }
@@ -63,7 +63,7 @@ public class MessagePrintingDataGeneratorMonitor implements ReductiveDataGenerat
 
         println(
             "%d: Unable to emit row, some FieldSpecs are Empty: %s",
-            reductiveState.getFieldValues().size(),
+            reductiveState.getFixedFieldCount(),
             Objects.toString(emptyFieldSpecs));
     }
 }
@@ -1,6 +1,8 @@
 package com.scottlogic.deg.generator.generation;
 
+import com.google.inject.Inject;
 import com.scottlogic.deg.common.profile.constraints.atomic.IsOfTypeConstraint;
+import com.scottlogic.deg.generator.config.detail.StringSamplingType;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
 import com.scottlogic.deg.generator.generation.fieldvaluesources.*;
 import com.scottlogic.deg.generator.generation.fieldvaluesources.datetime.DateTimeFieldValueSource;
@@ -16,6 +18,17 @@ import java.util.stream.Stream;
 public class StandardFieldValueSourceEvaluator implements FieldValueSourceEvaluator {
     private static final CannedValuesFieldValueSource nullOnlySource = new CannedValuesFieldValueSource(Collections.singletonList(null));
 
+    private final StringSamplingType stringSamplingType;
+
+    public StandardFieldValueSourceEvaluator() {
+        this(StringSamplingType.WALK);
+    }
+
+    @Inject
+    public StandardFieldValueSourceEvaluator(StringSamplingType stringSamplingType) {
+        this.stringSamplingType = stringSamplingType;
+    }
+
     public List<FieldValueSource> getFieldValueSources(FieldSpec fieldSpec){
 
         if (fieldSpec.getSetRestrictions() != null && fieldSpec.getSetRestrictions().getWhitelist() != null) {
@@ -72,9 +85,10 @@ public class StandardFieldValueSourceEvaluator implements FieldValueSourceEvalua
             ? new NumericRestrictions()
             : fieldSpec.getNumericRestrictions();
 
-        return new RealNumberFieldValueSource(
+        RealNumberFieldValueSource source = new RealNumberFieldValueSource(
             restrictions,
             getBlacklist(fieldSpec));
+        return source.toScaledLongSource().orElse(source);
     }
 
     private Set<Object> getBlacklist(FieldSpec fieldSpec) {
@@ -100,6 +114,10 @@ public class StandardFieldValueSourceEvaluator implements FieldValueSourceEvalua
             generator = generator.intersect(blacklistGenerator);
         }
 
+        if (stringSamplingType == StringSamplingType.UNIFORM) {
+            generator = generator.withUniformSampling();
+        }
+
         return generator.asFieldValueSource();
     }
 
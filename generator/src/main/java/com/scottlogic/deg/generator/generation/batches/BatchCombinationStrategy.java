@@ -0,0 +1,27 @@
+package com.scottlogic.deg.generator.generation.batches;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Combines the batches of rows produced for each partition into batches of complete rows
+ */
+public interface BatchCombinationStrategy {
+    Stream<RowBatch> permute(List<Stream<RowBatch>> partitionBatches, FieldIndexes fieldIndexes, int batchSize);
+
+    /**
+     * Combine partitions that can be produced again, strategies that revisit a partition may produce it again rather
+     * than holding all of its batches in memory
+     */
+    default Stream<RowBatch> permuteRestartable(
+        List<Supplier<Stream<RowBatch>>> partitionBatches,
+        FieldIndexes fieldIndexes,
+        int batchSize) {
+        return permute(
+            partitionBatches.stream().map(Supplier::get).collect(Collectors.toList()),
+            fieldIndexes,
+            batchSize);
+    }
+}
@@ -0,0 +1,167 @@
+package com.scottlogic.deg.generator.generation.batches;
+
+import com.scottlogic.deg.generator.utils.RestartableIterator;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Combines partitions in the same way as the ExhaustiveCombinationStrategy and ReductiveCombinationStrategy; every
+ * row of each partition is combined with every row of the others, with the first partition varying slowest.
+ *
+ * The first partition is consumed as it is produced. The other partitions are restarted for each row of the
+ * partitions before them; they are cached where they can't be produced again, otherwise only partitions of up to
+ * maxCachedRows rows are cached and larger ones are produced again on each restart.
+ */
+public class CartesianBatchCombinationStrategy implements BatchCombinationStrategy {
+    private static final int DEFAULT_MAX_CACHED_ROWS = 100_000;
+
+    private final int maxCachedRows;
+
+    public CartesianBatchCombinationStrategy() {
+        this(DEFAULT_MAX_CACHED_ROWS);
+    }
+
+    public CartesianBatchCombinationStrategy(int maxCachedRows) {
+        this.maxCachedRows = maxCachedRows;
+    }
+
+    @Override
+    public Stream<RowBatch> permute(List<Stream<RowBatch>> partitionBatches, FieldIndexes fieldIndexes, int batchSize) {
+        if (partitionBatches.isEmpty()) {
+            return Stream.empty();
+        }
+
+        List<RestartableIterator<RowBatch>> otherPartitions = partitionBatches.subList(1, partitionBatches.size())
+            .stream()
+            .map(batches -> new RestartableIterator<>(batches.iterator()))
+            .collect(Collectors.toList());
+
+        return combine(partitionBatches.get(0).iterator(), otherPartitions, fieldIndexes, batchSize);
+    }
+
+    /**
+     * The partitions are produced as batches of up to batchSize rows, so up to maxCachedRows / batchSize batches
+     * of each are cached
+     */
+    @Override
+    public Stream<RowBatch> permuteRestartable(
+        List<Supplier<Stream<RowBatch>>> partitionBatches,
+        FieldIndexes fieldIndexes,
+        int batchSize) {
+        if (partitionBatches.isEmpty()) {
+            return Stream.empty();
+        }
+
+        List<RestartableIterator<RowBatch>> otherPartitions = partitionBatches.subList(1, partitionBatches.size())
+            .stream()
+            .map(batches -> new RestartableIterator<>(batches, maxCachedRows / batchSize))
+            .collect(Collectors.toList());
+
+        return combine(partitionBatches.get(0).get().iterator(), otherPartitions, fieldIndexes, batchSize)
+            .onClose(() -> otherPartitions.forEach(RestartableIterator::close));
+    }
+
+    private Stream<RowBatch> combine(
+        Iterator<RowBatch> firstPartition,
+        List<RestartableIterator<RowBatch>> otherPartitions,
+        FieldIndexes fieldIndexes,
+        int batchSize) {
+        if (!firstPartition.hasNext() || !otherPartitions.stream().allMatch(Iterator::hasNext)) {
+            return Stream.empty();
+        }
+
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                new InternalIterator(firstPartition, otherPartitions, fieldIndexes, batchSize),
+                Spliterator.ORDERED),
+            false);
+    }
+
+    /**
+     * Advances the partitions like an odometer, the last partition turning fastest
+     */
+    private class InternalIterator implements Iterator<RowBatch> {
+        private final Iterator<RowBatch> firstPartition;
+        private final List<RestartableIterator<RowBatch>> otherPartitions;
+        private final RowBatch[] otherBatches;
+        private final int[] otherRows;
+        private final RowBatchBuilder builder;
+        private RowBatch firstPartitionBatch;
+        private int firstPartitionRow;
+
+        InternalIterator(
+            Iterator<RowBatch> firstPartition,
+            List<RestartableIterator<RowBatch>> otherPartitions,
+            FieldIndexes fieldIndexes,
+            int batchSize) {
+            this.firstPartition = firstPartition;
+            this.otherPartitions = otherPartitions;
+            this.otherBatches = otherPartitions.stream().map(Iterator::next).toArray(RowBatch[]::new);
+            this.otherRows = new int[otherPartitions.size()];
+            this.firstPartitionBatch = firstPartition.next();
+            this.firstPartitionRow = 0;
+
+            int[] populatedColumns = IntStream.concat(
+                IntStream.of(firstPartitionBatch.getPopulatedColumns()),
+                Stream.of(otherBatches).flatMapToInt(batch -> IntStream.of(batch.getPopulatedColumns())))
+                .toArray();
+            this.builder = new RowBatchBuilder(fieldIndexes, populatedColumns, batchSize);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return firstPartitionRow < firstPartitionBatch.size();
+        }
+
+        @Override
+        public RowBatch next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            while (!builder.isFull() && hasNext()) {
+                builder.copyRow(firstPartitionBatch, firstPartitionRow);
+                for (int index = 0; index < otherBatches.length; index++) {
+                    builder.copyRow(otherBatches[index], otherRows[index]);
+                }
+                builder.endRow();
+
+                advance();
+            }
+
+            return builder.build();
+        }
+
+        private void advance() {
+            for (int index = otherRows.length - 1; index >= 0; index--) {
+                if (++otherRows[index] < otherBatches[index].size()) {
+                    return;
+                }
+
+                otherRows[index] = 0;
+                RestartableIterator<RowBatch> partition = otherPartitions.get(index);
+                if (partition.hasNext()) {
+                    otherBatches[index] = partition.next();
+                    return;
+                }
+
+                partition.restart();
+                otherBatches[index] = partition.next();
+            }
+
+            if (++firstPartitionRow == firstPartitionBatch.size() && firstPartition.hasNext()) {
+                firstPartitionBatch = firstPartition.next();
+                firstPartitionRow = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.scottlogic.deg.generator.generation.batches;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.generator.generation.databags.DataBag;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Packs the rows produced for a set of fields, e.g. by walking a partition, into RowBatches
+ */
+public class DataBagBatchingIterator implements Iterator<RowBatch> {
+    private final Iterator<DataBag> dataBags;
+    private final Field[] fields;
+    private final int[] columns;
+    private final RowBatchBuilder builder;
+
+    public DataBagBatchingIterator(
+        Iterator<DataBag> dataBags,
+        ProfileFields fields,
+        FieldIndexes fieldIndexes,
+        int batchSize) {
+        this.dataBags = dataBags;
+        this.fields = fields.stream().toArray(Field[]::new);
+        this.columns = fields.stream().mapToInt(fieldIndexes::indexOf).toArray();
+        this.builder = new RowBatchBuilder(fieldIndexes, columns, batchSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return dataBags.hasNext();
+    }
+
+    @Override
+    public RowBatch next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        while (!builder.isFull() && dataBags.hasNext()) {
+            DataBag dataBag = dataBags.next();
+            for (int index = 0; index < fields.length; index++) {
+                builder.set(columns[index], dataBag.getDataBagValue(fields[index]));
+            }
+            builder.endRow();
+        }
+
+        return builder.build();
+    }
+}
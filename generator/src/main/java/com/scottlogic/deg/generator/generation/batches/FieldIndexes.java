@@ -0,0 +1,45 @@
+package com.scottlogic.deg.generator.generation.batches;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The position of each field of the profile, used to address the columns of a RowBatch
+ */
+public class FieldIndexes {
+    private final ProfileFields fields;
+    private final Field[] fieldsByIndex;
+    private final Map<Field, Integer> indexes = new HashMap<>();
+
+    public FieldIndexes(ProfileFields fields) {
+        this.fields = fields;
+        this.fieldsByIndex = fields.stream().toArray(Field[]::new);
+        for (Field field : fields) {
+            indexes.put(field, indexes.size());
+        }
+    }
+
+    public int indexOf(Field field) {
+        Integer index = indexes.get(field);
+        if (index == null) {
+            throw new IllegalArgumentException("Profile fields do not contain " + field);
+        }
+
+        return index;
+    }
+
+    public Field fieldAt(int index) {
+        return fieldsByIndex[index];
+    }
+
+    public ProfileFields getFields() {
+        return fields;
+    }
+
+    public int size() {
+        return indexes.size();
+    }
+}
@@ -0,0 +1,110 @@
+package com.scottlogic.deg.generator.generation.batches;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.BaseStream;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Combines partitions in the same way as the MinimalCombinationStrategy; the nth row of each partition is used for
+ * the nth row, and once a partition has no more rows its last row is repeated until every partition is exhausted.
+ */
+public class MinimalBatchCombinationStrategy implements BatchCombinationStrategy {
+
+    @Override
+    public Stream<RowBatch> permute(List<Stream<RowBatch>> partitionBatches, FieldIndexes fieldIndexes, int batchSize) {
+        List<Iterator<RowBatch>> iterators = partitionBatches.stream()
+            .map(BaseStream::iterator)
+            .collect(Collectors.toList());
+
+        if (!iterators.stream().allMatch(Iterator::hasNext)) {
+            return Stream.empty();
+        }
+
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                new InternalIterator(iterators, fieldIndexes, batchSize),
+                Spliterator.ORDERED),
+            false);
+    }
+
+    private class InternalIterator implements Iterator<RowBatch> {
+        private final PartitionCursor[] cursors;
+        private final RowBatchBuilder builder;
+
+        InternalIterator(List<Iterator<RowBatch>> iterators, FieldIndexes fieldIndexes, int batchSize) {
+            this.cursors = iterators.stream()
+                .map(PartitionCursor::new)
+                .toArray(PartitionCursor[]::new);
+
+            int[] populatedColumns = Stream.of(cursors)
+                .flatMapToInt(cursor -> IntStream.of(cursor.batch.getPopulatedColumns()))
+                .toArray();
+            this.builder = new RowBatchBuilder(fieldIndexes, populatedColumns, batchSize);
+        }
+
+        @Override
+        public boolean hasNext() {
+            for (PartitionCursor cursor : cursors) {
+                if (cursor.hasNext()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public RowBatch next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            while (!builder.isFull() && hasNext()) {
+                for (PartitionCursor cursor : cursors) {
+                    if (cursor.hasNext()) {
+                        cursor.advance();
+                    }
+                    builder.copyRow(cursor.batch, cursor.row);
+                }
+                builder.endRow();
+            }
+
+            return builder.build();
+        }
+    }
+
+    /**
+     * The last row used from a partition
+     */
+    private static class PartitionCursor {
+        private final Iterator<RowBatch> batches;
+        private RowBatch batch;
+        private int row;
+
+        PartitionCursor(Iterator<RowBatch> batches) {
+            this.batches = batches;
+            this.batch = batches.next();
+            this.row = -1;
+        }
+
+        boolean hasNext() {
+            return row + 1 < batch.size() || batches.hasNext();
+        }
+
+        void advance() {
+            if (row + 1 < batch.size()) {
+                row++;
+                return;
+            }
+
+            batch = batches.next();
+            row = 0;
+        }
+    }
+}
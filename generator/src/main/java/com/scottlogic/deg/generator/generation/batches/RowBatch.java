@@ -0,0 +1,102 @@
+package com.scottlogic.deg.generator.generation.batches;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+
+/**
+ * A fixed number of rows, stored column-wise by field index.
+ *
+ * A batch only holds the columns of the fields it was produced for, e.g. the fields of a single partition, the
+ * columns of the other fields are null. Rows are exposed as views over the columns rather than being copied.
+ *
+ * When every value of a row is asked for at once, the columns of the requested fields are found once for the batch
+ * rather than once for each value.
+ */
+public class RowBatch {
+    private final FieldIndexes fieldIndexes;
+    private final int[] populatedColumns;
+    private final DataBagValue[][] columns;
+    private final int size;
+    private ResolvedColumns resolvedColumns;
+
+    RowBatch(FieldIndexes fieldIndexes, int[] populatedColumns, DataBagValue[][] columns, int size) {
+        this.fieldIndexes = fieldIndexes;
+        this.populatedColumns = populatedColumns;
+        this.columns = columns;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public DataBagValue getValue(int row, int column) {
+        return columns[column][row];
+    }
+
+    public GeneratedObject getRow(int row) {
+        return new Row(row);
+    }
+
+    FieldIndexes getFieldIndexes() {
+        return fieldIndexes;
+    }
+
+    int[] getPopulatedColumns() {
+        return populatedColumns;
+    }
+
+    private DataBagValue[][] getColumns(ProfileFields fields) {
+        // rows may be read from more than one thread, so the fields and their columns are replaced together
+        ResolvedColumns resolved = resolvedColumns;
+        if (resolved == null || resolved.fields != fields) {
+            resolved = new ResolvedColumns(fields, fields.stream().map(this::getColumn).toArray(DataBagValue[][]::new));
+            resolvedColumns = resolved;
+        }
+
+        return resolved.columns;
+    }
+
+    private DataBagValue[] getColumn(Field field) {
+        DataBagValue[] column = columns[fieldIndexes.indexOf(field)];
+        if (column == null)
+            throw new IllegalStateException("RowBatch has no value stored for " + field);
+
+        return column;
+    }
+
+    private class Row implements GeneratedObject {
+        private final int row;
+
+        Row(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Object getFormattedValue(Field field) {
+            return getColumn(field)[row].getFormattedValue();
+        }
+
+        @Override
+        public Object[] getFormattedValues(ProfileFields fields) {
+            DataBagValue[][] fieldColumns = getColumns(fields);
+            Object[] values = new Object[fieldColumns.length];
+            for (int index = 0; index < fieldColumns.length; index++) {
+                values[index] = fieldColumns[index][row].getFormattedValue();
+            }
+            return values;
+        }
+    }
+
+    private static class ResolvedColumns {
+        private final ProfileFields fields;
+        private final DataBagValue[][] columns;
+
+        ResolvedColumns(ProfileFields fields, DataBagValue[][] columns) {
+            this.fields = fields;
+            this.columns = columns;
+        }
+    }
+}
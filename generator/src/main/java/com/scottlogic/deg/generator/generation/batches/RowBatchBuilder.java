@@ -0,0 +1,57 @@
+package com.scottlogic.deg.generator.generation.batches;
+
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+
+/**
+ * Fills the given columns of a RowBatch one row at a time
+ */
+class RowBatchBuilder {
+    private final FieldIndexes fieldIndexes;
+    private final int[] populatedColumns;
+    private final int capacity;
+    private DataBagValue[][] columns;
+    private int size;
+
+    RowBatchBuilder(FieldIndexes fieldIndexes, int[] populatedColumns, int capacity) {
+        this.fieldIndexes = fieldIndexes;
+        this.populatedColumns = populatedColumns;
+        this.capacity = capacity;
+        reset();
+    }
+
+    void set(int column, DataBagValue value) {
+        columns[column][size] = value;
+    }
+
+    void copyRow(RowBatch source, int sourceRow) {
+        for (int column : source.getPopulatedColumns()) {
+            columns[column][size] = source.getValue(sourceRow, column);
+        }
+    }
+
+    void endRow() {
+        size++;
+    }
+
+    boolean isFull() {
+        return size == capacity;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    RowBatch build() {
+        RowBatch batch = new RowBatch(fieldIndexes, populatedColumns, columns, size);
+        reset();
+        return batch;
+    }
+
+    private void reset() {
+        columns = new DataBagValue[fieldIndexes.size()][];
+        for (int column : populatedColumns) {
+            columns[column] = new DataBagValue[capacity];
+        }
+        size = 0;
+    }
+}
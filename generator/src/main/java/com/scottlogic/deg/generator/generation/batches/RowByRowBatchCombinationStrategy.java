@@ -0,0 +1,75 @@
+package com.scottlogic.deg.generator.generation.batches;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.util.FlatMappingSpliterator;
+import com.scottlogic.deg.generator.generation.combinationstrategies.CombinationStrategy;
+import com.scottlogic.deg.generator.generation.databags.DataBag;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Combines partitions with a CombinationStrategy that has no batch equivalent, by converting the rows of each
+ * partition back into DataBags and packing the combined rows into batches again
+ */
+public class RowByRowBatchCombinationStrategy implements BatchCombinationStrategy {
+    private final CombinationStrategy underlyingStrategy;
+
+    public RowByRowBatchCombinationStrategy(CombinationStrategy underlyingStrategy) {
+        this.underlyingStrategy = underlyingStrategy;
+    }
+
+    @Override
+    public Stream<RowBatch> permute(List<Stream<RowBatch>> partitionBatches, FieldIndexes fieldIndexes, int batchSize) {
+        Stream<DataBag> combinedRows = underlyingStrategy.permute(
+            partitionBatches.stream().map(RowByRowBatchCombinationStrategy::toDataBags));
+
+        return batch(combinedRows, fieldIndexes, batchSize);
+    }
+
+    @Override
+    public Stream<RowBatch> permuteRestartable(
+        List<Supplier<Stream<RowBatch>>> partitionBatches,
+        FieldIndexes fieldIndexes,
+        int batchSize) {
+        List<Supplier<Stream<DataBag>>> partitionRows = partitionBatches.stream()
+            .map(batches -> (Supplier<Stream<DataBag>>) () -> toDataBags(batches.get()))
+            .collect(Collectors.toList());
+
+        return batch(underlyingStrategy.permuteRestartable(partitionRows), fieldIndexes, batchSize);
+    }
+
+    private static Stream<DataBag> toDataBags(Stream<RowBatch> batches) {
+        return FlatMappingSpliterator.flatMap(
+            batches,
+            batch -> IntStream.range(0, batch.size()).mapToObj(row -> toDataBag(batch, row)));
+    }
+
+    private static Stream<RowBatch> batch(Stream<DataBag> combinedRows, FieldIndexes fieldIndexes, int batchSize) {
+        DataBagBatchingIterator batches = new DataBagBatchingIterator(
+            combinedRows.iterator(),
+            fieldIndexes.getFields(),
+            fieldIndexes,
+            batchSize);
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED), false)
+            .onClose(combinedRows::close);
+    }
+
+    private static DataBag toDataBag(RowBatch batch, int row) {
+        Map<Field, DataBagValue> fieldToValue = new HashMap<>();
+        for (int column : batch.getPopulatedColumns()) {
+            fieldToValue.put(batch.getFieldIndexes().fieldAt(column), batch.getValue(row, column));
+        }
+        return new DataBag(fieldToValue);
+    }
+}
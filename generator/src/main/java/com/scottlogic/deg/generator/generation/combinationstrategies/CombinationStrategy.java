@@ -2,8 +2,18 @@ package com.scottlogic.deg.generator.generation.combinationstrategies;
 
 import com.scottlogic.deg.generator.generation.databags.DataBag;
 
+import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 public interface CombinationStrategy {
     Stream<DataBag> permute(Stream<Stream<DataBag>> dataBagSequences);
+
+    /**
+     * Combine sequences that can be produced again, strategies that revisit a sequence may produce it again rather
+     * than holding all of its items in memory
+     */
+    default Stream<DataBag> permuteRestartable(List<Supplier<Stream<DataBag>>> dataBagSequences) {
+        return permute(dataBagSequences.stream().map(Supplier::get));
+    }
 }
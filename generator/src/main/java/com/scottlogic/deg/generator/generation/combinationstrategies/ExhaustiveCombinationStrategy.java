@@ -1,37 +1,141 @@
 package com.scottlogic.deg.generator.generation.combinationstrategies;
 
-import com.scottlogic.deg.common.util.FlatMappingSpliterator;
 import com.scottlogic.deg.generator.generation.databags.DataBag;
+import com.scottlogic.deg.generator.utils.RestartableIterator;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+/**
+ * Combines every item of each sequence with every item of the others, the first sequence varying slowest.
+ *
+ * The first sequence is only read once, so it is consumed as it is produced. The other sequences are restarted for
+ * each combination of the sequences before them; they are cached where they can't be produced again, otherwise only
+ * sequences of up to maxCachedRows items are cached and larger ones are produced again on each restart.
+ */
 public class ExhaustiveCombinationStrategy implements CombinationStrategy {
+    private static final int DEFAULT_MAX_CACHED_ROWS = 100_000;
+
+    private final int maxCachedRows;
+
+    public ExhaustiveCombinationStrategy() {
+        this(DEFAULT_MAX_CACHED_ROWS);
+    }
+
+    public ExhaustiveCombinationStrategy(int maxCachedRows) {
+        this.maxCachedRows = maxCachedRows;
+    }
 
     @Override
     public Stream<DataBag> permute(Stream<Stream<DataBag>> dataBagSequences) {
+        List<Stream<DataBag>> sequences = dataBagSequences.collect(Collectors.toList());
+        if (sequences.isEmpty()) {
+            return Stream.of(DataBag.empty);
+        }
+
+        List<RestartableIterator<DataBag>> otherSequences = sequences.subList(1, sequences.size()).stream()
+            .map(sequence -> new RestartableIterator<>(sequence.iterator()))
+            .collect(Collectors.toList());
 
-        List<List<DataBag>> bagsAsLists = dataBagSequences
-            .map(sequence ->
-                StreamSupport.stream(sequence.spliterator(), false)
-                    .collect(Collectors.toList()))
+        return combine(sequences.get(0).iterator(), otherSequences);
+    }
+
+    @Override
+    public Stream<DataBag> permuteRestartable(List<Supplier<Stream<DataBag>>> dataBagSequences) {
+        if (dataBagSequences.isEmpty()) {
+            return Stream.of(DataBag.empty);
+        }
+
+        List<RestartableIterator<DataBag>> otherSequences = dataBagSequences.subList(1, dataBagSequences.size()).stream()
+            .map(sequence -> new RestartableIterator<>(sequence, maxCachedRows))
             .collect(Collectors.toList());
 
-        return next(DataBag.empty, bagsAsLists, 0);
+        return combine(dataBagSequences.get(0).get().iterator(), otherSequences)
+            .onClose(() -> otherSequences.forEach(RestartableIterator::close));
     }
 
-    public Stream<DataBag> next(DataBag accumulatingBag, List<List<DataBag>> bagSequences, int bagSequenceIndex) {
-        if (bagSequenceIndex < bagSequences.size()) {
-            List<DataBag> nextStream = bagSequences.get(bagSequenceIndex);
+    private Stream<DataBag> combine(Iterator<DataBag> firstSequence, List<RestartableIterator<DataBag>> otherSequences) {
+        if (!firstSequence.hasNext() || !otherSequences.stream().allMatch(Iterator::hasNext)) {
+            return Stream.empty();
+        }
+
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                new CombinationIterator(firstSequence, otherSequences),
+                Spliterator.ORDERED),
+            false);
+    }
+
+    /**
+     * Advances the sequences like an odometer, the last sequence turning fastest. The merged bag for each prefix of
+     * the sequences is kept so that only the sequences that have changed are merged again.
+     */
+    private class CombinationIterator implements Iterator<DataBag> {
+        private final Iterator<DataBag> firstSequence;
+        private final List<RestartableIterator<DataBag>> otherSequences;
+        private final DataBag[] mergedPrefixes;
+        private boolean hasNext;
+
+        CombinationIterator(Iterator<DataBag> firstSequence, List<RestartableIterator<DataBag>> otherSequences) {
+            this.firstSequence = firstSequence;
+            this.otherSequences = otherSequences;
+            this.mergedPrefixes = new DataBag[otherSequences.size() + 1];
+
+            mergedPrefixes[0] = firstSequence.next();
+            this.hasNext = fillFrom(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public DataBag next() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+
+            DataBag combination = mergedPrefixes[mergedPrefixes.length - 1];
+            hasNext = advance();
+            return combination;
+        }
+
+        private boolean advance() {
+            for (int index = otherSequences.size() - 1; index >= 0; index--) {
+                RestartableIterator<DataBag> sequence = otherSequences.get(index);
+                if (sequence.hasNext()) {
+                    mergedPrefixes[index + 1] = DataBag.merge(mergedPrefixes[index], sequence.next());
+                    return fillFrom(index + 1);
+                }
+            }
+
+            if (!firstSequence.hasNext()) {
+                return false;
+            }
+
+            mergedPrefixes[0] = firstSequence.next();
+            return fillFrom(0);
+        }
+
+        /**
+         * Restart the sequences after the given prefix and merge their first items
+         */
+        private boolean fillFrom(int prefixIndex) {
+            for (int index = prefixIndex; index < otherSequences.size(); index++) {
+                RestartableIterator<DataBag> sequence = otherSequences.get(index);
+                sequence.restart();
+                if (!sequence.hasNext()) {
+                    return false;
+                }
+
+                mergedPrefixes[index + 1] = DataBag.merge(mergedPrefixes[index], sequence.next());
+            }
 
-            return FlatMappingSpliterator.flatMap(nextStream
-                .stream()
-                .map(innerBag -> DataBag.merge(innerBag, accumulatingBag)),
-                innerBag -> next(innerBag, bagSequences, bagSequenceIndex + 1));
+            return true;
         }
-        else
-            return Stream.of(accumulatingBag);
     }
 }
@@ -7,11 +7,25 @@ import com.scottlogic.deg.generator.utils.RestartableIterator;
 import java.util.List;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 public class ReductiveCombinationStrategy implements CombinationStrategy {
+    private static final int DEFAULT_MAX_CACHED_ROWS = 100_000;
+
+    private final int maxCachedRows;
+
+    public ReductiveCombinationStrategy() {
+        this(DEFAULT_MAX_CACHED_ROWS);
+    }
+
+    public ReductiveCombinationStrategy(int maxCachedRows) {
+        this.maxCachedRows = maxCachedRows;
+    }
+
     @Override
     public Stream<DataBag> permute(Stream<Stream<DataBag>> dataBagSequences) {
         List<RestartableIterator<DataBag>> bagsAsLists = dataBagSequences
@@ -21,6 +35,20 @@ public class ReductiveCombinationStrategy implements CombinationStrategy {
         return next(DataBag.empty, bagsAsLists, 0);
     }
 
+    /**
+     * Only sequences of up to maxCachedRows items are cached, larger ones are produced again each time they are
+     * restarted. The first sequence is never restarted so is not cached.
+     */
+    @Override
+    public Stream<DataBag> permuteRestartable(List<Supplier<Stream<DataBag>>> dataBagSequences) {
+        List<RestartableIterator<DataBag>> bagsAsLists = IntStream.range(0, dataBagSequences.size())
+            .mapToObj(index -> new RestartableIterator<>(dataBagSequences.get(index), index == 0 ? 0 : maxCachedRows))
+            .collect(Collectors.toList());
+
+        return next(DataBag.empty, bagsAsLists, 0)
+            .onClose(() -> bagsAsLists.forEach(RestartableIterator::close));
+    }
+
     public Stream<DataBag> next(DataBag accumulatingBag, List<RestartableIterator<DataBag>> bagSequences, int bagSequenceIndex) {
         if (bagSequenceIndex < bagSequences.size()) {
             RestartableIterator<DataBag> nextStream = bagSequences.get(bagSequenceIndex);
@@ -1,34 +1,52 @@
 package com.scottlogic.deg.generator.generation.databags;
 
 import com.scottlogic.deg.common.profile.Field;
-import com.scottlogic.deg.common.util.FlatMappingSpliterator;
 import com.scottlogic.deg.common.output.GeneratedObject;
 
 import java.util.*;
 
-
+/**
+ * The values of a set of fields. Fields and their values are held in arrays ordered by field name, so bags can be
+ * merged in a single pass without creating an entry per value.
+ */
 public class DataBag implements GeneratedObject {
-    public static final DataBag empty = new DataBag(new HashMap<>());
+    private static final Comparator<Field> fieldOrder = Comparator.comparing(field -> field.name);
+
+    public static final DataBag empty = new DataBag(new Field[0], new DataBagValue[0]);
 
-    private final Map<Field, DataBagValue> fieldToValue;
+    private final Field[] fields;
+    private final DataBagValue[] values;
 
     public DataBag(Map<Field, DataBagValue> fieldToValue) {
-        this.fieldToValue = fieldToValue;
+        this.fields = fieldToValue.keySet().toArray(new Field[0]);
+        Arrays.sort(this.fields, fieldOrder);
+
+        this.values = new DataBagValue[fields.length];
+        for (int index = 0; index < fields.length; index++) {
+            values[index] = fieldToValue.get(fields[index]);
+        }
+    }
+
+    private DataBag(Field[] fields, DataBagValue[] values) {
+        this.fields = fields;
+        this.values = values;
     }
 
     public DataBagValue getDataBagValue(Field field) {
-        if (!fieldToValue.containsKey(field))
+        int index = indexOf(field);
+        if (index < 0)
             throw new IllegalStateException("Databag has no value stored for " + field);
 
-        return fieldToValue.get(field);
+        return values[index];
     }
 
     @Override
     public Object getFormattedValue(Field field) {
-        if (!fieldToValue.containsKey(field))
+        int index = indexOf(field);
+        if (index < 0)
             throw new IllegalStateException("DataBag has no value stored for " + field);
 
-        return fieldToValue.get(field).getFormattedValue();
+        return values[index].getFormattedValue();
     }
 
     @Override
@@ -36,27 +54,61 @@ public class DataBag implements GeneratedObject {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         DataBag generatedObject = (DataBag) o;
-        return Objects.equals(fieldToValue, generatedObject.fieldToValue);
+        return Arrays.equals(fields, generatedObject.fields) &&
+            Arrays.equals(values, generatedObject.values);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(fieldToValue);
+        return 31 * Arrays.hashCode(fields) + Arrays.hashCode(values);
     }
 
     public static DataBag merge(DataBag... bags) {
-        Map<Field, DataBagValue> newFieldToValue = new HashMap<>();
+        DataBag merged = empty;
+        for (DataBag bag : bags) {
+            merged = merge(merged, bag);
+        }
 
-        FlatMappingSpliterator.flatMap(Arrays.stream(bags)
-            .map(r -> r.fieldToValue.entrySet().stream()),
-            entrySetStream -> entrySetStream)
-            .forEach(entry -> {
-                if (newFieldToValue.containsKey(entry.getKey()))
-                    throw new IllegalArgumentException("Databags can't be merged because they overlap on field " + entry.getKey().name);
+        return merged;
+    }
 
-                newFieldToValue.put(entry.getKey(), entry.getValue());
-            });
+    private static DataBag merge(DataBag left, DataBag right) {
+        if (left.fields.length == 0)
+            return right;
+        if (right.fields.length == 0)
+            return left;
+
+        Field[] fields = new Field[left.fields.length + right.fields.length];
+        DataBagValue[] values = new DataBagValue[fields.length];
+        int leftIndex = 0;
+        int rightIndex = 0;
+
+        for (int index = 0; index < fields.length; index++) {
+            int comparison;
+            if (leftIndex == left.fields.length) {
+                comparison = 1;
+            } else if (rightIndex == right.fields.length) {
+                comparison = -1;
+            } else {
+                comparison = fieldOrder.compare(left.fields[leftIndex], right.fields[rightIndex]);
+            }
+
+            if (comparison == 0)
+                throw new IllegalArgumentException("Databags can't be merged because they overlap on field " + left.fields[leftIndex].name);
+
+            if (comparison < 0) {
+                fields[index] = left.fields[leftIndex];
+                values[index] = left.values[leftIndex++];
+            } else {
+                fields[index] = right.fields[rightIndex];
+                values[index] = right.values[rightIndex++];
+            }
+        }
+
+        return new DataBag(fields, values);
+    }
 
-        return new DataBag(newFieldToValue);
+    private int indexOf(Field field) {
+        return Arrays.binarySearch(fields, field, fieldOrder);
     }
 }
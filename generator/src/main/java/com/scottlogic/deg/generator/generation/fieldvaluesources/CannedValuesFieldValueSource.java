@@ -5,6 +5,7 @@ import com.scottlogic.deg.generator.utils.SupplierBasedIterator;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
 public class CannedValuesFieldValueSource implements FieldValueSource {
@@ -40,6 +41,21 @@ public class CannedValuesFieldValueSource implements FieldValueSource {
         return this.allValues;
     }
 
+    @Override
+    public Iterable<Object> generateAllValues(long fromIndex, long toIndex) {
+        int from = (int) Math.min(Math.max(fromIndex, 0), allValues.size());
+        int to = (int) Math.min(Math.max(toIndex, from), allValues.size());
+        return this.allValues.subList(from, to);
+    }
+
+    @Override
+    public Object getValueAt(long index) {
+        if (index < 0 || index >= allValues.size()) {
+            throw new NoSuchElementException("No value at index " + index);
+        }
+        return this.allValues.get((int) index);
+    }
+
     @Override
     public Iterable<Object> generateRandomValues(RandomNumberGenerator randomNumberGenerator) {
         return () -> new SupplierBasedIterator<>(
@@ -1,16 +1,26 @@
 package com.scottlogic.deg.generator.generation.fieldvaluesources;
 
+import com.scottlogic.deg.generator.utils.AliasTable;
 import com.scottlogic.deg.generator.utils.ConcatenatingIterable;
 import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
 
-import java.util.Iterator;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
 import java.util.stream.Collectors;
 
 public class CombiningFieldValueSource implements FieldValueSource {
+    /**
+     * Sources with more values than this are weighted as if they had this many, so that a small range still
+     * contributes in proportion to its size without being drowned out by a huge or infinite source
+     */
+    private static final long MAX_SOURCE_WEIGHT = 1000;
+
     private final List<FieldValueSource> underlyingSources;
 
+    /**
+     * Random values are drawn from each source in proportion to its number of values, up to MAX_SOURCE_WEIGHT. Null
+     * is weighted separately, as the average of the other sources, so a nullable field emits null about as often as
+     * any one of its other sources is drawn from.
+     */
     public CombiningFieldValueSource(List<FieldValueSource> underlyingSources) {
         this.underlyingSources = underlyingSources;
     }
@@ -44,6 +54,80 @@ public class CombiningFieldValueSource implements FieldValueSource {
                 .collect(Collectors.toList()));
     }
 
+    @Override
+    public Iterable<Object> generateAllValues(long fromIndex, long toIndex) {
+        if (!isFinite()) {
+            return FieldValueSource.super.generateAllValues(fromIndex, toIndex);
+        }
+
+        // take the part of the range that falls within each source, counting from that source's first value
+        List<Iterable<Object>> slices = new ArrayList<>();
+        long sourceStart = 0;
+        for (FieldValueSource source : underlyingSources) {
+            long sourceEnd = saturatingAdd(sourceStart, source.getValueCount());
+            if (fromIndex < sourceEnd && toIndex > sourceStart) {
+                slices.add(source.generateAllValues(
+                    Math.max(fromIndex, sourceStart) - sourceStart,
+                    Math.min(toIndex, sourceEnd) - sourceStart));
+            }
+            sourceStart = sourceEnd;
+        }
+        return new ConcatenatingIterable<>(slices);
+    }
+
+    private double[] getWeights() {
+        double[] weights = new double[underlyingSources.size()];
+        double totalOtherWeight = 0;
+        int otherSourceCount = 0;
+        for (int index = 0; index < weights.length; index++) {
+            FieldValueSource source = underlyingSources.get(index);
+            if (!isNullOnly(source)) {
+                weights[index] = source.isFinite()
+                    ? Math.min(source.getValueCount(), MAX_SOURCE_WEIGHT)
+                    : MAX_SOURCE_WEIGHT;
+            }
+            if (weights[index] > 0) {
+                totalOtherWeight += weights[index];
+                otherSourceCount++;
+            }
+        }
+
+        double nullWeight = otherSourceCount == 0 ? 1 : totalOtherWeight / otherSourceCount;
+        for (int index = 0; index < weights.length; index++) {
+            if (isNullOnly(underlyingSources.get(index))) {
+                weights[index] = nullWeight;
+            }
+        }
+        return weights;
+    }
+
+    private static boolean isNullOnly(FieldValueSource source) {
+        return source instanceof CannedValuesFieldValueSource
+            && source.getValueCount() == 1
+            && source.getValueAt(0) == null;
+    }
+
+    private static long saturatingAdd(long first, long second) {
+        return second > Long.MAX_VALUE - first ? Long.MAX_VALUE : first + second;
+    }
+
+    @Override
+    public Object getValueAt(long index) {
+        if (!isFinite()) {
+            return FieldValueSource.super.getValueAt(index);
+        }
+
+        long indexInSource = index;
+        for (FieldValueSource source : underlyingSources) {
+            long sourceCount = source.getValueCount();
+            if (indexInSource >= 0 && indexInSource < sourceCount) {
+                return source.getValueAt(indexInSource);
+            }
+            indexInSource -= sourceCount;
+        }
+        throw new NoSuchElementException("No value at index " + index);
+    }
+
     @Override
     public Iterable<Object> generateRandomValues(RandomNumberGenerator randomNumberGenerator) {
         return () -> new InternalRandomIterator(
@@ -69,37 +153,57 @@ public class CombiningFieldValueSource implements FieldValueSource {
 
     private class InternalRandomIterator implements Iterator<Object> {
         private final List<Iterator<Object>> iterators;
+        private final double[] iteratorWeights;
         private final RandomNumberGenerator randomNumberGenerator;
+        private AliasTable aliasTable;
 
         InternalRandomIterator(
             List<Iterator<Object>> iterators,
             RandomNumberGenerator randomNumberGenerator) {
 
-            this.iterators = iterators.stream()
-                .filter(Iterator::hasNext)
-                .collect(Collectors.toList());
-
+            this.iterators = iterators;
             this.randomNumberGenerator = randomNumberGenerator;
+
+            // sources with no values are never picked, so their iterators are never advanced
+            iteratorWeights = getWeights();
+            for (int i = 0; i < iteratorWeights.length; i++) {
+                if (!iterators.get(i).hasNext()) {
+                    iteratorWeights[i] = 0;
+                }
+            }
+            aliasTable = createAliasTable();
         }
 
         @Override
         public boolean hasNext() {
-            return !this.iterators.isEmpty();
+            return aliasTable != null;
         }
 
         @Override
         public Object next() {
-            int iteratorIndex = randomNumberGenerator.nextInt(
-                iterators.size());
+            if (aliasTable == null) {
+                throw new NoSuchElementException();
+            }
+
+            int iteratorIndex = aliasTable.next(randomNumberGenerator);
 
             Iterator<Object> iterator = iterators.get(iteratorIndex);
 
             Object value = iterator.next();
 
-            if (!iterator.hasNext())
-                this.iterators.remove(iteratorIndex);
+            // random iterators rarely run out, so rebuild the table rather than maintain it as they do
+            if (!iterator.hasNext()) {
+                iteratorWeights[iteratorIndex] = 0;
+                aliasTable = createAliasTable();
+            }
 
             return value;
         }
+
+        private AliasTable createAliasTable() {
+            return Arrays.stream(iteratorWeights).anyMatch(weight -> weight > 0)
+                ? new AliasTable(iteratorWeights)
+                : null;
+        }
     }
 }
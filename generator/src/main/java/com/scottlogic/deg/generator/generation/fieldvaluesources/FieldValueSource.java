@@ -2,6 +2,10 @@ package com.scottlogic.deg.generator.generation.fieldvaluesources;
 
 import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.StreamSupport;
+
 public interface FieldValueSource {
     boolean isFinite();
     long getValueCount();
@@ -11,5 +15,29 @@ public interface FieldValueSource {
     Iterable<Object> generateAllValues();
 
     Iterable<Object> generateRandomValues(RandomNumberGenerator randomNumberGenerator);
-}
 
+    /**
+     * Get the value generateAllValues() produces at the given index. Sources that can't find it directly generate and
+     * discard the values before it.
+     * @throws NoSuchElementException if generateAllValues() produces no more than index values
+     */
+    default Object getValueAt(long index) {
+        Iterator<Object> values = generateAllValues(index, index + 1).iterator();
+        if (!values.hasNext()) {
+            throw new NoSuchElementException("No value at index " + index);
+        }
+        return values.next();
+    }
+
+    /**
+     * Get the values generateAllValues() produces from fromIndex (inclusive) up to toIndex (exclusive), so exhaustive
+     * generation can be split into disjoint shards. Sources that can't start at fromIndex directly generate and
+     * discard the values before it.
+     */
+    default Iterable<Object> generateAllValues(long fromIndex, long toIndex) {
+        return () -> StreamSupport.stream(generateAllValues().spliterator(), false)
+            .skip(fromIndex)
+            .limit(Math.max(0, toIndex - fromIndex))
+            .iterator();
+    }
+}
@@ -8,10 +8,9 @@ import com.scottlogic.deg.generator.restrictions.NumericRestrictions;
 import com.scottlogic.deg.generator.utils.*;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.math.RoundingMode;
-import java.util.Iterator;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -22,6 +21,8 @@ public class RealNumberFieldValueSource implements FieldValueSource {
     private final BigDecimal inclusiveLowerLimit;
     private final BigDecimal stepSize;
     private final Set<BigDecimal> blacklist;
+    /** The blacklisted values, as steps above inclusiveLowerLimit */
+    private final ExclusionIndex blacklistPositions;
     private final int scale;
     private final static BigDecimal exclusivityAdjuster = BigDecimal.valueOf(Double.MIN_VALUE);
 
@@ -53,6 +54,12 @@ public class RealNumberFieldValueSource implements FieldValueSource {
             .map(i -> i.setScale(scale, RoundingMode.HALF_UP))
             .filter(i -> this.inclusiveLowerLimit.compareTo(i) <= 0 && i.compareTo(this.inclusiveUpperLimit) <= 0)
             .collect(Collectors.toSet());
+
+        // positions beyond a long can't be reached by index, so needn't be indexed
+        this.blacklistPositions = new ExclusionIndex(this.blacklist.stream()
+            .map(i -> i.subtract(this.inclusiveLowerLimit).unscaledValue())
+            .filter(steps -> steps.bitLength() < Long.SIZE)
+            .mapToLong(BigInteger::longValue));
     }
 
     private NumericLimit<BigDecimal> getUpperLimit(NumericRestrictions restrictions) {
@@ -75,6 +82,13 @@ public class RealNumberFieldValueSource implements FieldValueSource {
         return new NumericLimit<>(minValue.max(restrictions.min.getLimit()), restrictions.min.isInclusive());
     }
 
+    /**
+     * @return a source of the same values that does its arithmetic on longs, if all the values fit in one when scaled
+     */
+    public Optional<FieldValueSource> toScaledLongSource() {
+        return ScaledLongFieldValueSource.create(inclusiveLowerLimit, inclusiveUpperLimit, scale, blacklist);
+    }
+
     @Override
     public boolean isFinite() {
         return true;
@@ -85,7 +99,10 @@ public class RealNumberFieldValueSource implements FieldValueSource {
         BigDecimal lowerStep = inclusiveLowerLimit.divide(stepSize, 0, RoundingMode.HALF_UP);
         BigDecimal upperStep = inclusiveUpperLimit.divide(stepSize, 0, RoundingMode.HALF_UP);
 
-        return upperStep.subtract(lowerStep).longValue() + 1 - blacklist.size();
+        BigDecimal count = upperStep.subtract(lowerStep).add(BigDecimal.valueOf(1 - blacklist.size()));
+        return count.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0
+            ? Long.MAX_VALUE
+            : count.longValue();
     }
 
     @Override
@@ -106,6 +123,34 @@ public class RealNumberFieldValueSource implements FieldValueSource {
         return RealNumberIterator::new;
     }
 
+    @Override
+    public Iterable<Object> generateAllValues(long fromIndex, long toIndex) {
+        BigDecimal firstValue = getValueAtOrNull(fromIndex);
+        if (firstValue == null || toIndex <= fromIndex) {
+            return Collections.emptyList();
+        }
+
+        return new LimitingIterable<>(() -> new RealNumberIterator(firstValue), toIndex - fromIndex);
+    }
+
+    @Override
+    public Object getValueAt(long index) {
+        BigDecimal value = getValueAtOrNull(index);
+        if (value == null) {
+            throw new NoSuchElementException("No value at index " + index);
+        }
+        return value;
+    }
+
+    private BigDecimal getValueAtOrNull(long index) {
+        if (index < 0) {
+            return null;
+        }
+
+        BigDecimal value = inclusiveLowerLimit.add(BigDecimal.valueOf(blacklistPositions.getPosition(index), scale));
+        return value.compareTo(inclusiveUpperLimit) <= 0 ? value : null;
+    }
+
     @Override
     public Iterable<Object> generateRandomValues(RandomNumberGenerator randomNumberGenerator) {
         return () -> new UpCastingIterator<>(
@@ -0,0 +1,162 @@
+package com.scottlogic.deg.generator.generation.fieldvaluesources;
+
+import com.scottlogic.deg.generator.utils.ExclusionIndex;
+import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.SupplierBasedIterator;
+import com.scottlogic.deg.generator.utils.UpCastingIterator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Produces the same values as RealNumberFieldValueSource, for restrictions whose values all fit in a long once scaled
+ * to whole steps (e.g. 12.34 at scale 2 is 1234 steps). All arithmetic is done on the step counts; values are only
+ * converted to BigDecimal as they are returned.
+ */
+public class ScaledLongFieldValueSource implements FieldValueSource {
+    // leaves room to step past the upper limit, and to count the values, without overflowing
+    private static final int MAX_STEP_BITS = 62;
+
+    private final long inclusiveLowerLimit;
+    private final long inclusiveUpperLimit;
+    private final int scale;
+    /** The blacklisted values, as steps above inclusiveLowerLimit */
+    private final ExclusionIndex blacklist;
+
+    private ScaledLongFieldValueSource(long inclusiveLowerLimit, long inclusiveUpperLimit, int scale, ExclusionIndex blacklist) {
+        this.inclusiveLowerLimit = inclusiveLowerLimit;
+        this.inclusiveUpperLimit = inclusiveUpperLimit;
+        this.scale = scale;
+        this.blacklist = blacklist;
+    }
+
+    /**
+     * @param inclusiveLowerLimit the lowest value, already at the given scale
+     * @param inclusiveUpperLimit the highest value, already at the given scale
+     * @param blacklist values between the limits to skip, already at the given scale
+     * @return the source, or empty if the limits don't fit in a long or there are no values between them
+     */
+    static Optional<FieldValueSource> create(
+        BigDecimal inclusiveLowerLimit,
+        BigDecimal inclusiveUpperLimit,
+        int scale,
+        Set<BigDecimal> blacklist) {
+        BigInteger lowerSteps = inclusiveLowerLimit.unscaledValue();
+        BigInteger upperSteps = inclusiveUpperLimit.unscaledValue();
+        if (lowerSteps.bitLength() > MAX_STEP_BITS
+            || upperSteps.bitLength() > MAX_STEP_BITS
+            || lowerSteps.compareTo(upperSteps) > 0) {
+            return Optional.empty();
+        }
+
+        long lowerLimit = lowerSteps.longValue();
+        return Optional.of(new ScaledLongFieldValueSource(
+            lowerLimit,
+            upperSteps.longValue(),
+            scale,
+            new ExclusionIndex(blacklist.stream().mapToLong(value -> value.unscaledValue().longValue() - lowerLimit))));
+    }
+
+    @Override
+    public boolean isFinite() {
+        return true;
+    }
+
+    @Override
+    public long getValueCount() {
+        return inclusiveUpperLimit - inclusiveLowerLimit + 1 - blacklist.size();
+    }
+
+    @Override
+    public Iterable<Object> generateInterestingValues() {
+        return () -> new UpCastingIterator<>(
+            Stream.of(
+                firstValues(inclusiveLowerLimit, 2),
+                firstValues(0, 1),
+                firstValues(inclusiveUpperLimit - 1, 2))
+                .flatMapToLong(Function.identity())
+                .distinct()
+                .mapToObj(this::toBigDecimal)
+                .iterator());
+    }
+
+    @Override
+    public Iterable<Object> generateAllValues() {
+        return generateAllValues(0, getValueCount());
+    }
+
+    @Override
+    public Iterable<Object> generateAllValues(long fromIndex, long toIndex) {
+        long count = Math.min(toIndex, getValueCount()) - fromIndex;
+        return () -> new UpCastingIterator<>(
+            stepsFromIndex(fromIndex)
+                .limit(Math.max(0, count))
+                .mapToObj(this::toBigDecimal)
+                .iterator());
+    }
+
+    @Override
+    public Object getValueAt(long index) {
+        if (index < 0 || index >= getValueCount()) {
+            throw new NoSuchElementException("No value at index " + index);
+        }
+        return toBigDecimal(inclusiveLowerLimit + blacklist.getPosition(index));
+    }
+
+    @Override
+    public Iterable<Object> generateRandomValues(RandomNumberGenerator randomNumberGenerator) {
+        long valueCount = getValueCount();
+        if (valueCount <= 0) {
+            return Collections.emptyList();
+        }
+
+        // draw an index among the permitted values, so a dense blacklist doesn't make drawing any slower
+        return () -> new SupplierBasedIterator<>(
+            () -> getValueAt(randomNumberGenerator.nextLong(0, valueCount)));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+
+        ScaledLongFieldValueSource otherSource = (ScaledLongFieldValueSource) obj;
+        return inclusiveUpperLimit == otherSource.inclusiveUpperLimit &&
+            inclusiveLowerLimit == otherSource.inclusiveLowerLimit &&
+            blacklist.equals(otherSource.blacklist) &&
+            scale == otherSource.scale;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(inclusiveLowerLimit, inclusiveUpperLimit, blacklist, scale);
+    }
+
+    private LongStream firstValues(long startingPoint, int count) {
+        if (startingPoint > inclusiveUpperLimit) {
+            return LongStream.empty();
+        }
+
+        long startingPosition = Math.max(startingPoint, inclusiveLowerLimit) - inclusiveLowerLimit;
+        long startingIndex = startingPosition - blacklist.countExcludedBefore(startingPosition);
+        return stepsFromIndex(startingIndex)
+            .limit(count)
+            .filter(steps -> steps <= inclusiveUpperLimit);
+    }
+
+    private LongStream stepsFromIndex(long index) {
+        return StreamSupport.longStream(
+            Spliterators.spliteratorUnknownSize(blacklist.iteratePositionsFrom(index), Spliterator.ORDERED),
+            false)
+            .map(position -> inclusiveLowerLimit + position);
+    }
+
+    private BigDecimal toBigDecimal(long steps) {
+        return BigDecimal.valueOf(steps, scale);
+    }
+}
@@ -3,12 +3,17 @@ package com.scottlogic.deg.generator.generation.fieldvaluesources.datetime;
 import com.scottlogic.deg.common.profile.constraintdetail.Timescale;
 import com.scottlogic.deg.generator.generation.fieldvaluesources.FieldValueSource;
 import com.scottlogic.deg.generator.restrictions.DateTimeRestrictions;
+import com.scottlogic.deg.generator.utils.ExclusionIndex;
 import com.scottlogic.deg.generator.utils.FilteringIterator;
 import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.SupplierBasedIterator;
 import com.scottlogic.deg.generator.utils.UpCastingIterator;
 
 import java.time.*;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 
@@ -22,6 +27,8 @@ public class DateTimeFieldValueSource implements FieldValueSource {
     private final Set<Object> blacklist;
     private final OffsetDateTime inclusiveLower;
     private final OffsetDateTime exclusiveUpper;
+    /** The blacklisted dates that generateAllValues() would otherwise produce, as steps after its first date */
+    private final ExclusionIndex blacklistPositions;
 
     public DateTimeFieldValueSource(
         DateTimeRestrictions restrictions,
@@ -34,6 +41,7 @@ public class DateTimeFieldValueSource implements FieldValueSource {
         this.exclusiveUpper = getExclusiveUpperBound(restrictions);
 
         this.blacklist = blacklist;
+        this.blacklistPositions = getBlacklistPositions();
     }
 
     @Override
@@ -46,18 +54,8 @@ public class DateTimeFieldValueSource implements FieldValueSource {
 
     @Override
     public long getValueCount() {
-
         if (isFinite()) {
-            Duration duration = Duration.between(inclusiveLower, exclusiveUpper);
-            Period period = Period.between(inclusiveLower.toLocalDate(), exclusiveUpper.toLocalDate());
-
-            if (granularity == Timescale.MILLIS) return (duration.getNano() / 1000000) + 1;
-            if (granularity == Timescale.SECONDS) return duration.getSeconds() + 1;
-            if (granularity == Timescale.MINUTES) return (duration.getSeconds() / 60) + 1;
-            if (granularity == Timescale.HOURS) return (duration.getSeconds() / 360) + 1;
-            if (granularity == Timescale.DAYS) return (period.getDays() + 1);
-            if (granularity == Timescale.MONTHS) return (period.getMonths() + 1);
-            if (granularity == Timescale.YEARS) return (period.getYears() + 1);
+            return getSequenceLength() - blacklistPositions.size();
         }
 
         throw new IllegalStateException("Cannot get count of an infinite series");
@@ -65,13 +63,79 @@ public class DateTimeFieldValueSource implements FieldValueSource {
 
     @Override
     public Iterable<Object> generateAllValues() {
+        return generateAllValues(0, Long.MAX_VALUE);
+    }
+
+    @Override
+    public Iterable<Object> generateAllValues(long fromIndex, long toIndex) {
         return () -> new UpCastingIterator<>(
-            new FilteringIterator<>(
-                new SequentialDateIterator(
-                    inclusiveLower != null ? inclusiveLower : ISO_MIN_DATE,
-                    exclusiveUpper != null ? exclusiveUpper : ISO_MAX_DATE,
-                    granularity),
-                i -> !blacklist.contains(i)));
+            new SequentialDateIterator(
+                getSequenceStart(),
+                getSequenceEnd(),
+                granularity,
+                blacklistPositions,
+                fromIndex,
+                toIndex));
+    }
+
+    @Override
+    public Object getValueAt(long index) {
+        if (index >= 0) {
+            try {
+                OffsetDateTime value = getFirstValue()
+                    .plus(blacklistPositions.getPosition(index), granularity.getUnit());
+                if (value.isBefore(getSequenceEnd())) {
+                    return value;
+                }
+            } catch (DateTimeException | ArithmeticException e) {
+                // beyond the range of dates that can be represented
+            }
+        }
+
+        throw new NoSuchElementException("No value at index " + index);
+    }
+
+    private OffsetDateTime getSequenceStart() {
+        return inclusiveLower != null ? inclusiveLower : ISO_MIN_DATE;
+    }
+
+    private OffsetDateTime getSequenceEnd() {
+        return exclusiveUpper != null ? exclusiveUpper : ISO_MAX_DATE.plusNanos(1);
+    }
+
+    /**
+     * @return the number of steps of the granularity from the first value that fall before the end of the sequence,
+     * including any that are blacklisted
+     */
+    private long getSequenceLength() {
+        OffsetDateTime firstValue = getFirstValue();
+        OffsetDateTime end = getSequenceEnd();
+        if (!firstValue.isBefore(end)) {
+            return 0;
+        }
+
+        // between() counts the whole steps up to end, which may land exactly on end
+        long steps = granularity.getUnit().between(firstValue, end);
+        return firstValue.plus(steps, granularity.getUnit()).isBefore(end) ? steps + 1 : steps;
+    }
+
+    private OffsetDateTime getFirstValue() {
+        return SequentialDateIterator.roundUpToGranularity(getSequenceStart(), granularity);
+    }
+
+    private ExclusionIndex getBlacklistPositions() {
+        OffsetDateTime firstValue = getFirstValue();
+        ChronoUnit unit = granularity.getUnit();
+
+        return new ExclusionIndex(blacklist.stream()
+            .filter(value -> value instanceof OffsetDateTime)
+            .map(value -> (OffsetDateTime) value)
+            .filter(value -> !value.isBefore(firstValue) && value.isBefore(getSequenceEnd()))
+            .mapToLong(value -> {
+                long position = unit.between(firstValue, value);
+                // only values that fall exactly on a step would have been generated
+                return firstValue.plus(position, unit).equals(value) ? position : -1;
+            }));
     }
 
     @Override
@@ -106,21 +170,13 @@ public class DateTimeFieldValueSource implements FieldValueSource {
 
     @Override
     public Iterable<Object> generateRandomValues(RandomNumberGenerator randomNumberGenerator) {
+        long valueCount = getSequenceLength() - blacklistPositions.size();
+        if (valueCount <= 0) {
+            return Collections.emptyList();
+        }
 
-        OffsetDateTime lower = inclusiveLower != null
-            ? inclusiveLower
-            : ISO_MIN_DATE;
-
-
-        OffsetDateTime upper = exclusiveUpper != null
-            ? exclusiveUpper
-            : ISO_MAX_DATE.plusNanos(1_000_000);
-
-
-        return () -> new UpCastingIterator<>(
-            new FilteringIterator<>(new RandomDateIterator(lower, upper, randomNumberGenerator, granularity),
-                i -> !blacklist.contains(i)));
-
+        return () -> new SupplierBasedIterator<>(
+            () -> getValueAt(randomNumberGenerator.nextLong(0, valueCount)));
     }
 
     private OffsetDateTime getExclusiveUpperBound(DateTimeRestrictions upper) {
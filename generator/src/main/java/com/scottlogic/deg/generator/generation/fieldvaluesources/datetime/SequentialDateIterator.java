@@ -1,22 +1,45 @@
 package com.scottlogic.deg.generator.generation.fieldvaluesources.datetime;
 
 import com.scottlogic.deg.common.profile.constraintdetail.Timescale;
+import com.scottlogic.deg.generator.utils.ExclusionIndex;
 
+import java.time.DateTimeException;
 import java.time.OffsetDateTime;
 import java.util.Iterator;
+import java.util.PrimitiveIterator;
 
 class SequentialDateIterator implements Iterator<OffsetDateTime> {
+    private final OffsetDateTime firstDate;
     private final OffsetDateTime maxDate;
     private final Timescale granularityUnit;
+    private final PrimitiveIterator.OfLong positions;
 
+    private long remaining;
     private OffsetDateTime current;
-    private boolean hasNext;
 
     SequentialDateIterator(OffsetDateTime inclusiveMinDate, OffsetDateTime exclusiveMaxDate, Timescale granularity) {
+        this(inclusiveMinDate, exclusiveMaxDate, granularity, ExclusionIndex.NONE, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Iterate through the dates from fromIndex (inclusive) up to toIndex (exclusive), skipping any excluded dates.
+     * Each date is found by adding its number of steps to the first date, rather than by stepping through the dates
+     * before it.
+     * @param exclusions dates to skip, as numbers of steps after the first date
+     */
+    SequentialDateIterator(
+        OffsetDateTime inclusiveMinDate,
+        OffsetDateTime exclusiveMaxDate,
+        Timescale granularity,
+        ExclusionIndex exclusions,
+        long fromIndex,
+        long toIndex) {
         maxDate = exclusiveMaxDate;
         granularityUnit = granularity;
-        current = roundUpToGranularity(inclusiveMinDate);
-        hasNext = current.compareTo(exclusiveMaxDate) < 0;
+        firstDate = roundUpToGranularity(inclusiveMinDate, granularity);
+        positions = exclusions.iteratePositionsFrom(fromIndex);
+        remaining = toIndex - fromIndex;
+        current = nextDate();
     }
 
     /**
@@ -27,38 +50,43 @@ class SequentialDateIterator implements Iterator<OffsetDateTime> {
      * @param initial initial datetime which will have granularity applied     *
      * @return datetime that has had granularity applied
      */
-    private OffsetDateTime roundUpToGranularity(final OffsetDateTime initial) {
+    static OffsetDateTime roundUpToGranularity(final OffsetDateTime initial, Timescale granularityUnit) {
         OffsetDateTime earlierOrEqual = granularityUnit.getGranularityFunction().apply(initial);
         return earlierOrEqual.equals(initial) ? earlierOrEqual : granularityUnit.getNext().apply(earlierOrEqual);
     }
 
     @Override
     public boolean hasNext() {
-        return hasNext;
+        return current != null;
     }
 
     @Override
     public OffsetDateTime next() {
-
         OffsetDateTime next = current;
 
-        current = nextDate(current);
-        if (current.isAfter(maxDate) || current.isEqual(maxDate)) {
-            hasNext = false;
-        }
+        current = nextDate();
 
         return next;
     }
 
     /**
-     * Get the next available date at a given granularity.
+     * Get the next date that isn't excluded, or null if there are no more
      * 24/07/1990 -> days = 25/07/1990
      * 01/07/1990 -> months = 01/08/1990
-     * @param previous input date
-     * @return date after previous at given granularity
      */
-    private OffsetDateTime nextDate(OffsetDateTime previous) {
-        return granularityUnit.getNext().apply(previous);
+    private OffsetDateTime nextDate() {
+        if (remaining <= 0) {
+            return null;
+        }
+        remaining--;
+
+        OffsetDateTime date;
+        try {
+            date = firstDate.plus(positions.nextLong(), granularityUnit.getUnit());
+        } catch (DateTimeException | ArithmeticException e) {
+            return null; // beyond the range of dates that can be represented
+        }
+
+        return date.isBefore(maxDate) ? date : null;
     }
 }
-
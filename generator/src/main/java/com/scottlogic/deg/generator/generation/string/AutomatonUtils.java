@@ -196,17 +196,15 @@ class AutomatonUtils {
 
 
     /**
-     * Create an automaton and store its instance in the cache, keyed on the given regex
-     * The cache will vary based on &lt;matchFullString&gt;.
+     * Create an automaton for the given regex
      * <p>
      * The creation of an automaton is a time-consuming process, especially for more complex expressions.
      *
      * @param regexStr        The string to create the automaton from
      * @param matchFullString Whether the string represents a matchingRegex (true) or containingRegex (false) expression
-     * @param cache           The cache to store the automaton instance in
      * @return The created automaton
      */
-    public static Automaton createAutomaton(String regexStr, boolean matchFullString, Map<String, Automaton> cache) {
+    public static Automaton createAutomaton(String regexStr, boolean matchFullString) {
         final String anchoredStr = convertEndAnchors(regexStr, matchFullString);
         final String requotedStr = escapeCharacters(anchoredStr);
         final RegExp bricsRegExp = expandShorthandClasses(requotedStr);
@@ -214,7 +212,6 @@ class AutomatonUtils {
         Automaton generatedAutomaton = bricsRegExp.toAutomaton();
         generatedAutomaton.expandSingleton();
 
-        cache.put(regexStr, generatedAutomaton);
         return generatedAutomaton;
     }
 
@@ -0,0 +1,189 @@
+package com.scottlogic.deg.generator.generation.string;
+
+import com.scottlogic.deg.common.ValidationException;
+import dk.brics.automaton.Automaton;
+import dk.brics.automaton.State;
+import dk.brics.automaton.Transition;
+
+import java.util.*;
+
+/**
+ * Combines automatons like Automaton.intersection() and Automaton.determinize(), but counts the states as they are
+ * created, and stops as soon as there are more than a given number of them. A combination that would be too large is
+ * then rejected before it has been built, rather than after it has used up the heap.
+ */
+final class BoundedAutomatonOperations {
+    private BoundedAutomatonOperations() {
+        throw new UnsupportedOperationException("No instantiation of static class");
+    }
+
+    /**
+     * Produce a deterministic automaton accepting the strings accepted by both of the given automatons. Only the pairs
+     * of states that can be reached from the initial pair are created.
+     *
+     * @param maxStates the most states the intersection may have
+     * @param representation the constraints being combined, for the error message
+     * @throws ValidationException if the intersection has more than maxStates states
+     */
+    static Automaton intersection(Automaton left, Automaton right, int maxStates, String representation) {
+        Map<StatePair, State> states = new HashMap<>();
+        Deque<StatePair> pending = new ArrayDeque<>();
+
+        StatePair initialPair = new StatePair(left.getInitialState(), right.getInitialState());
+        State initial = addState(initialPair, states, pending, maxStates, representation);
+
+        while (!pending.isEmpty()) {
+            StatePair pair = pending.pop();
+            State state = states.get(pair);
+            state.setAccept(pair.left.isAccept() && pair.right.isAccept());
+
+            for (Transition leftTransition : pair.left.getTransitions()) {
+                for (Transition rightTransition : pair.right.getTransitions()) {
+                    char min = (char) Math.max(leftTransition.getMin(), rightTransition.getMin());
+                    char max = (char) Math.min(leftTransition.getMax(), rightTransition.getMax());
+                    if (min > max) {
+                        continue;
+                    }
+
+                    StatePair destination = new StatePair(leftTransition.getDest(), rightTransition.getDest());
+                    State destinationState = states.get(destination);
+                    if (destinationState == null) {
+                        destinationState = addState(destination, states, pending, maxStates, representation);
+                    }
+                    state.addTransition(new Transition(min, max, destinationState));
+                }
+            }
+        }
+
+        Automaton intersection = new Automaton();
+        intersection.setInitialState(initial);
+        intersection.setDeterministic(left.isDeterministic() && right.isDeterministic());
+        intersection.removeDeadTransitions();
+        return determinise(intersection, maxStates, representation);
+    }
+
+    /**
+     * Produce a deterministic automaton accepting the same strings as the given automaton, by the subset construction.
+     * The automaton is returned as it is if it is already deterministic.
+     *
+     * @param maxStates the most states the deterministic automaton may have
+     * @param representation the constraints being combined, for the error message
+     * @throws ValidationException if the deterministic automaton has more than maxStates states
+     */
+    static Automaton determinise(Automaton automaton, int maxStates, String representation) {
+        if (automaton.isDeterministic()) {
+            return automaton;
+        }
+
+        Map<Set<State>, State> states = new HashMap<>();
+        Deque<Set<State>> pending = new ArrayDeque<>();
+
+        State initial = addState(Collections.singleton(automaton.getInitialState()), states, pending, maxStates, representation);
+
+        while (!pending.isEmpty()) {
+            Set<State> subset = pending.pop();
+            State state = states.get(subset);
+
+            // the characters at which the set of destinations can change, each range runs up to the next one
+            TreeSet<Integer> rangeStarts = new TreeSet<>();
+            for (State member : subset) {
+                state.setAccept(state.isAccept() || member.isAccept());
+                for (Transition transition : member.getTransitions()) {
+                    rangeStarts.add((int) transition.getMin());
+                    rangeStarts.add(transition.getMax() + 1);
+                }
+            }
+
+            Integer rangeStart = rangeStarts.isEmpty() ? null : rangeStarts.first();
+            while (rangeStart != null) {
+                Integer nextRangeStart = rangeStarts.higher(rangeStart);
+                if (nextRangeStart == null) {
+                    break;
+                }
+
+                Set<State> destination = new HashSet<>();
+                for (State member : subset) {
+                    for (Transition transition : member.getTransitions()) {
+                        if (transition.getMin() <= rangeStart && transition.getMax() >= rangeStart) {
+                            destination.add(transition.getDest());
+                        }
+                    }
+                }
+
+                if (!destination.isEmpty()) {
+                    State destinationState = states.get(destination);
+                    if (destinationState == null) {
+                        destinationState = addState(destination, states, pending, maxStates, representation);
+                    }
+                    state.addTransition(new Transition(
+                        (char) rangeStart.intValue(),
+                        (char) (nextRangeStart - 1),
+                        destinationState));
+                }
+
+                rangeStart = nextRangeStart;
+            }
+        }
+
+        Automaton deterministic = new Automaton();
+        deterministic.setInitialState(initial);
+        deterministic.setDeterministic(true);
+        deterministic.reduce();
+        return deterministic;
+    }
+
+    /**
+     * Stop generation if an automaton has more states than the budget
+     *
+     * @throws ValidationException if the automaton has more than maxStates states
+     */
+    static Automaton checkSize(Automaton automaton, int maxStates, String representation) {
+        if (automaton.getNumberOfStates() > maxStates) {
+            throw tooComplex(maxStates, representation);
+        }
+
+        return automaton;
+    }
+
+    private static <K> State addState(K key, Map<K, State> states, Deque<K> pending, int maxStates, String representation) {
+        if (states.size() >= maxStates) {
+            throw tooComplex(maxStates, representation);
+        }
+
+        State state = new State();
+        states.put(key, state);
+        pending.push(key);
+        return state;
+    }
+
+    private static ValidationException tooComplex(int maxStates, String representation) {
+        return new ValidationException(String.format(
+            "The string constraints %s are too complex to combine: they need more than the limit of %d automaton " +
+                "states. Simplify the regular expressions or raise the limit with --max-automaton-states.",
+            representation,
+            maxStates));
+    }
+
+    private static class StatePair {
+        private final State left;
+        private final State right;
+
+        StatePair(State left, State right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            StatePair that = (StatePair) o;
+            return left == that.left && right == that.right;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(left) + System.identityHashCode(right);
+        }
+    }
+}
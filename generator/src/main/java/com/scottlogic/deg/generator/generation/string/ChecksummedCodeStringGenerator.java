@@ -14,6 +14,16 @@ public abstract class ChecksummedCodeStringGenerator implements StringGenerator
     protected final int prefixLength;
     protected final int codeLength;
 
+    /**
+     * Whether this generator produces any valid code, i.e. it has no prefix, suffix or other restrictions, so random
+     * codes can be produced directly rather than through the regex generator
+     */
+    protected final boolean isUnrestricted;
+
+    protected ChecksummedCodeStringGenerator(String standardPattern, int codeLength) {
+        this(new RegexStringGenerator(standardPattern, true), false, true, codeLength, 0);
+    }
+
     public ChecksummedCodeStringGenerator(
         String generationPattern,
         int codeLength,
@@ -47,9 +57,20 @@ public abstract class ChecksummedCodeStringGenerator implements StringGenerator
         boolean negate,
         int codeLength,
         int prefixLength
+    ) {
+        this(generator, negate, false, codeLength, prefixLength);
+    }
+
+    protected ChecksummedCodeStringGenerator(
+        RegexStringGenerator generator,
+        boolean negate,
+        boolean isUnrestricted,
+        int codeLength,
+        int prefixLength
     ) {
         this.negate = negate;
         regexGenerator = generator;
+        this.isUnrestricted = isUnrestricted;
         this.codeLength = codeLength;
         this.prefixLength = prefixLength;
     }
@@ -58,6 +79,11 @@ public abstract class ChecksummedCodeStringGenerator implements StringGenerator
 
     public abstract int getLength();
 
+    /**
+     * Generate a random valid code without any prefix or suffix
+     */
+    abstract String generateRandomCode(RandomNumberGenerator randomNumberGenerator);
+
     public String fixCheckDigit(String str) {
         char checkDigit = calculateCheckDigit(str);
         int codeLength = getLength();
@@ -77,6 +103,9 @@ public abstract class ChecksummedCodeStringGenerator implements StringGenerator
                 otherGenerator.regexGenerator.complement() :
                 otherGenerator.regexGenerator);
         }
+        if (stringGenerator instanceof LengthRestrictedStringGenerator) {
+            return intersect(((LengthRestrictedStringGenerator)stringGenerator).asRegexGenerator());
+        }
         if (stringGenerator instanceof RegexStringGenerator) {
             return intersect((RegexStringGenerator)stringGenerator);
         }
@@ -136,6 +165,9 @@ public abstract class ChecksummedCodeStringGenerator implements StringGenerator
                     generateRandomInvalidCheckDigitStrings(randomNumberGenerator)),
                 randomNumberGenerator);
         }
+        if (isUnrestricted) {
+            return () -> new SupplierBasedIterator<>(() -> generateRandomCode(randomNumberGenerator));
+        }
         return wrapIterableWithProjectionAndFilter(
             regexGenerator.generateRandomValues(randomNumberGenerator)
         );
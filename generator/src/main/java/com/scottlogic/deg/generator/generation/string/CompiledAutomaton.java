@@ -0,0 +1,507 @@
+package com.scottlogic.deg.generator.generation.string;
+
+import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
+import dk.brics.automaton.Automaton;
+import dk.brics.automaton.State;
+import dk.brics.automaton.Transition;
+
+import java.util.*;
+
+/**
+ * A read-only copy of an automaton held in flat arrays, for generating random strings without walking the
+ * dk.brics object graph.
+ *
+ * The transitions of each state are held in the order of State.getSortedTransitions(false), and surrogate
+ * characters are removed from their ranges when compiled, so a character can be chosen from a transition without
+ * retrying. Transitions that only cover surrogate characters are dropped.
+ *
+ * When the automaton accepts a finite set of strings, the number of strings accepted from each state is also counted.
+ * The strings can then be addressed by their index in lexicographic order, and when there are any, the probability of
+ * each way out of each state is computed, weighted by the number of strings that can be accepted that way, so strings
+ * can be drawn uniformly.
+ */
+class CompiledAutomaton {
+    private static final int SURROGATES_START = Character.MIN_SURROGATE;
+    private static final int SURROGATES_END = Character.MAX_SURROGATE;
+
+    private final boolean[] isAccept;
+
+    /**
+     * The transitions of state s are those from transitionStart[s] up to (but not including) transitionStart[s + 1]
+     */
+    private final int[] transitionStart;
+    private final int[] transitionDestination;
+
+    /**
+     * The characters of each transition, as a range below the surrogates followed by a range above them.
+     * Either range may be empty.
+     */
+    private final char[] lowRangeStart;
+    private final int[] lowRangeSize;
+    private final char[] highRangeStart;
+    private final int[] characterCount;
+
+    /**
+     * The probability of stopping at each state, and the cumulative probability (including that of stopping) of taking
+     * each transition from its state, when drawing strings uniformly. Null if strings can't be drawn uniformly.
+     */
+    private final double[] stopProbability;
+    private final double[] cumulativeTransitionProbability;
+
+    /**
+     * The number of strings accepted from each state, and the cumulative number (including the empty string if the
+     * state accepts) accepted through each transition from its state, for addressing strings by index. Counts are
+     * capped at Long.MAX_VALUE. Null if the automaton accepts infinitely many strings.
+     */
+    private final long[] matchCount;
+    private final long[] cumulativeTransitionMatchCount;
+
+    private CompiledAutomaton(
+        boolean[] isAccept,
+        int[] transitionStart,
+        int[] transitionDestination,
+        char[] lowRangeStart,
+        int[] lowRangeSize,
+        char[] highRangeStart,
+        int[] characterCount,
+        double[] stopProbability,
+        double[] cumulativeTransitionProbability,
+        long[] matchCount,
+        long[] cumulativeTransitionMatchCount) {
+        this.isAccept = isAccept;
+        this.transitionStart = transitionStart;
+        this.transitionDestination = transitionDestination;
+        this.lowRangeStart = lowRangeStart;
+        this.lowRangeSize = lowRangeSize;
+        this.highRangeStart = highRangeStart;
+        this.characterCount = characterCount;
+        this.stopProbability = stopProbability;
+        this.cumulativeTransitionProbability = cumulativeTransitionProbability;
+        this.matchCount = matchCount;
+        this.cumulativeTransitionMatchCount = cumulativeTransitionMatchCount;
+    }
+
+    /**
+     * Compile the states reachable from the initial state of the automaton. The initial state is numbered 0.
+     */
+    static CompiledAutomaton compile(Automaton automaton) {
+        Map<State, Integer> stateNumbers = new HashMap<>();
+        List<State> states = new ArrayList<>();
+        List<List<Transition>> stateTransitions = new ArrayList<>();
+        int transitionTotal = 0;
+
+        State initialState = automaton.getInitialState();
+        stateNumbers.put(initialState, 0);
+        states.add(initialState);
+
+        for (int stateNumber = 0; stateNumber < states.size(); stateNumber++) {
+            List<Transition> transitions = new ArrayList<>();
+            for (Transition transition : states.get(stateNumber).getSortedTransitions(false)) {
+                if (countCharacters(transition) == 0) {
+                    continue;
+                }
+
+                transitions.add(transition);
+                if (!stateNumbers.containsKey(transition.getDest())) {
+                    stateNumbers.put(transition.getDest(), states.size());
+                    states.add(transition.getDest());
+                }
+            }
+
+            stateTransitions.add(transitions);
+            transitionTotal += transitions.size();
+        }
+
+        boolean[] isAccept = new boolean[states.size()];
+        int[] transitionStart = new int[states.size() + 1];
+        int[] transitionDestination = new int[transitionTotal];
+        char[] lowRangeStart = new char[transitionTotal];
+        int[] lowRangeSize = new int[transitionTotal];
+        char[] highRangeStart = new char[transitionTotal];
+        int[] characterCount = new int[transitionTotal];
+
+        int transitionNumber = 0;
+        for (int stateNumber = 0; stateNumber < states.size(); stateNumber++) {
+            isAccept[stateNumber] = states.get(stateNumber).isAccept();
+            transitionStart[stateNumber] = transitionNumber;
+
+            for (Transition transition : stateTransitions.get(stateNumber)) {
+                int min = transition.getMin();
+                int max = transition.getMax();
+                int lowRangeEnd = Math.min(max, SURROGATES_START - 1);
+
+                transitionDestination[transitionNumber] = stateNumbers.get(transition.getDest());
+                lowRangeStart[transitionNumber] = (char) min;
+                lowRangeSize[transitionNumber] = Math.max(0, lowRangeEnd - min + 1);
+                highRangeStart[transitionNumber] = (char) Math.max(min, SURROGATES_END + 1);
+                characterCount[transitionNumber] = countCharacters(transition);
+                transitionNumber++;
+            }
+        }
+        transitionStart[states.size()] = transitionNumber;
+
+        int[] topologicalOrder = getTopologicalOrder(transitionStart, transitionDestination);
+        if (topologicalOrder == null) {
+            return new CompiledAutomaton(
+                isAccept,
+                transitionStart,
+                transitionDestination,
+                lowRangeStart,
+                lowRangeSize,
+                highRangeStart,
+                characterCount,
+                null,
+                null,
+                null,
+                null);
+        }
+
+        long[] matchCount = new long[states.size()];
+        long[] cumulativeTransitionMatchCount = new long[transitionTotal];
+        for (int index = states.size() - 1; index >= 0; index--) {
+            int state = topologicalOrder[index];
+            long cumulativeCount = isAccept[state] ? 1 : 0;
+
+            for (int transition = transitionStart[state]; transition < transitionStart[state + 1]; transition++) {
+                long count = multiplyCapped(characterCount[transition], matchCount[transitionDestination[transition]]);
+                cumulativeCount = addCapped(cumulativeCount, count);
+                cumulativeTransitionMatchCount[transition] = cumulativeCount;
+            }
+
+            matchCount[state] = cumulativeCount;
+        }
+
+        double[] logMatchCounts = getLogMatchCounts(topologicalOrder, isAccept, transitionStart, transitionDestination, characterCount);
+        double[] stopProbability = null;
+        double[] cumulativeTransitionProbability = null;
+
+        if (logMatchCounts[0] != Double.NEGATIVE_INFINITY) {
+            stopProbability = new double[states.size()];
+            cumulativeTransitionProbability = new double[transitionTotal];
+
+            for (int state = 0; state < states.size(); state++) {
+                stopProbability[state] = isAccept[state] ? Math.exp(-logMatchCounts[state]) : 0;
+
+                double cumulativeProbability = stopProbability[state];
+                int lastPossibleTransition = -1;
+                for (int transition = transitionStart[state]; transition < transitionStart[state + 1]; transition++) {
+                    double logCount = Math.log(characterCount[transition]) + logMatchCounts[transitionDestination[transition]];
+                    double probability = Math.exp(logCount - logMatchCounts[state]);
+
+                    cumulativeProbability += probability;
+                    cumulativeTransitionProbability[transition] = cumulativeProbability;
+                    if (probability > 0) {
+                        lastPossibleTransition = transition;
+                    }
+                }
+
+                // so that rounding errors can't leave a draw with nowhere to go
+                for (int transition = lastPossibleTransition; transition >= 0 && transition < transitionStart[state + 1]; transition++) {
+                    cumulativeTransitionProbability[transition] = Double.POSITIVE_INFINITY;
+                }
+            }
+        }
+
+        return new CompiledAutomaton(
+            isAccept,
+            transitionStart,
+            transitionDestination,
+            lowRangeStart,
+            lowRangeSize,
+            highRangeStart,
+            characterCount,
+            stopProbability,
+            cumulativeTransitionProbability,
+            matchCount,
+            cumulativeTransitionMatchCount);
+    }
+
+    /**
+     * @return the states ordered so that every transition leads to a later state, or null if the automaton has a cycle
+     * and so accepts infinitely many strings
+     */
+    private static int[] getTopologicalOrder(int[] transitionStart, int[] transitionDestination) {
+        int stateCount = transitionStart.length - 1;
+        int[] incomingTransitions = new int[stateCount];
+        for (int destination : transitionDestination) {
+            incomingTransitions[destination]++;
+        }
+
+        int[] topologicalOrder = new int[stateCount];
+        int ordered = 0;
+        int visited = 0;
+        for (int state = 0; state < stateCount; state++) {
+            if (incomingTransitions[state] == 0) {
+                topologicalOrder[ordered++] = state;
+            }
+        }
+
+        while (visited < ordered) {
+            int state = topologicalOrder[visited++];
+            for (int transition = transitionStart[state]; transition < transitionStart[state + 1]; transition++) {
+                int destination = transitionDestination[transition];
+                if (--incomingTransitions[destination] == 0) {
+                    topologicalOrder[ordered++] = destination;
+                }
+            }
+        }
+
+        return ordered < stateCount ? null : topologicalOrder;
+    }
+
+    /**
+     * Count the strings accepted from each state, as natural logarithms so that large languages don't overflow.
+     * States are visited in reverse topological order, so the counts of a state's destinations are known before its
+     * own; the count of a state is 1 if it accepts, plus the number of characters of each transition multiplied by the
+     * count of its destination.
+     */
+    private static double[] getLogMatchCounts(
+        int[] topologicalOrder,
+        boolean[] isAccept,
+        int[] transitionStart,
+        int[] transitionDestination,
+        int[] characterCount) {
+        int stateCount = isAccept.length;
+        double[] logMatchCounts = new double[stateCount];
+        for (int index = stateCount - 1; index >= 0; index--) {
+            int state = topologicalOrder[index];
+            int firstTransition = transitionStart[state];
+            int lastTransition = transitionStart[state + 1];
+
+            double maxLogCount = isAccept[state] ? 0 : Double.NEGATIVE_INFINITY;
+            for (int transition = firstTransition; transition < lastTransition; transition++) {
+                maxLogCount = Math.max(maxLogCount, Math.log(characterCount[transition]) + logMatchCounts[transitionDestination[transition]]);
+            }
+
+            if (maxLogCount == Double.NEGATIVE_INFINITY) {
+                logMatchCounts[state] = Double.NEGATIVE_INFINITY;
+                continue;
+            }
+
+            double scaledCount = isAccept[state] ? Math.exp(-maxLogCount) : 0;
+            for (int transition = firstTransition; transition < lastTransition; transition++) {
+                double logCount = Math.log(characterCount[transition]) + logMatchCounts[transitionDestination[transition]];
+                scaledCount += Math.exp(logCount - maxLogCount);
+            }
+
+            logMatchCounts[state] = maxLogCount + Math.log(scaledCount);
+        }
+
+        return logMatchCounts;
+    }
+
+    /**
+     * Generate a random string of at least one character, unless no characters can be added from the initial state.
+     *
+     * From each state a random transition is taken and a random character appended from it, stopping when a state
+     * has no transitions, or is accepting and a random draw says to stop there.
+     */
+    String generateRandomString(RandomNumberGenerator random) {
+        StringBuilder builder = new StringBuilder();
+        int state = 0;
+
+        while (true) {
+            int firstTransition = transitionStart[state];
+            int transitionCount = transitionStart[state + 1] - firstTransition;
+            if (transitionCount == 0) {
+                return builder.toString();
+            }
+
+            if (isAccept[state] && random.nextInt() > 0.3 * Integer.MAX_VALUE && builder.length() > 0) {
+                return builder.toString();
+            }
+
+            int transition = firstTransition + random.nextInt(transitionCount);
+            builder.append(getCharacter(transition, random.nextInt(characterCount[transition])));
+            state = transitionDestination[transition];
+        }
+    }
+
+    /**
+     * @return whether generateUniformRandomString can be used, i.e. the automaton accepts a finite, non-empty set of
+     * strings
+     */
+    boolean canSampleUniformly() {
+        return stopProbability != null;
+    }
+
+    /**
+     * Generate a random string, with every string accepted by the automaton equally likely.
+     *
+     * At each state a single draw chooses between stopping and each of the transitions, in proportion to the number of
+     * strings accepted each way, then a character is chosen uniformly from the transition taken.
+     */
+    String generateUniformRandomString(RandomNumberGenerator random) {
+        if (!canSampleUniformly()) {
+            throw new UnsupportedOperationException("Cannot draw strings uniformly from an infinite or empty set of strings");
+        }
+
+        StringBuilder builder = new StringBuilder();
+        int state = 0;
+
+        while (true) {
+            double draw = random.nextDouble(0, 1);
+            if (draw < stopProbability[state]) {
+                return builder.toString();
+            }
+
+            int transition = findTransition(state, draw);
+            builder.append(getCharacter(transition, random.nextInt(characterCount[transition])));
+            state = transitionDestination[transition];
+        }
+    }
+
+    /**
+     * @return the first transition from the state whose cumulative probability is greater than the draw
+     */
+    private int findTransition(int state, double draw) {
+        int low = transitionStart[state];
+        int high = transitionStart[state + 1] - 1;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulativeTransitionProbability[middle] > draw) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * @return whether getMatch can be used, i.e. the automaton accepts a finite set of strings
+     */
+    boolean canIndexMatches() {
+        return matchCount != null;
+    }
+
+    /**
+     * @return the number of strings the automaton accepts, capped at Long.MAX_VALUE
+     */
+    long getMatchCount() {
+        if (!canIndexMatches()) {
+            throw new UnsupportedOperationException("Cannot count matches for a non-finite expression.");
+        }
+
+        return matchCount[0];
+    }
+
+    /**
+     * Get a string by its index among all the strings the automaton accepts, in lexicographic order. Each state is
+     * visited once, choosing the transition whose range of indexes contains the index, so the time taken is
+     * proportional to the length of the string.
+     */
+    String getMatch(long index) {
+        if (index < 0 || index >= getMatchCount()) {
+            throw new IndexOutOfBoundsException("No match at index " + index + " of " + getMatchCount());
+        }
+
+        StringBuilder builder = new StringBuilder();
+        int state = 0;
+
+        while (true) {
+            long acceptedAtState = isAccept[state] ? 1 : 0;
+            if (index < acceptedAtState) {
+                return builder.toString();
+            }
+
+            int transition = findTransitionForIndex(state, index);
+            long transitionFirstIndex = transition == transitionStart[state]
+                ? acceptedAtState
+                : cumulativeTransitionMatchCount[transition - 1];
+            long destinationMatches = matchCount[transitionDestination[transition]];
+            long offset = index - transitionFirstIndex;
+
+            builder.append(getCharacter(transition, (int) (offset / destinationMatches)));
+            index = offset % destinationMatches;
+            state = transitionDestination[transition];
+        }
+    }
+
+    /**
+     * @return an iterator over the accepted strings in lexicographic order, starting from the string at firstIndex
+     */
+    MatchIterator iterateMatches(long firstIndex) {
+        return new MatchIterator(firstIndex);
+    }
+
+    /**
+     * @return the first transition from the state whose cumulative count of matches is greater than the index
+     */
+    private int findTransitionForIndex(int state, long index) {
+        int low = transitionStart[state];
+        int high = transitionStart[state + 1] - 1;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulativeTransitionMatchCount[middle] > index) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+
+        return low;
+    }
+
+    private char getCharacter(int transition, int offset) {
+        return offset < lowRangeSize[transition]
+            ? (char) (lowRangeStart[transition] + offset)
+            : (char) (highRangeStart[transition] + offset - lowRangeSize[transition]);
+    }
+
+    private static int countCharacters(Transition transition) {
+        int min = transition.getMin();
+        int max = transition.getMax();
+        int surrogates = Math.max(0, Math.min(max, SURROGATES_END) - Math.max(min, SURROGATES_START) + 1);
+
+        return max - min + 1 - surrogates;
+    }
+
+    private static long addCapped(long left, long right) {
+        long sum = left + right;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long multiplyCapped(long left, long right) {
+        if (left != 0 && right > Long.MAX_VALUE / left) {
+            return Long.MAX_VALUE;
+        }
+
+        return left * right;
+    }
+
+    /**
+     * Iterates over the accepted strings by index, so any number of them can be skipped without generating them
+     */
+    class MatchIterator implements Iterator<String> {
+        private long nextIndex;
+
+        private MatchIterator(long firstIndex) {
+            this.nextIndex = firstIndex;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < getMatchCount();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return getMatch(nextIndex++);
+        }
+
+        /**
+         * Skip over the next count strings
+         */
+        void skip(long count) {
+            nextIndex = addCapped(nextIndex, count);
+        }
+    }
+}
@@ -7,7 +7,7 @@ public class CusipStringGenerator extends ChecksummedCodeStringGenerator {
     public final static String STANDARD_REGEX_REPRESENTATION = "[0-9]{3}[0-9A-Z]{5}[0-9]";
 
     public CusipStringGenerator() {
-        super(STANDARD_REGEX_REPRESENTATION, CUSIP_LENGTH, 0);
+        super(STANDARD_REGEX_REPRESENTATION, CUSIP_LENGTH);
     }
 
     public CusipStringGenerator(String prefix, String suffix, RegexStringGenerator additionalRestrictions) {
@@ -23,8 +23,8 @@ public class CusipStringGenerator extends ChecksummedCodeStringGenerator {
         super(generator, false, CUSIP_LENGTH, 0);
     }
 
-    private CusipStringGenerator(RegexStringGenerator cusipGenerator, boolean negate) {
-        super(cusipGenerator, negate, CUSIP_LENGTH, 0);
+    private CusipStringGenerator(RegexStringGenerator cusipGenerator, boolean negate, boolean isUnrestricted) {
+        super(cusipGenerator, negate, isUnrestricted, CUSIP_LENGTH, 0);
     }
 
     @Override
@@ -34,6 +34,11 @@ public class CusipStringGenerator extends ChecksummedCodeStringGenerator {
         );
     }
 
+    @Override
+    String generateRandomCode(RandomNumberGenerator randomNumberGenerator) {
+        return FinancialCodeUtils.generateRandomCusip(randomNumberGenerator);
+    }
+
     @Override
     public int getLength() {
         return CUSIP_LENGTH;
@@ -41,7 +46,7 @@ public class CusipStringGenerator extends ChecksummedCodeStringGenerator {
 
     @Override
     public StringGenerator complement() {
-        return new CusipStringGenerator(regexGenerator, !negate);
+        return new CusipStringGenerator(regexGenerator, !negate, isUnrestricted);
     }
 
     @Override
@@ -17,29 +17,48 @@ public class IsinStringGenerator implements StringGenerator {
 
     // This generator is not used in generation itself, but is used to describe the possible
     // range of output values when combining with other string generators.
+    // It is only created when needed if this generator produces any valid ISIN.
     private RegexStringGenerator isinRegexGenerator;
 
     private final boolean isNegated;
 
+    // Whether this generator produces any valid ISIN, in which case random ISINs are produced directly
+    private final boolean isUnrestricted;
+
     public IsinStringGenerator() {
-        this(getRegexGeneratorForAllLegalIsinFormats(IsinStringGenerator::getIsinRegexRepresentationForCountry), false);
+        this(null, false, true);
     }
 
     private IsinStringGenerator(RegexStringGenerator regexGenerator, boolean isNegated) {
+        this(regexGenerator, isNegated, false);
+    }
+
+    private IsinStringGenerator(RegexStringGenerator regexGenerator, boolean isNegated, boolean isUnrestricted) {
         this.isNegated = isNegated;
+        this.isUnrestricted = isUnrestricted;
         isinRegexGenerator = regexGenerator;
     }
 
+    private RegexStringGenerator getIsinRegexGenerator() {
+        if (isinRegexGenerator == null) {
+            isinRegexGenerator = getRegexGeneratorForAllLegalIsinFormats(IsinStringGenerator::getIsinRegexRepresentationForCountry);
+        }
+        return isinRegexGenerator;
+    }
+
     @Override
     public StringGenerator intersect(StringGenerator stringGenerator) {
         if (stringGenerator instanceof IsinStringGenerator) {
-            if (isNegated == ((IsinStringGenerator)stringGenerator).isNegated) {
-                RegexStringGenerator otherRegexGenerator =
-                    ((IsinStringGenerator) stringGenerator).isinRegexGenerator;
+            IsinStringGenerator otherIsinGenerator = (IsinStringGenerator) stringGenerator;
+            if (isNegated == otherIsinGenerator.isNegated) {
+                if (isUnrestricted && otherIsinGenerator.isUnrestricted) {
+                    return this;
+                }
+                RegexStringGenerator otherRegexGenerator = otherIsinGenerator.getIsinRegexGenerator();
                 return new IsinStringGenerator(
                     isNegated
-                        ? isinRegexGenerator.union(otherRegexGenerator)
-                        : (RegexStringGenerator)isinRegexGenerator.intersect(otherRegexGenerator),
+                        ? getIsinRegexGenerator().union(otherRegexGenerator)
+                        : (RegexStringGenerator)getIsinRegexGenerator().intersect(otherRegexGenerator),
                     isNegated
                 );
             }
@@ -54,6 +73,9 @@ public class IsinStringGenerator implements StringGenerator {
                 RegexStringGenerator.intersectRepresentation(stringGenerator.toString(), "<ISIN>")
             );
         }
+        if (stringGenerator instanceof LengthRestrictedStringGenerator) {
+            return intersect(((LengthRestrictedStringGenerator)stringGenerator).asRegexGenerator());
+        }
         if (stringGenerator instanceof RegexStringGenerator) {
             return intersect((RegexStringGenerator)stringGenerator);
         }
@@ -64,13 +86,13 @@ public class IsinStringGenerator implements StringGenerator {
 
     private StringGenerator intersect(RegexStringGenerator other) {
         StringGenerator intersection =
-            other.intersect(isNegated ? isinRegexGenerator.complement() : isinRegexGenerator);
+            other.intersect(isNegated ? getIsinRegexGenerator().complement() : getIsinRegexGenerator());
         if ((intersection.isFinite() && intersection.getValueCount() == 0) ||
                 !(intersection instanceof RegexStringGenerator)) {
             return new NoStringsStringGenerator(
                 RegexStringGenerator.intersectRepresentation(
                     other.toString(),
-                    isinRegexGenerator.toString()
+                    getIsinRegexGenerator().toString()
                 )
             );
         }
@@ -78,14 +100,14 @@ public class IsinStringGenerator implements StringGenerator {
             return new IsinStringGenerator((RegexStringGenerator)intersection, false);
         }
         return new IsinStringGenerator(
-            isinRegexGenerator.union((RegexStringGenerator)other.complement()),
+            getIsinRegexGenerator().union((RegexStringGenerator)other.complement()),
             true
         );
     }
 
     @Override
     public StringGenerator complement() {
-        return new IsinStringGenerator(isinRegexGenerator, !isNegated);
+        return new IsinStringGenerator(isinRegexGenerator, !isNegated, isUnrestricted);
     }
 
     @Override
@@ -95,7 +117,7 @@ public class IsinStringGenerator implements StringGenerator {
 
     @Override
     public long getValueCount() {
-        return isinRegexGenerator.getValueCount();
+        return getIsinRegexGenerator().getValueCount();
     }
 
     @Override
@@ -145,6 +167,9 @@ public class IsinStringGenerator implements StringGenerator {
                             generateRandomInvalidCheckDigitIsins(randomNumberGenerator)),
                     randomNumberGenerator);
         }
+        if (isUnrestricted) {
+            return () -> new SupplierBasedIterator<>(() -> FinancialCodeUtils.generateRandomIsin(randomNumberGenerator));
+        }
         final List<Iterable<String>> countryCodeIterables = getAllCountryIsinGeneratorsAsStream()
             .map(generator -> wrapIterableWithProjectionAndFilter(
                 generator.generateRandomValues(randomNumberGenerator)
@@ -157,7 +182,7 @@ public class IsinStringGenerator implements StringGenerator {
         return IterableUtils.wrapIterableWithProjectionAndFilter(
             iterable,
             this::replaceCheckDigit,
-            isinRegexGenerator::match
+            getIsinRegexGenerator()::match
         );
     }
 
@@ -281,10 +306,10 @@ public class IsinStringGenerator implements StringGenerator {
 
     private StringGenerator getIsinGeneratorForCountry(String countryCode) {
         if (countryCode.equals("GB")) {
-            return new SedolStringGenerator("GB00", "[0-9]", isinRegexGenerator);
+            return new SedolStringGenerator("GB00", "[0-9]", getIsinRegexGenerator());
         }
         if (countryCode.equals("US")) {
-            return new CusipStringGenerator("US", "[0-9]", isinRegexGenerator);
+            return new CusipStringGenerator("US", "[0-9]", getIsinRegexGenerator());
         }
         return new RegexStringGenerator(countryCode + GENERIC_NSIN_REGEX + "[0-9]", true);
     }
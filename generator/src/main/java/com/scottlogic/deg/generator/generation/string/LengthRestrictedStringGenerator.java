@@ -0,0 +1,521 @@
+package com.scottlogic.deg.generator.generation.string;
+
+import com.scottlogic.deg.common.util.Defaults;
+import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.SupplierBasedIterator;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Produces strings of any characters whose lengths are within one or more ranges, i.e. the strings matched by
+ * /^.{a,b}$/ or /^(.{a,b}|.{c,d})$/.
+ *
+ * Strings are generated, counted and indexed from the permitted lengths alone, without building an automaton.
+ * The characters are the same as a RegexStringGenerator would produce for /./, i.e. every character except surrogates,
+ * in the same order, so values are produced in the same order as from the equivalent regex. An automaton is only
+ * built when this generator is combined with a regex, or complemented.
+ */
+public class LengthRestrictedStringGenerator implements StringGenerator {
+    private static final char FIRST_HIGH_CHARACTER = '\uE000';
+    private static final int LOW_CHARACTER_COUNT = Character.MIN_SURROGATE;
+    private static final int CHARACTER_COUNT = LOW_CHARACTER_COUNT + (Character.MAX_VALUE - FIRST_HIGH_CHARACTER + 1);
+    private static final double STOP_THRESHOLD = 0.3 * Integer.MAX_VALUE;
+    private static final char PRINTABLE_CHARACTER = ' ';
+
+    private final List<LengthRange> ranges;
+    private final String regexRepresentation;
+    private final boolean uniformSampling;
+    private final int maxAutomatonStates;
+    private RegexStringGenerator regexGenerator;
+    private long[] matchCountFromLength;
+
+    /**
+     * @param minLength the shortest permitted length
+     * @param maxLength the longest permitted length, or null if strings can be any length
+     * @param excludedLengths lengths that are not permitted
+     */
+    public LengthRestrictedStringGenerator(int minLength, Integer maxLength, Set<Integer> excludedLengths) {
+        this(minLength, maxLength, excludedLengths, Defaults.DEFAULT_MAX_AUTOMATON_STATES);
+    }
+
+    /**
+     * @param minLength the shortest permitted length
+     * @param maxLength the longest permitted length, or null if strings can be any length
+     * @param excludedLengths lengths that are not permitted
+     * @param maxAutomatonStates the most states an automaton combined from this generator may have
+     */
+    public LengthRestrictedStringGenerator(
+        int minLength,
+        Integer maxLength,
+        Set<Integer> excludedLengths,
+        int maxAutomatonStates) {
+        this(getPermittedLengths(minLength, maxLength, excludedLengths), false, maxAutomatonStates);
+    }
+
+    private LengthRestrictedStringGenerator(List<LengthRange> ranges, boolean uniformSampling, int maxAutomatonStates) {
+        this(ranges, getRegex(ranges), uniformSampling, maxAutomatonStates);
+    }
+
+    private LengthRestrictedStringGenerator(
+        List<LengthRange> ranges,
+        String regexRepresentation,
+        boolean uniformSampling,
+        int maxAutomatonStates) {
+        this.ranges = ranges;
+        this.regexRepresentation = regexRepresentation;
+        this.uniformSampling = uniformSampling;
+        this.maxAutomatonStates = maxAutomatonStates;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("/%s/", regexRepresentation);
+    }
+
+    /**
+     * @return a regex generator for the same strings
+     */
+    public RegexStringGenerator asRegexGenerator() {
+        if (regexGenerator == null) {
+            regexGenerator = new RegexStringGenerator(regexRepresentation, true, maxAutomatonStates);
+        }
+        return regexGenerator;
+    }
+
+    @Override
+    public StringGenerator intersect(StringGenerator otherGenerator) {
+        if (otherGenerator instanceof LengthRestrictedStringGenerator) {
+            return intersect((LengthRestrictedStringGenerator) otherGenerator);
+        }
+
+        return asRegexGenerator().intersect(otherGenerator);
+    }
+
+    private StringGenerator intersect(LengthRestrictedStringGenerator other) {
+        List<LengthRange> intersection = new ArrayList<>();
+        for (LengthRange range : ranges) {
+            for (LengthRange otherRange : other.ranges) {
+                range.intersect(otherRange).ifPresent(intersection::add);
+            }
+        }
+
+        if (intersection.isEmpty()) {
+            return new NoStringsStringGenerator(this, other);
+        }
+
+        intersection.sort(Comparator.comparingInt(range -> range.min));
+        return new LengthRestrictedStringGenerator(intersection, uniformSampling, maxAutomatonStates);
+    }
+
+    @Override
+    public StringGenerator complement() {
+        return asRegexGenerator().complement();
+    }
+
+    @Override
+    public boolean isFinite() {
+        return getLastRange().max != null;
+    }
+
+    @Override
+    public long getValueCount() {
+        if (!isFinite()) {
+            throw new UnsupportedOperationException("Cannot count matches for a non-finite expression.");
+        }
+
+        return getMatchCountFromLength()[0];
+    }
+
+    @Override
+    public boolean match(String subject) {
+        return isPermittedLength(subject.length());
+    }
+
+    @Override
+    public Iterable<String> generateInterestingValues() {
+        if (!isFinite()) {
+            return asRegexGenerator().generateInterestingValues();
+        }
+
+        OptionalInt shortestLength = getPermittedLengths().findFirst();
+        if (!shortestLength.isPresent()) {
+            return Collections.emptySet();
+        }
+
+        String shortestString = repeat(PRINTABLE_CHARACTER, shortestLength.getAsInt());
+        String longestString = repeat(PRINTABLE_CHARACTER, getPermittedLengths().max().getAsInt());
+
+        return shortestString.equals(longestString)
+            ? Collections.singleton(shortestString)
+            : Arrays.asList(shortestString, longestString);
+    }
+
+    @Override
+    public Iterable<String> generateAllValues() {
+        if (!isFinite()) {
+            throw new UnsupportedOperationException("Can't generate all strings for a non-finite regex");
+        }
+
+        return () -> new Iterator<String>() {
+            private long nextIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return nextIndex < getValueCount();
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                return getValueAt(nextIndex++);
+            }
+        };
+    }
+
+    /**
+     * Get a value by its index among all the values, in the order they are produced by generateAllValues. The time
+     * taken is proportional to the length of the value.
+     */
+    public String getValueAt(long index) {
+        if (!isFinite()) {
+            throw new UnsupportedOperationException("Cannot index matches for a non-finite expression.");
+        }
+
+        long[] matchCountFromLength = getMatchCountFromLength();
+        if (index < 0 || index >= matchCountFromLength[0]) {
+            throw new IndexOutOfBoundsException("No string at index " + index);
+        }
+
+        char[] buffer = new char[getLastRange().max];
+        int length = 0;
+        while (true) {
+            if (isPermittedLength(length)) {
+                if (index == 0) {
+                    return new String(buffer, 0, length);
+                }
+                index--;
+            }
+
+            long matchesPerCharacter = matchCountFromLength[length + 1];
+            buffer[length++] = getCharacter((int) (index / matchesPerCharacter));
+            index %= matchesPerCharacter;
+        }
+    }
+
+    @Override
+    public Iterable<String> generateRandomValues(RandomNumberGenerator randomNumberGenerator) {
+        if (isFinite() && getValueCount() == 0) {
+            return Collections.emptySet();
+        }
+
+        if (uniformSampling && isFinite()) {
+            double[] cumulativeLengthProbability = getCumulativeLengthProbability();
+            return () -> {
+                CharacterBuffer buffer = createBuffer();
+                return new SupplierBasedIterator<>(
+                    () -> generateUniformRandomString(buffer, cumulativeLengthProbability, randomNumberGenerator));
+            };
+        }
+
+        return () -> {
+            CharacterBuffer buffer = createBuffer();
+            return new SupplierBasedIterator<>(() -> generateRandomString(buffer, randomNumberGenerator));
+        };
+    }
+
+    /**
+     * Random values are drawn evenly from all the strings when the lengths are bounded; otherwise they are drawn as
+     * before
+     */
+    @Override
+    public StringGenerator withUniformSampling() {
+        return new LengthRestrictedStringGenerator(ranges, regexRepresentation, true, maxAutomatonStates);
+    }
+
+    /**
+     * Produce a random string in the same way as a RegexStringGenerator would, i.e. after each permitted length there
+     * is a 30% chance of stopping
+     */
+    private String generateRandomString(CharacterBuffer buffer, RandomNumberGenerator randomNumberGenerator) {
+        Integer longestLength = getLastRange().max;
+        buffer.clear();
+
+        while (longestLength == null || buffer.length < longestLength) {
+            if (buffer.length > 0 && isPermittedLength(buffer.length) && randomNumberGenerator.nextInt() > STOP_THRESHOLD) {
+                break;
+            }
+
+            buffer.append(getCharacter(randomNumberGenerator.nextInt(CHARACTER_COUNT)));
+        }
+
+        return buffer.toString();
+    }
+
+    private String generateUniformRandomString(
+        CharacterBuffer buffer,
+        double[] cumulativeLengthProbability,
+        RandomNumberGenerator randomNumberGenerator) {
+        double draw = randomNumberGenerator.nextDouble(0, 1);
+        int length = 0;
+        while (cumulativeLengthProbability[length] <= draw) {
+            length++;
+        }
+
+        buffer.clear();
+        for (int index = 0; index < length; index++) {
+            buffer.append(getCharacter(randomNumberGenerator.nextInt(CHARACTER_COUNT)));
+        }
+
+        return buffer.toString();
+    }
+
+    private CharacterBuffer createBuffer() {
+        Integer longestLength = getLastRange().max;
+        return new CharacterBuffer(longestLength != null ? longestLength : ranges.get(0).min + 16);
+    }
+
+    /**
+     * @return for each length, the probability of a uniformly chosen string being at most that long. Calculated from
+     * the logarithms of the number of strings of each length, as those numbers soon overflow.
+     */
+    private double[] getCumulativeLengthProbability() {
+        int longestLength = getLastRange().max;
+        double logCharacterCount = Math.log(CHARACTER_COUNT);
+        double[] cumulativeLengthProbability = new double[longestLength + 1];
+
+        double total = 0;
+        for (int length = 0; length <= longestLength; length++) {
+            if (isPermittedLength(length)) {
+                total += Math.exp((length - longestLength) * logCharacterCount);
+            }
+            cumulativeLengthProbability[length] = total;
+        }
+
+        for (int length = 0; length <= longestLength; length++) {
+            cumulativeLengthProbability[length] /= total;
+        }
+        cumulativeLengthProbability[longestLength] = Double.POSITIVE_INFINITY;
+
+        return cumulativeLengthProbability;
+    }
+
+    /**
+     * @return for each length, the number of permitted strings that start with a given string of that length, capped
+     * at Long.MAX_VALUE
+     */
+    private long[] getMatchCountFromLength() {
+        if (matchCountFromLength == null) {
+            int longestLength = getLastRange().max;
+            long[] counts = new long[longestLength + 2];
+
+            for (int length = longestLength; length >= 0; length--) {
+                long count = multiplyCapped(CHARACTER_COUNT, counts[length + 1]);
+                counts[length] = isPermittedLength(length) ? addCapped(count, 1) : count;
+            }
+
+            matchCountFromLength = counts;
+        }
+
+        return matchCountFromLength;
+    }
+
+    private boolean isPermittedLength(int length) {
+        for (LengthRange range : ranges) {
+            if (range.contains(length)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return the permitted lengths of a finite generator, in order
+     */
+    private IntStream getPermittedLengths() {
+        return IntStream.rangeClosed(0, getLastRange().max).filter(this::isPermittedLength);
+    }
+
+    private LengthRange getLastRange() {
+        return ranges.get(ranges.size() - 1);
+    }
+
+    private static char getCharacter(int index) {
+        return index < LOW_CHARACTER_COUNT
+            ? (char) index
+            : (char) (FIRST_HIGH_CHARACTER + index - LOW_CHARACTER_COUNT);
+    }
+
+    private static String repeat(char character, int count) {
+        char[] characters = new char[count];
+        Arrays.fill(characters, character);
+        return new String(characters);
+    }
+
+    private static long addCapped(long left, long right) {
+        long sum = left + right;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long multiplyCapped(long left, long right) {
+        if (left != 0 && right > Long.MAX_VALUE / left) {
+            return Long.MAX_VALUE;
+        }
+
+        return left * right;
+    }
+
+    /**
+     * Find the ranges of lengths that are permitted between the shortest and longest length, skipping any excluded
+     * lengths
+     */
+    private static List<LengthRange> getPermittedLengths(int minLength, Integer maxLength, Set<Integer> excludedLengths) {
+        if ((maxLength != null && maxLength.equals(minLength)) || excludedLengths.isEmpty()) {
+            return Collections.singletonList(new LengthRange(minLength, maxLength));
+        }
+
+        List<Integer> orderedExcludedLengths = excludedLengths.stream().sorted().collect(Collectors.toList()); //ensure the excluded lengths are ordered
+        List<LengthRange> ranges = new ArrayList<>();
+        Integer lastExcludedLength = null;
+        for (int excludedLength : orderedExcludedLengths) {
+            if ((maxLength != null && excludedLength > maxLength) || excludedLength < minLength){
+                continue; //the excluded length is beyond the permitted length, ignore it
+            }
+            if (maxLength != null && excludedLength == maxLength){
+                maxLength--; //the excluded length is the same as the longest, reduce the max-length
+            }
+            if (excludedLength == minLength){
+                lastExcludedLength = excludedLength;
+                continue;
+            }
+
+            if (lastExcludedLength == null) {
+                if (minLength < excludedLength - 1) {
+                    ranges.add(new LengthRange(minLength, excludedLength - 1));
+                }
+            } else {
+                ranges.add(new LengthRange(lastExcludedLength + 1, excludedLength - 1));
+            }
+
+            lastExcludedLength = excludedLength;
+        }
+
+        if (ranges.isEmpty()) {
+            //if no lengths have been excluded, i.e. each excluded length is either > maxLength or
+            // the same maxLength -1 (at which point appropriateMaxLength will have been modified)
+            return Collections.singletonList(
+                new LengthRange(lastExcludedLength != null ? lastExcludedLength + 1 : minLength, maxLength));
+        }
+
+        if (maxLength != null && lastExcludedLength + 1 < maxLength - 1) {
+            ranges.add(new LengthRange(lastExcludedLength + 1, maxLength));
+        } else if (maxLength == null){
+            ranges.add(new LengthRange(lastExcludedLength + 1, null));
+        }
+
+        return ranges;
+    }
+
+    /**
+     * Produce a regular expression that permits any character, but restricts the length of the generated string
+     * Will either:
+     * 1. Return a regex like /.{nnn}/ where there is only one permitted length
+     * 2. Return a regex like /.{aaa,bbb}/ where aaa is the shortest length and bbb is the longest length
+     * 3. Return a regex like /.{0,aaa}|.{bbb,ccc}/ where
+     *      aaa is the last length before an excluded length
+     *      bbb is the first length after the previously excluded length
+     *      ccc is the appropriate maximum length for the string
+     */
+    private static String getRegex(List<LengthRange> ranges) {
+        if (ranges.size() == 1) {
+            LengthRange range = ranges.get(0);
+            return String.format(
+                "^%s$",
+                range.max != null && range.max == range.min
+                    ? String.format(".{%d}", range.min)
+                    : range.toString());
+        }
+
+        return ranges.stream()
+            .map(LengthRange::toString)
+            .collect(Collectors.joining("|", "^(", ")$"));
+    }
+
+    private static class LengthRange {
+        private final int min;
+        private final Integer max;
+
+        LengthRange(int min, Integer max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        boolean contains(int length) {
+            return length >= min && (max == null || length <= max);
+        }
+
+        Optional<LengthRange> intersect(LengthRange other) {
+            int min = Math.max(this.min, other.min);
+            Integer max = this.max == null
+                ? other.max
+                : other.max == null ? this.max : Integer.valueOf(Math.min(this.max, other.max));
+
+            return max != null && max < min
+                ? Optional.empty()
+                : Optional.of(new LengthRange(min, max));
+        }
+
+        @Override
+        public String toString() {
+            return max == null
+                ? String.format(".{%d,}", min)
+                : String.format(".{%d,%d}", min, max);
+        }
+    }
+
+    /**
+     * A buffer that random strings are written into, reused for each string produced by an iterator
+     */
+    private static class CharacterBuffer {
+        private char[] characters;
+        private int length;
+
+        CharacterBuffer(int capacity) {
+            this.characters = new char[Math.max(capacity, 1)];
+        }
+
+        void clear() {
+            length = 0;
+        }
+
+        void append(char character) {
+            if (length == characters.length) {
+                characters = Arrays.copyOf(characters, length * 2);
+            }
+            characters[length++] = character;
+        }
+
+        @Override
+        public String toString() {
+            return new String(characters, 0, length);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LengthRestrictedStringGenerator that = (LengthRestrictedStringGenerator) o;
+        return regexRepresentation.equals(that.regexRepresentation);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(regexRepresentation, getClass());
+    }
+}
@@ -1,6 +1,8 @@
 package com.scottlogic.deg.generator.generation.string;
 
+import com.scottlogic.deg.common.util.Defaults;
 import com.scottlogic.deg.generator.utils.JavaUtilRandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.LruCache;
 import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
 import com.scottlogic.deg.generator.utils.SupplierBasedIterator;
 import dk.brics.automaton.Automaton;
@@ -13,38 +15,79 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class RegexStringGenerator implements StringGenerator {
+    private static final int AUTOMATON_CACHE_SIZE = 1_000;
 
     /**
-     * Cache of all matching regex automatons, keyed on their regex
+     * Automatons combined by union with more states than this are minimised straight away. Intersected and
+     * complemented automatons are always minimised, see share()
      */
-    private static final Map<String, Automaton> matchingRegexAutomatonCache = new HashMap<>();
+    private static final int MINIMISATION_THRESHOLD = 100;
 
     /**
-     * Cache of all containing regex automatons, keyed on their regex
+     * Cache of regex automatons, keyed on their regex and whether it must match the full string
      */
-    private static final Map<String, Automaton> containingRegexAutomatonCache = new HashMap<>();
+    private static final LruCache<RegexKey, Automaton> regexAutomatonCache = new LruCache<>(AUTOMATON_CACHE_SIZE);
+
+    /**
+     * Cache of intersected automatons, keyed on the identity of the two automatons intersected and the state limit
+     * they were intersected under
+     */
+    private static final LruCache<AutomatonPair, Automaton> intersectionCache = new LruCache<>(AUTOMATON_CACHE_SIZE);
+
+    /**
+     * Cache of complemented automatons, keyed on the identity of the automaton complemented and the state limit it
+     * was complemented under
+     */
+    private static final LruCache<AutomatonPair, Automaton> complementCache = new LruCache<>(AUTOMATON_CACHE_SIZE);
+
+    /**
+     * Cache of the compiled forms of automatons used for random generation, keyed on the identity of the automaton
+     */
+    private static final LruCache<AutomatonPair, CompiledAutomaton> compiledAutomatonCache = new LruCache<>(AUTOMATON_CACHE_SIZE);
 
     private Automaton automaton;
-    private Node rootNode;
-    private boolean isRootNodeBuilt;
-    private int preparedTransactionNode;
     private final String regexRepresentation;
+    private final boolean uniformSampling;
+
+    /**
+     * The most states an automaton combined from this generator may have before generation is stopped. Generators
+     * combined from this one keep the same limit.
+     */
+    private final int maxAutomatonStates;
 
-    private RegexStringGenerator(Automaton automaton, String regexRepresentation) {
+    private RegexStringGenerator(Automaton automaton, String regexRepresentation, int maxAutomatonStates) {
+        this(automaton, regexRepresentation, false, maxAutomatonStates);
+    }
+
+    private RegexStringGenerator(
+        Automaton automaton,
+        String regexRepresentation,
+        boolean uniformSampling,
+        int maxAutomatonStates) {
         this.automaton = automaton;
         this.regexRepresentation = regexRepresentation;
+        this.uniformSampling = uniformSampling;
+        this.maxAutomatonStates = maxAutomatonStates;
     }
 
     public RegexStringGenerator(String regexStr, boolean matchFullString) {
-        Map<String, Automaton> cache = matchFullString ? matchingRegexAutomatonCache : containingRegexAutomatonCache;
-        Automaton generatedAutomaton = cache.containsKey(regexStr)
-            ? cache.get(regexStr)
-            : AutomatonUtils.createAutomaton(regexStr, matchFullString, cache);
+        this(regexStr, matchFullString, Defaults.DEFAULT_MAX_AUTOMATON_STATES);
+    }
+
+    /**
+     * @param maxAutomatonStates the most states an automaton combined from this generator may have
+     */
+    public RegexStringGenerator(String regexStr, boolean matchFullString, int maxAutomatonStates) {
+        Automaton generatedAutomaton = regexAutomatonCache.computeIfAbsent(
+            new RegexKey(regexStr, matchFullString),
+            key -> share(AutomatonUtils.createAutomaton(regexStr, matchFullString)));
 
         String prefix = matchFullString ? "" : "*";
         String suffix = matchFullString ? "" : "*";
         this.regexRepresentation = String.format("%s/%s/%s", prefix, regexStr, suffix);
         this.automaton = generatedAutomaton;
+        this.uniformSampling = false;
+        this.maxAutomatonStates = maxAutomatonStates;
     }
 
     @Override
@@ -64,7 +107,10 @@ public class RegexStringGenerator implements StringGenerator {
         String[] blacklistStrings = blacklist.stream().map(Object::toString).toArray(String[]::new);
         Automaton automaton = Automaton.makeStringUnion(blacklistStrings).complement();
 
-        return new RegexStringGenerator(automaton, String.format("NOT-IN %s", Objects.toString(blacklist)));
+        return new RegexStringGenerator(
+            automaton,
+            String.format("NOT-IN %s", Objects.toString(blacklist)),
+            Defaults.DEFAULT_MAX_AUTOMATON_STATES);
     }
 
     @Override
@@ -79,12 +125,18 @@ public class RegexStringGenerator implements StringGenerator {
 
         RegexStringGenerator otherRegexGenerator = (RegexStringGenerator) otherGenerator;
         Automaton b = otherRegexGenerator.automaton;
-        Automaton merged = automaton.intersection(b);
         String mergedRepresentation = intersectRepresentation(
             this.regexRepresentation,
             otherRegexGenerator.regexRepresentation);
-
-        return new RegexStringGenerator(merged, mergedRepresentation);
+        Automaton merged = intersectionCache.computeIfAbsent(
+            new AutomatonPair(automaton, b, maxAutomatonStates),
+            key -> share(BoundedAutomatonOperations.intersection(
+                automaton,
+                b,
+                maxAutomatonStates,
+                mergedRepresentation)));
+
+        return new RegexStringGenerator(merged, mergedRepresentation, maxAutomatonStates);
     }
 
     public RegexStringGenerator union(RegexStringGenerator otherGenerator) {
@@ -94,14 +146,71 @@ public class RegexStringGenerator implements StringGenerator {
             this.regexRepresentation,
             otherGenerator.regexRepresentation
         );
-        return new RegexStringGenerator(merged, mergedRepresentation);
+
+        // the union itself only adds a state; it is determinising it, to minimise it, that could use up the heap
+        if (merged.getNumberOfStates() > MINIMISATION_THRESHOLD) {
+            merged = BoundedAutomatonOperations.determinise(merged, maxAutomatonStates, mergedRepresentation);
+            merged.minimize();
+        }
+
+        return new RegexStringGenerator(
+            BoundedAutomatonOperations.checkSize(merged, maxAutomatonStates, mergedRepresentation),
+            mergedRepresentation,
+            maxAutomatonStates);
     }
 
     @Override
     public StringGenerator complement() {
-        return new RegexStringGenerator(
-            this.automaton.clone().complement(),
-            complementaryRepresentation(this.regexRepresentation));
+        String complementRepresentation = complementaryRepresentation(this.regexRepresentation);
+        Automaton complement = complementCache.computeIfAbsent(
+            new AutomatonPair(automaton, automaton, maxAutomatonStates),
+            key -> {
+                // complementing a deterministic automaton only adds a state, so determinise it within the limit first
+                Automaton deterministic = BoundedAutomatonOperations.determinise(
+                    automaton.clone(),
+                    maxAutomatonStates,
+                    complementRepresentation);
+                return BoundedAutomatonOperations.checkSize(
+                    share(deterministic.complement()),
+                    maxAutomatonStates,
+                    complementRepresentation);
+            });
+
+        return new RegexStringGenerator(complement, complementRepresentation, maxAutomatonStates);
+    }
+
+    /**
+     * Prepare an automaton to be cached and shared between generators, and so between threads.
+     * Automaton.hashCode() and equals() minimise and determinise the automaton in place the first time they are
+     * called, and reading the states of a singleton automaton expands it, so that is done here, before the automaton
+     * is shared, rather than by whichever thread gets there first. Automatons built by combining others are made
+     * deterministic within their state limit first, so minimising them can't make them any larger.
+     */
+    private static Automaton share(Automaton automaton) {
+        automaton.expandSingleton();
+        automaton.minimize();
+        return automaton;
+    }
+
+    /**
+     * @return the hits, misses and evictions of the cache of regex automatons
+     */
+    public static LruCache<?, ?> getRegexAutomatonCache() {
+        return regexAutomatonCache;
+    }
+
+    /**
+     * @return the hits, misses and evictions of the cache of intersected automatons
+     */
+    public static LruCache<?, ?> getIntersectionCache() {
+        return intersectionCache;
+    }
+
+    /**
+     * @return the hits, misses and evictions of the cache of complemented automatons
+     */
+    public static LruCache<?, ?> getComplementCache() {
+        return complementCache;
     }
 
     private static String complementaryRepresentation(String representation) {
@@ -144,7 +253,7 @@ public class RegexStringGenerator implements StringGenerator {
     @Override
     public Iterable<String> generateAllValues() {
         if (this.isFinite()) {
-            return () -> new RegexStringGenerator.FiniteStringAutomatonIterator(this);
+            return () -> getCompiledAutomaton().iterateMatches(0);
         }
 
         // TODO: Assess whether we can do better here. Is it unacceptable to just generate indefinitely?
@@ -154,317 +263,59 @@ public class RegexStringGenerator implements StringGenerator {
 
     @Override
     public Iterable<String> generateRandomValues(RandomNumberGenerator randomNumberGenerator) {
-        return () -> new SupplierBasedIterator<>(
-            () -> generateRandomStringInternal(
-                "",
-                automaton.getInitialState(),
-                1,
-                Integer.MAX_VALUE,
-                randomNumberGenerator));
-    }
+        CompiledAutomaton compiledAutomaton = getCompiledAutomaton();
 
-    @Override
-    public long getValueCount() {
-        if (!this.isFinite()) {
-            throw new UnsupportedOperationException("Cannot count matches for a non-finite expression.");
+        if (uniformSampling && compiledAutomaton.canSampleUniformly()) {
+            return () -> new SupplierBasedIterator<>(
+                () -> compiledAutomaton.generateUniformRandomString(randomNumberGenerator));
         }
 
-        buildRootNode();
-
-        if (rootNode.nextNodes.isEmpty()) {
-            return 0L;
-        }
-
-        return rootNode.matchedStringIdx;
+        return () -> new SupplierBasedIterator<>(
+            () -> compiledAutomaton.generateRandomString(randomNumberGenerator));
     }
 
+    /**
+     * Random values are drawn evenly from all the matching strings when there are a finite number of them; otherwise
+     * they are drawn as before
+     */
     @Override
-    public boolean match(String subject) {
-
-        return automaton.run(subject);
-
-    }
-
-    private String generateRandomStringInternal(
-        String strMatch,
-        State state,
-        int minLength,
-        int maxLength,
-        RandomNumberGenerator random) {
-
-        List<Transition> transitions = state.getSortedTransitions(false);
-        Set<Integer> selectedTransitions = new HashSet<>();
-        String result = strMatch;
-
-        for (int resultLength = -1;
-             transitions.size() > selectedTransitions.size()
-                 && (resultLength < minLength || resultLength > maxLength);
-             resultLength = result.length()) {
-
-            if (randomPrepared(strMatch, state, minLength, maxLength, transitions, random)) {
-                return strMatch;
-            }
-
-            int nextInt = random.nextInt(transitions.size());
-            if (!selectedTransitions.contains(nextInt)) {
-                selectedTransitions.add(nextInt);
-
-
-                /**
-                 * <p>
-                 * We have to surround this functionality in a loop checking for invalid
-                 * UTF-8 characters until the automaton library is updated.
-                 * </p>
-                 * <p>
-                 * FIXME - This check will be removed if/when the dk.brics.automaton
-                 * library is fixed to support surrogate pairs,
-                 * </p>
-                 * <p>
-                 * issue #15 (https://github.com/cs-au-dk/dk.brics.automaton/issues/15)
-                 * has been raised on the dk.brics.automaton library
-                 * </p>
-                 * <p>
-                 * issue #537 has been created to track when the dk.brics.automaton library
-                 * is updated.
-                 * </p>
-                 */
-                Transition randomTransition;
-                char randomChar;
-                do {
-                    randomTransition = transitions.get(nextInt);
-                    int diff = randomTransition.getMax() - randomTransition.getMin() + 1;
-                    int randomOffset = diff > 0 ? random.nextInt(diff) : diff;
-                    randomChar = (char) (randomOffset + randomTransition.getMin());
-                } while (!StringUtils.isCharValidUtf8(randomChar));
-                result = generateRandomStringInternal(
-                    strMatch + randomChar,
-                    randomTransition.getDest(),
-                    minLength,
-                    maxLength,
-                    random);
-            }
-        }
-
-        return result;
-    }
-
-    private boolean randomPrepared(
-        String strMatch,
-        State state,
-        int minLength,
-        int maxLength,
-        List<Transition> transitions,
-        RandomNumberGenerator random) {
-
-        if (state.isAccept()) {
-            if (strMatch.length() == maxLength) {
-                return true;
-            }
-            if (random.nextInt() > 0.3 * Integer.MAX_VALUE && strMatch.length() >= minLength) {
-                return true;
-            }
-        }
-
-        return transitions.isEmpty();
-    }
-
-    private String buildStringFromNode(Node node, int indexOrder) {
-        String result = "";
-        long passedStringNbr = 0;
-        long step = node.getMatchedStringIdx() / node.getNbrChar();
-        for (char usedChar = node.getMinChar(); usedChar <= node.getMaxChar(); ++usedChar) {
-            passedStringNbr += step;
-            if (passedStringNbr >= indexOrder) {
-                passedStringNbr -= step;
-                indexOrder -= passedStringNbr;
-                result = result.concat("" + usedChar);
-                break;
-            }
-        }
-        long passedStringNbrInChildNode = 0;
-        if (result.length() == 0) {
-            passedStringNbrInChildNode = passedStringNbr;
-        }
-        for (Node childN : node.getNextNodes()) {
-            passedStringNbrInChildNode += childN.getMatchedStringIdx();
-            if (passedStringNbrInChildNode >= indexOrder) {
-                passedStringNbrInChildNode -= childN.getMatchedStringIdx();
-                indexOrder -= passedStringNbrInChildNode;
-                result = result.concat(buildStringFromNode(childN, indexOrder));
-                break;
-            }
-        }
-        return result;
+    public StringGenerator withUniformSampling() {
+        return new RegexStringGenerator(automaton, regexRepresentation, true, maxAutomatonStates);
     }
 
-    private void buildRootNode() {
-
-        if (isRootNodeBuilt) {
-            return;
+    @Override
+    public long getValueCount() {
+        if (!this.isFinite()) {
+            throw new UnsupportedOperationException("Cannot count matches for a non-finite expression.");
         }
-        isRootNodeBuilt = true;
 
-        rootNode = new Node();
-        List<Node> nextNodes = prepareTransactionNodes(automaton.getInitialState());
-        rootNode.setNextNodes(nextNodes);
-        rootNode.updateMatchedStringIdx();
+        return getCompiledAutomaton().getMatchCount();
     }
 
-    private List<Node> prepareTransactionNodes(State state) {
-
-        List<Node> transactionNodes = new ArrayList<>();
-        if (preparedTransactionNode == Integer.MAX_VALUE / 2) {
-            return transactionNodes;
+    /**
+     * Get a value by its index among all the values of a finite regex, in the order they are produced by
+     * generateAllValues. The time taken is proportional to the length of the value, not the index, so enumeration of
+     * large regexes can be split up or resumed.
+     */
+    public String getValueAt(long index) {
+        if (!this.isFinite()) {
+            throw new UnsupportedOperationException("Cannot index matches for a non-finite expression.");
         }
-        ++preparedTransactionNode;
 
-        if (state.isAccept()) {
-            Node acceptedNode = new Node();
-            acceptedNode.setNbrChar(1);
-            transactionNodes.add(acceptedNode);
-        }
-        List<Transition> transitions = state.getSortedTransitions(true);
-
-        for (Transition transition : transitions) {
-            Node trsNode = new Node();
-            int nbrChar = transition.getMax() - transition.getMin() + 1;
-            trsNode.setNbrChar(nbrChar);
-            trsNode.setMaxChar(transition.getMax());
-            trsNode.setMinChar(transition.getMin());
-            List<Node> nextNodes = prepareTransactionNodes(transition.getDest());
-            trsNode.setNextNodes(nextNodes);
-            transactionNodes.add(trsNode);
-        }
-        return transactionNodes;
+        return getCompiledAutomaton().getMatch(index);
     }
 
-    private class Node {
-        private int nbrChar = 1;
-        private List<Node> nextNodes = new ArrayList<>();
-        private boolean isNbrMatchedStringUpdated;
-        private long matchedStringIdx = 0;
-        private char minChar;
-        private char maxChar;
-
-        int getNbrChar() {
-            return nbrChar;
-        }
-
-        void setNbrChar(int nbrChar) {
-            this.nbrChar = nbrChar;
-        }
-
-        List<Node> getNextNodes() {
-            return nextNodes;
-        }
-
-        void setNextNodes(List<Node> nextNodes) {
-            this.nextNodes = nextNodes;
-        }
-
-        void updateMatchedStringIdx() {
-            if (isNbrMatchedStringUpdated) {
-                return;
-            }
-            if (nextNodes.isEmpty()) {
-                matchedStringIdx = nbrChar;
-            } else {
-                for (Node childNode : nextNodes) {
-                    childNode.updateMatchedStringIdx();
-                    long childNbrChar = childNode.getMatchedStringIdx();
-                    matchedStringIdx += nbrChar * childNbrChar;
-                }
-            }
-            isNbrMatchedStringUpdated = true;
-        }
-
-        long getMatchedStringIdx() {
-            return matchedStringIdx;
-        }
-
-        char getMinChar() {
-            return minChar;
-        }
-
-        void setMinChar(char minChar) {
-            this.minChar = minChar;
-        }
-
-        char getMaxChar() {
-            return maxChar;
-        }
-
-        void setMaxChar(char maxChar) {
-            this.maxChar = maxChar;
-        }
+    private CompiledAutomaton getCompiledAutomaton() {
+        return compiledAutomatonCache.computeIfAbsent(
+            new AutomatonPair(automaton, automaton, 0),
+            key -> CompiledAutomaton.compile(automaton));
     }
 
-    private class FiniteStringAutomatonIterator implements Iterator<String> {
-
-        private final long matches;
-        private int currentIndex;
-        private String currentValue;
-
-        FiniteStringAutomatonIterator(RegexStringGenerator stringGenerator) {
-            this.matches = stringGenerator.getValueCount();
-            currentIndex = 0;
-        }
-
-        /**
-         * <p>
-         * This function has been updated to only allow valid single 16-bit
-         * word UTF-8 characters to be output.
-         * </p>
-         * <p>
-         * FIXME - This check will be removed if/when the dk.brics.automaton
-         * library is fixed to support surrogate pairs,
-         * </p>
-         * <p>
-         * issue #15 (https://github.com/cs-au-dk/dk.brics.automaton/issues/15)
-         * has been raised on the dk.brics.automaton library
-         * </p>
-         * <p>
-         * issue #537 has been created to track when the dk.brics.automaton library
-         * is updated.
-         * </p>
-         *
-         * @return true if another value is available, false if all valid values have been read.
-         */
-        @Override
-        public boolean hasNext() {
-            if (currentValue != null) {
-                return true;
-            }
-            do {
-                currentIndex++; // starts at 1
-                if (currentIndex > matches) {
-                    return false;
-                }
-                currentValue = getMatchedString(currentIndex);
-            } while (!StringUtils.isStringValidUtf8(currentValue));
-            return currentValue != null;
-        }
-
-        private String getMatchedString(int indexOrder) {
-            buildRootNode();
-            if (indexOrder < 1) {
-                throw new IllegalArgumentException("indexOrder must be >= 1");
-            }
+    @Override
+    public boolean match(String subject) {
 
-            if (indexOrder > rootNode.matchedStringIdx) {
-                return null;
-            }
-            String result = buildStringFromNode(rootNode, indexOrder);
-            result = result.substring(1, result.length() - 1);
-            return result;
-        }
+        return automaton.run(subject);
 
-        @Override
-        public String next() {
-            String result = currentValue;
-            currentValue = null;
-            return result;
-        }
     }
 
     public boolean equals(Object o) {
@@ -501,5 +352,61 @@ public class RegexStringGenerator implements StringGenerator {
             return union;
         }
     }
-}
 
+    private static class RegexKey {
+        private final String regex;
+        private final boolean matchFullString;
+
+        RegexKey(String regex, boolean matchFullString) {
+            this.regex = regex;
+            this.matchFullString = matchFullString;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            RegexKey that = (RegexKey) o;
+            return matchFullString == that.matchFullString &&
+                regex.equals(that.regex);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(regex, matchFullString);
+        }
+    }
+
+    /**
+     * A pair of automatons, compared by identity and regardless of order, as intersection is commutative.
+     * Automaton.equals() compares the languages of the automatons, which is too expensive for a cache key.
+     *
+     * The state limit the automatons are combined under is part of the key, so a result combined under a higher
+     * limit is never handed to a generator with a lower one.
+     */
+    private static class AutomatonPair {
+        private final Automaton left;
+        private final Automaton right;
+        private final int maxStates;
+
+        AutomatonPair(Automaton left, Automaton right, int maxStates) {
+            this.left = left;
+            this.right = right;
+            this.maxStates = maxStates;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            AutomatonPair that = (AutomatonPair) o;
+            return maxStates == that.maxStates
+                && ((left == that.left && right == that.right) || (left == that.right && right == that.left));
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(left) + System.identityHashCode(right) + maxStates;
+        }
+    }
+}
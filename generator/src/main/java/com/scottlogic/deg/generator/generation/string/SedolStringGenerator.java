@@ -7,7 +7,7 @@ public class SedolStringGenerator extends ChecksummedCodeStringGenerator {
     public final static String STANDARD_REGEX_REPRESENTATION = "[B-DF-HJ-NP-TV-Z0-9]{6}[0-9]";
 
     public SedolStringGenerator() {
-        super(STANDARD_REGEX_REPRESENTATION, SEDOL_LENGTH, 0);
+        super(STANDARD_REGEX_REPRESENTATION, SEDOL_LENGTH);
     }
 
     public SedolStringGenerator(String prefix) { this(prefix, ""); }
@@ -24,8 +24,8 @@ public class SedolStringGenerator extends ChecksummedCodeStringGenerator {
         super(sedolGenerator, false, SEDOL_LENGTH, 0);
     }
 
-    private SedolStringGenerator(RegexStringGenerator sedolGenerator, boolean negate) {
-        super(sedolGenerator, negate, SEDOL_LENGTH, 0);
+    private SedolStringGenerator(RegexStringGenerator sedolGenerator, boolean negate, boolean isUnrestricted) {
+        super(sedolGenerator, negate, isUnrestricted, SEDOL_LENGTH, 0);
     }
 
     @Override
@@ -35,6 +35,11 @@ public class SedolStringGenerator extends ChecksummedCodeStringGenerator {
         );
     }
 
+    @Override
+    String generateRandomCode(RandomNumberGenerator randomNumberGenerator) {
+        return FinancialCodeUtils.generateRandomSedol(randomNumberGenerator);
+    }
+
     @Override
     public int getLength() {
         return SEDOL_LENGTH;
@@ -42,7 +47,7 @@ public class SedolStringGenerator extends ChecksummedCodeStringGenerator {
 
     @Override
     public StringGenerator complement() {
-        return new SedolStringGenerator(regexGenerator, !negate);
+        return new SedolStringGenerator(regexGenerator, !negate, isUnrestricted);
     }
 
     @Override
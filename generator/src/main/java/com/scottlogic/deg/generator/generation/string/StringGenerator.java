@@ -18,6 +18,14 @@ public interface StringGenerator {
 
     Iterable<String> generateRandomValues(RandomNumberGenerator randomNumberGenerator);
 
+    /**
+     * @return a generator for the same strings, whose random values are drawn evenly from all of its strings where
+     * that is possible
+     */
+    default StringGenerator withUniformSampling() {
+        return this;
+    }
+
     default FieldValueSource asFieldValueSource() {
         return new StringGeneratorAsFieldValueSource(this);
     }
@@ -0,0 +1,41 @@
+package com.scottlogic.deg.generator.guice;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.scottlogic.deg.generator.config.detail.DataGenerationType;
+import com.scottlogic.deg.generator.config.detail.TreeWalkerType;
+import com.scottlogic.deg.generator.generation.GenerationConfigSource;
+import com.scottlogic.deg.generator.generation.batches.*;
+import com.scottlogic.deg.generator.generation.combinationstrategies.CombinationStrategy;
+
+/**
+ * Chooses the batch equivalent of the CombinationStrategy that CombinationStrategyProvider would choose
+ */
+public class BatchCombinationStrategyProvider implements Provider<BatchCombinationStrategy> {
+    private final GenerationConfigSource config;
+    private final Provider<CombinationStrategy> combinationStrategy;
+
+    @Inject
+    public BatchCombinationStrategyProvider(GenerationConfigSource config, Provider<CombinationStrategy> combinationStrategy){
+        this.config = config;
+        this.combinationStrategy = combinationStrategy;
+    }
+
+    @Override
+    public BatchCombinationStrategy get() {
+        if (config.getGenerationType() == DataGenerationType.RANDOM){
+            return new MinimalBatchCombinationStrategy();
+        }
+
+        if (config.getWalkerType() == TreeWalkerType.REDUCTIVE){
+            return new CartesianBatchCombinationStrategy(config.getMaxCachedRowsPerPartition());
+        }
+
+        switch(config.getCombinationStrategyType()){
+            case EXHAUSTIVE: return new CartesianBatchCombinationStrategy(config.getMaxCachedRowsPerPartition());
+            case MINIMAL: return new MinimalBatchCombinationStrategy();
+            default:
+                return new RowByRowBatchCombinationStrategy(combinationStrategy.get());
+        }
+    }
+}
@@ -24,11 +24,11 @@ public class CombinationStrategyProvider  implements Provider<CombinationStrateg
         }
 
         if (config.getWalkerType() == TreeWalkerType.REDUCTIVE){
-            return new ReductiveCombinationStrategy();
+            return new ReductiveCombinationStrategy(config.getMaxCachedRowsPerPartition());
         }
 
         switch(config.getCombinationStrategyType()){
-            case EXHAUSTIVE: return new ExhaustiveCombinationStrategy();
+            case EXHAUSTIVE: return new ExhaustiveCombinationStrategy(config.getMaxCachedRowsPerPartition());
             case PINNING: return new PinningCombinationStrategy();
             case MINIMAL: return new MinimalCombinationStrategy();
             default:
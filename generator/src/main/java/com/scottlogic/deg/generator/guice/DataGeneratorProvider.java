@@ -0,0 +1,33 @@
+package com.scottlogic.deg.generator.guice;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.scottlogic.deg.generator.config.detail.GenerationEngineType;
+import com.scottlogic.deg.generator.generation.BatchDecisionTreeDataGenerator;
+import com.scottlogic.deg.generator.generation.DataGenerator;
+import com.scottlogic.deg.generator.generation.DecisionTreeDataGenerator;
+import com.scottlogic.deg.generator.generation.GenerationConfigSource;
+
+public class DataGeneratorProvider implements Provider<DataGenerator> {
+    private final GenerationConfigSource configSource;
+    private final Provider<DecisionTreeDataGenerator> streamingGenerator;
+    private final Provider<BatchDecisionTreeDataGenerator> batchGenerator;
+
+    @Inject
+    public DataGeneratorProvider(
+        GenerationConfigSource configSource,
+        Provider<DecisionTreeDataGenerator> streamingGenerator,
+        Provider<BatchDecisionTreeDataGenerator> batchGenerator) {
+        this.configSource = configSource;
+        this.streamingGenerator = streamingGenerator;
+        this.batchGenerator = batchGenerator;
+    }
+
+    @Override
+    public DataGenerator get() {
+        if (configSource.getGenerationEngineType() == GenerationEngineType.BATCH) {
+            return batchGenerator.get();
+        }
+        return streamingGenerator.get();
+    }
+}
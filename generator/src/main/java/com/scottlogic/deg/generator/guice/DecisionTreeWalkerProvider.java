@@ -5,11 +5,17 @@ import com.google.inject.Provider;
 import com.scottlogic.deg.generator.config.detail.DataGenerationType;
 import com.scottlogic.deg.generator.generation.GenerationConfigSource;
 import com.scottlogic.deg.generator.walker.*;
+import com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy.FixFieldStrategyFactory;
+
+import java.util.concurrent.*;
 
 public class DecisionTreeWalkerProvider implements Provider<DecisionTreeWalker> {
-    private final DecisionTreeWalker reductiveDecisionTreeWalker;
+    private static final long IDLE_PARTITION_THREAD_TIMEOUT_SECONDS = 1;
+
+    private final ReductiveDecisionTreeWalker reductiveDecisionTreeWalker;
     private final DecisionTreeWalker cartesianProductDecisionTreeWalker;
     private final RandomReductiveDecisionTreeWalker randomReductiveDecisionTreeWalker;
+    private final FixFieldStrategyFactory fixFieldStrategyFactory;
     private final GenerationConfigSource configSource;
 
     @Inject
@@ -17,15 +23,48 @@ public class DecisionTreeWalkerProvider implements Provider<DecisionTreeWalker>
         ReductiveDecisionTreeWalker reductiveDecisionTreeWalker,
         CartesianProductDecisionTreeWalker cartesianProductDecisionTreeWalker,
         RandomReductiveDecisionTreeWalker randomReductiveDecisionTreeWalker,
+        FixFieldStrategyFactory fixFieldStrategyFactory,
         GenerationConfigSource configSource) {
         this.reductiveDecisionTreeWalker = reductiveDecisionTreeWalker;
         this.cartesianProductDecisionTreeWalker = cartesianProductDecisionTreeWalker;
         this.randomReductiveDecisionTreeWalker = randomReductiveDecisionTreeWalker;
+        this.fixFieldStrategyFactory = fixFieldStrategyFactory;
         this.configSource = configSource;
     }
 
     @Override
     public DecisionTreeWalker get() {
+        DecisionTreeWalker walker = getWalkerForType();
+
+        int partitionThreadCount = this.configSource.getPartitionThreadCount();
+        if (partitionThreadCount <= 1) {
+            return walker;
+        }
+
+        return new ConcurrentDecisionTreeWalker(
+            walker,
+            createPartitionExecutor(partitionThreadCount),
+            ConcurrentDecisionTreeWalker.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Nothing owns the walker once it has been provided, so the executor is never shut down; instead its threads stop
+     * once they have been idle for a second, when generation has finished or is waiting for its output. Threads are
+     * started again as partitions need them.
+     */
+    private static ExecutorService createPartitionExecutor(int threadCount) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threadCount,
+            threadCount,
+            IDLE_PARTITION_THREAD_TIMEOUT_SECONDS,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            daemonThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private DecisionTreeWalker getWalkerForType() {
           switch(this.configSource.getWalkerType()) {
               case CARTESIAN_PRODUCT:
                   return this.cartesianProductDecisionTreeWalker;
@@ -34,10 +73,27 @@ public class DecisionTreeWalkerProvider implements Provider<DecisionTreeWalker>
                   if (this.configSource.getGenerationType() == DataGenerationType.RANDOM)
                       return this.randomReductiveDecisionTreeWalker;
 
+                  if (this.configSource.getWalkerThreadCount() > 1)
+                      return new ParallelReductiveDecisionTreeWalker(
+                          this.reductiveDecisionTreeWalker,
+                          this.fixFieldStrategyFactory,
+                          this.configSource.getWalkerThreadCount(),
+                          !this.configSource.allowUnorderedRows());
+
                   return this.reductiveDecisionTreeWalker;
 
               default:
                   return this.reductiveDecisionTreeWalker;
         }
     }
+
+    private static ThreadFactory daemonThreadFactory() {
+        // a partition walker may still be producing a row once enough rows have been emitted, it must not keep the
+        // process running until its thread times out
+        return runnable -> {
+            Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
 }
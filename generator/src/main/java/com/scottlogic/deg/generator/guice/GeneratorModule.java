@@ -9,10 +9,13 @@ import com.scottlogic.deg.generator.decisiontree.MaxStringLengthInjectingDecisio
 import com.scottlogic.deg.generator.decisiontree.treepartitioning.TreePartitioner;
 import com.scottlogic.deg.generator.generation.*;
 import com.scottlogic.deg.generator.config.detail.DataGenerationType;
+import com.scottlogic.deg.generator.config.detail.StringSamplingType;
+import com.scottlogic.deg.generator.generation.batches.BatchCombinationStrategy;
 import com.scottlogic.deg.generator.generation.combinationstrategies.CombinationStrategy;
 import com.scottlogic.deg.generator.generation.databags.RowSpecDataBagGenerator;
 import com.scottlogic.deg.generator.inputs.validation.ProfileValidator;
-import com.scottlogic.deg.generator.utils.JavaUtilRandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.RandomStreams;
 import com.scottlogic.deg.generator.walker.DecisionTreeWalker;
 import com.scottlogic.deg.generator.walker.reductive.IterationVisualiser;
 
@@ -44,21 +47,29 @@ public class GeneratorModule extends AbstractModule {
         bind(ReductiveDataGeneratorMonitor.class).toProvider(MonitorProvider.class).in(Singleton.class);
         bind(IterationVisualiser.class).toProvider(IterationVisualiserProvider.class);
         bind(CombinationStrategy.class).toProvider(CombinationStrategyProvider.class);
+        bind(BatchCombinationStrategy.class).toProvider(BatchCombinationStrategyProvider.class);
+        bind(DataGenerator.class).toProvider(DataGeneratorProvider.class);
 
         // bind config directly
         bind(DataGenerationType.class).toInstance(generationConfigSource.getGenerationType());
+        bind(StringSamplingType.class).toInstance(generationConfigSource.getStringSamplingType());
 
         bind(long.class)
             .annotatedWith(Names.named("config:maxRows"))
             .toInstance(generationConfigSource.getMaxRows());
 
+        bind(int.class)
+            .annotatedWith(Names.named("config:maxAutomatonStates"))
+            .toInstance(generationConfigSource.getMaxAutomatonStates());
+
         // Bind known implementations - no user input required
         bind(DataGeneratorMonitor.class).to(ReductiveDataGeneratorMonitor.class);
-        bind(DataGenerator.class).to(DecisionTreeDataGenerator.class);
         bind(DecisionTreeFactory.class).to(MaxStringLengthInjectingDecisionTreeFactory.class);
         bind(FieldValueSourceEvaluator.class).to(StandardFieldValueSourceEvaluator.class);
 
-        bind(JavaUtilRandomNumberGenerator.class)
-            .toInstance(new JavaUtilRandomNumberGenerator(OffsetDateTime.now().getNano()));
+        RandomStreams randomStreams = new RandomStreams(
+            generationConfigSource.getSeed().orElseGet(() -> (long) OffsetDateTime.now().getNano()));
+        bind(RandomStreams.class).toInstance(randomStreams);
+        bind(RandomNumberGenerator.class).toInstance(randomStreams);
     }
 }
@@ -1,9 +1,27 @@
 package com.scottlogic.deg.generator.restrictions;
 
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+import com.scottlogic.deg.common.util.Defaults;
+
 import java.util.Collections;
 import java.util.regex.Pattern;
 
 public class StringRestrictionsFactory {
+    private final int maxAutomatonStates;
+
+    public StringRestrictionsFactory() {
+        this(Defaults.DEFAULT_MAX_AUTOMATON_STATES);
+    }
+
+    /**
+     * @param maxAutomatonStates the most states an automaton combined from the regex restrictions may have
+     */
+    @Inject
+    public StringRestrictionsFactory(@Named("config:maxAutomatonStates") int maxAutomatonStates) {
+        this.maxAutomatonStates = maxAutomatonStates;
+    }
+
     public StringRestrictions forStringMatching(Pattern pattern, boolean negate) {
         return new TextualRestrictions(
             null,
@@ -16,7 +34,8 @@ public class StringRestrictionsFactory {
             negate
                 ? Collections.singleton(pattern)
                 : Collections.emptySet(),
-            Collections.emptySet()
+            Collections.emptySet(),
+            maxAutomatonStates
         );
     }
 
@@ -32,7 +51,8 @@ public class StringRestrictionsFactory {
             Collections.emptySet(),
             negate
                 ? Collections.singleton(pattern)
-                : Collections.emptySet()
+                : Collections.emptySet(),
+            maxAutomatonStates
         );
     }
 
@@ -46,7 +66,8 @@ public class StringRestrictionsFactory {
                 ? Collections.singleton(length)
                 : Collections.emptySet(),
             Collections.emptySet(),
-            Collections.emptySet()
+            Collections.emptySet(),
+            maxAutomatonStates
         );
     }
 
@@ -58,7 +79,8 @@ public class StringRestrictionsFactory {
             Collections.emptySet(),
             Collections.emptySet(),
             Collections.emptySet(),
-            Collections.emptySet()
+            Collections.emptySet(),
+            maxAutomatonStates
         );
     }
 
@@ -70,7 +92,8 @@ public class StringRestrictionsFactory {
             Collections.emptySet(),
             Collections.emptySet(),
             Collections.emptySet(),
-            Collections.emptySet()
+            Collections.emptySet(),
+            maxAutomatonStates
         );
     }
 }
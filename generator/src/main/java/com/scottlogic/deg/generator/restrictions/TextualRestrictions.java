@@ -1,5 +1,6 @@
 package com.scottlogic.deg.generator.restrictions;
 
+import com.scottlogic.deg.generator.generation.string.LengthRestrictedStringGenerator;
 import com.scottlogic.deg.generator.generation.string.NoStringsStringGenerator;
 import com.scottlogic.deg.generator.generation.string.RegexStringGenerator;
 import com.scottlogic.deg.generator.generation.string.StringGenerator;
@@ -12,6 +13,17 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+/**
+ * Restrictions on the length of a string and the regular expressions it must or must not match or contain.
+ *
+ * Merging two sets of restrictions only combines their lengths and regular expressions, no automaton is built. A merge
+ * is unsuccessful when checks that only look at the lengths and the literal parts of the regular expressions show the
+ * result to be contradictory; these checks can't show that restrictions are satisfiable, so a merge may succeed with
+ * restrictions that no string meets. Whether any string does is only decided when the generator is created, which
+ * builds the automaton and yields a NoStringsStringGenerator if it accepts nothing; the walker then finds no values for
+ * the field and backtracks. The generator is kept on the instance, and an instance is reused when a merge adds nothing
+ * to it.
+ */
 public class TextualRestrictions implements StringRestrictions {
     final Integer minLength;
     final Integer maxLength;
@@ -20,6 +32,7 @@ public class TextualRestrictions implements StringRestrictions {
     final Set<Pattern> containingRegex;
     final Set<Pattern> notMatchingRegex;
     final Set<Pattern> notContainingRegex;
+    private final int maxAutomatonStates;
     private StringGenerator generator;
 
     TextualRestrictions(
@@ -29,7 +42,8 @@ public class TextualRestrictions implements StringRestrictions {
         Set<Pattern> containingRegex,
         Set<Integer> excludedLengths,
         Set<Pattern> notMatchingRegex,
-        Set<Pattern> notContainingRegex) {
+        Set<Pattern> notContainingRegex,
+        int maxAutomatonStates) {
         this.minLength = minLength;
         this.maxLength = maxLength;
         this.matchingRegex = matchingRegex;
@@ -37,6 +51,7 @@ public class TextualRestrictions implements StringRestrictions {
         this.excludedLengths = excludedLengths;
         this.notMatchingRegex = notMatchingRegex;
         this.notContainingRegex = notContainingRegex;
+        this.maxAutomatonStates = maxAutomatonStates;
     }
 
     @Override
@@ -74,26 +89,89 @@ public class TextualRestrictions implements StringRestrictions {
             SetUtils.union(containingRegex, textualRestrictions.containingRegex),
             SetUtils.union(excludedLengths, textualRestrictions.excludedLengths),
             SetUtils.union(notMatchingRegex, textualRestrictions.notMatchingRegex),
-            SetUtils.union(notContainingRegex, textualRestrictions.notContainingRegex)
+            SetUtils.union(notContainingRegex, textualRestrictions.notContainingRegex),
+            maxAutomatonStates
         );
 
-        return merged.isContradictory()
+        //reuse an existing instance where the merge adds nothing to it, so its generator is kept
+        if (merged.equals(this)){
+            merged = this;
+        } else if (merged.equals(textualRestrictions)){
+            merged = textualRestrictions;
+        }
+
+        return merged.isKnownToBeContradictory()
             ? MergeResult.unsuccessful()
             : new MergeResult<>(merged);
     }
 
     /**
-     * Detect if the intersection of length constraints & any given regex constraints contradict (can't emit any values)
+     * Detect if the intersection of length constraints & any given regex constraints contradict (can't emit any values),
+     * from the lengths and the literal parts of the regular expressions only
      *
-     * @return Whether this restrictions type is contradictory
+     * @return Whether this restrictions type is contradictory, false if it cannot be determined without an automaton
      */
-    private boolean isContradictory() {
+    private boolean isKnownToBeContradictory() {
         if (matchingRegex.isEmpty() && containingRegex.isEmpty()){
             return false; //no regular expressions exist that can contradict
         }
 
-        StringGenerator generator = createGenerator();
-        return generator instanceof NoStringsStringGenerator;
+        int minLength = this.minLength != null ? this.minLength : 0;
+        if (maxLength != null && (minLength > maxLength || allLengthsAreExcluded(minLength, maxLength, excludedLengths))){
+            return true;
+        }
+
+        return literalsAreContradictory(minLength);
+    }
+
+    /**
+     * Detect contradictions between the literal prefixes of the regular expressions and the other restrictions,
+     * e.g. /abc.+/ and /abd.+/ can't both be matched, and /abc/ can't be matched by a string shorter than 3 characters
+     *
+     * @param minLength The minimum string length
+     * @return Whether the literal parts of the regular expressions show this restrictions type is contradictory, false
+     * if it cannot be determined from them
+     */
+    private boolean literalsAreContradictory(int minLength) {
+        String longestPrefix = "";
+        String fullLiteral = null;
+
+        for (Pattern pattern : matchingRegex) {
+            LiteralPrefix prefix = LiteralPrefix.of(pattern.toString(), true);
+
+            if (!prefix.value.startsWith(longestPrefix) && !longestPrefix.startsWith(prefix.value)){
+                return true; //the strings would have to start with two different values
+            }
+            if (prefix.value.length() > longestPrefix.length()){
+                longestPrefix = prefix.value;
+            }
+
+            if (prefix.isWholeExpression){
+                if (fullLiteral != null && !fullLiteral.equals(prefix.value)){
+                    return true;
+                }
+                fullLiteral = prefix.value;
+            }
+        }
+
+        int shortestPossibleLength = longestPrefix.length();
+        for (Pattern pattern : containingRegex) {
+            //the string only has to contain the literal, so it gives a minimum length rather than a prefix
+            shortestPossibleLength = Math.max(shortestPossibleLength, LiteralPrefix.of(pattern.toString(), false).value.length());
+        }
+
+        if (maxLength != null && shortestPossibleLength > maxLength){
+            return true;
+        }
+
+        if (fullLiteral == null){
+            return false;
+        }
+
+        String literal = fullLiteral;
+        return literal.length() < minLength
+            || excludedLengths.contains(literal.length())
+            || notMatchingRegex.stream().anyMatch(pattern -> LiteralPrefix.of(pattern.toString(), true).matchesExactly(literal));
     }
 
     /**
@@ -144,7 +222,8 @@ public class TextualRestrictions implements StringRestrictions {
      * Singleton method: Will always return the same instance after the first successful execution on this instance
      *
      * Create a StringGenerator that will produce strings that match all of the given constraints
-     * Yield NoStringsGenerator if no strings could be produced for the given restrictions
+     * Yield NoStringsGenerator if no strings could be produced for the given restrictions, the automaton is only
+     * built when the lengths and literal parts of the regular expressions don't already show that
      */
     public StringGenerator createGenerator() {
         if (generator != null){
@@ -159,14 +238,16 @@ public class TextualRestrictions implements StringRestrictions {
             return generator = new NoStringsStringGenerator("Lengths are contradictory");
         }
 
-        //produce a regex, and a generator for it, that can produce ANY string within the given bounds
-        //emits /.{&lt;shortest&gt;,&lt;longest&gt;}/
-        //can also emit /.{&lt;0&gt;,&lt;5&gt;}|.{&lt;7&gt;,&lt;255&gt;}/ if 6 is an excluded length
+        if (literalsAreContradictory(minLength)) {
+            return generator = new NoStringsStringGenerator("Regular expressions are contradictory");
+        }
+
+        //produce a generator that can produce ANY string within the given bounds, like /.{&lt;shortest&gt;,&lt;longest&gt;}/
+        //or /.{&lt;0&gt;,&lt;5&gt;}|.{&lt;7&gt;,&lt;255&gt;}/ if 6 is an excluded length. It doesn't need an automaton unless
+        //it is combined with a regex below
         StringGenerator lengthConstrainingGenerator = minLength == 0 && maxLength == null && excludedLengths.isEmpty()
             ? null
-            : new RegexStringGenerator(
-                createStringLengthRestrictionRegex(minLength, maxLength),
-                true);
+            : new LengthRestrictedStringGenerator(minLength, maxLength, excludedLengths, maxAutomatonStates);
 
         //combine (merge/intersect) each non-length related constraint to produce a single string generator
         //e.g. would combine /[a-z]{0,9}/ with /.{0,255}/ (lengthConstrainingGenerator) to produce a single generator
@@ -213,10 +294,10 @@ public class TextualRestrictions implements StringRestrictions {
      */
     private Stream<StringGenerator> getPatternConstraints() {
         return concatStreams(
-            getStringGenerators(matchingRegex, regex -> new RegexStringGenerator(regex, true)),
-            getStringGenerators(containingRegex, regex -> new RegexStringGenerator(regex, false)),
-            getStringGenerators(notMatchingRegex, regex -> new RegexStringGenerator(regex, true).complement()),
-            getStringGenerators(notContainingRegex, regex -> new RegexStringGenerator(regex, false).complement())
+            getStringGenerators(matchingRegex, regex -> new RegexStringGenerator(regex, true, maxAutomatonStates)),
+            getStringGenerators(containingRegex, regex -> new RegexStringGenerator(regex, false, maxAutomatonStates)),
+            getStringGenerators(notMatchingRegex, regex -> new RegexStringGenerator(regex, true, maxAutomatonStates).complement()),
+            getStringGenerators(notContainingRegex, regex -> new RegexStringGenerator(regex, false, maxAutomatonStates).complement())
         );
     }
 
@@ -237,81 +318,50 @@ public class TextualRestrictions implements StringRestrictions {
     }
 
     /**
-     * Produce a regular expression that permits any character, but restricts the length of the generated string
-     * Will either:
-     * 1. Return a regex like /.{nnn}/ where nnn is the defined length constraint, or the shorterThan and longerThan represent the same string length
-     * 2. Return a regex like /.{aaa,bbb}/ where aaa is the shortest length and bbb is the longest length
-     * 3. Return a regex like /.{0,aaa}|.{bbb,ccc}/ where
-     *      aaa is the last length before an excluded length
-     *      bbb is the first length after the previously excluded length
-     *      ccc is the appropriate maximum length for the string
-     *
-     * @param minLength the minimum length for the string
-     * @param maxLength the maximum length for the string
+     * The characters that any string matching a regular expression must start with, found without parsing the regular
+     * expression fully. Any character that could be an operator ends the prefix, so the prefix may be shorter than it
+     * could be, but is never wrong.
      */
-    private String createStringLengthRestrictionRegex(int minLength, Integer maxLength) {
-        if (maxLength != null && maxLength.equals(minLength)){
-            return restrictStringLength(minLength);
-        }
+    private static class LiteralPrefix {
+        private static final String LITERAL_PUNCTUATION = " -_,:;/=!%'";
+        private static final String QUANTIFIERS = "*+?{";
 
-        //if there are no excluded lengths, then return a regex that represents the shortest/longest string
-        if (excludedLengths.isEmpty()) {
-            return restrictStringLength(minLength, maxLength);
+        private final String value;
+        private final boolean isWholeExpression;
+
+        private LiteralPrefix(String value, boolean isWholeExpression) {
+            this.value = value;
+            this.isWholeExpression = isWholeExpression;
         }
 
-        List<Integer> orderedExcludedLengths = excludedLengths.stream().sorted().collect(Collectors.toList()); //ensure the excluded lengths are ordered
-        List<String> patterns = new ArrayList<>();
-        Integer lastExcludedLength = null;
-        for (int excludedLength : orderedExcludedLengths) {
-            if ((maxLength != null && excludedLength > maxLength) || excludedLength < minLength){
-                continue; //the excluded length is beyond the permitted length, ignore it
-            }
-            if (maxLength != null && excludedLength == maxLength){
-                maxLength--; //the excluded length is the same as the longest, reduce the max-length
+        static LiteralPrefix of(String regex, boolean matchFullString) {
+            if (regex.indexOf('|') >= 0){
+                return new LiteralPrefix("", false); //any alternative could start with something else
             }
-            if (excludedLength == minLength){
-                lastExcludedLength = excludedLength;
-                continue;
+
+            int start = regex.startsWith("^") ? 1 : 0;
+            int end = start;
+            while (end < regex.length() && isLiteral(regex.charAt(end))) {
+                end++;
             }
 
-            if (lastExcludedLength == null) {
-                if (minLength < excludedLength - 1) {
-                    patterns.add(String.format(".{%d,%d}", minLength, excludedLength - 1));
-                }
-            } else {
-                patterns.add(String.format(".{%d,%d}", lastExcludedLength + 1, excludedLength - 1));
+            if (end < regex.length() && QUANTIFIERS.indexOf(regex.charAt(end)) >= 0 && end > start){
+                end--; //the last character may be repeated zero times, so isn't part of the prefix
             }
 
-            lastExcludedLength = excludedLength;
-        }
+            boolean isWholeExpression = matchFullString
+                && (end == regex.length() || (end == regex.length() - 1 && regex.charAt(end) == '$'));
 
-        if (patterns.isEmpty()) {
-            //if no lengths have been excluded, i.e. each excluded length is either > maxLength or
-            // the same maxLength -1 (at which point appropriateMaxLength will have been modified)
-            return restrictStringLength(lastExcludedLength != null ? lastExcludedLength + 1 : minLength, maxLength);
+            return new LiteralPrefix(regex.substring(start, end), isWholeExpression);
         }
 
-        if (maxLength != null && lastExcludedLength + 1 < maxLength - 1) {
-            patterns.add(String.format(".{%d,%d}", lastExcludedLength + 1, maxLength));
-        } else if (maxLength == null){
-            patterns.add(String.format(".{%d,}", lastExcludedLength + 1));
+        boolean matchesExactly(String literal) {
+            return isWholeExpression && value.equals(literal);
         }
 
-        return String.format(
-            patterns.size() == 1 ? "^%s$" : "^(%s)$",
-            String.join("|", patterns));
-    }
-
-    private String restrictStringLength(int length){
-        return String.format("^.{%d}$", length);
-    }
-
-    private String restrictStringLength(int min, Integer max){
-        if (max == null) {
-            return String.format("^.{%d,}$", min);
+        private static boolean isLiteral(char character) {
+            return Character.isLetterOrDigit(character) || LITERAL_PUNCTUATION.indexOf(character) >= 0;
         }
-
-        return String.format("^.{%d,%d}$", min, max);
     }
 
     @Override
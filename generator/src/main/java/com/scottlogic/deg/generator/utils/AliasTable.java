@@ -0,0 +1,72 @@
+package com.scottlogic.deg.generator.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Picks indices at random in proportion to a set of weights, using Vose's alias method. The table is built once in
+ * O(n); each pick then costs one random index and one random double, however many weights there are.
+ */
+public class AliasTable {
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    /**
+     * @param weights the relative weight of each index; must be non-negative, finite and not all zero
+     */
+    public AliasTable(double[] weights) {
+        int size = weights.length;
+        double totalWeight = 0;
+        for (double weight : weights) {
+            if (weight < 0 || Double.isNaN(weight) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Weights must be non-negative and finite");
+            }
+            totalWeight += weight;
+        }
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("At least one weight must be greater than zero");
+        }
+
+        probabilities = new double[size];
+        aliases = new int[size];
+
+        // scale so the average weight is 1, then pair each column under 1 with one over 1 to fill it up
+        double[] scaledWeights = new double[size];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            scaledWeights[i] = weights[i] * size / totalWeight;
+            (scaledWeights[i] < 1 ? small : large).push(i);
+        }
+
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int smallIndex = small.pop();
+            int largeIndex = large.pop();
+
+            probabilities[smallIndex] = scaledWeights[smallIndex];
+            aliases[smallIndex] = largeIndex;
+
+            scaledWeights[largeIndex] = scaledWeights[largeIndex] + scaledWeights[smallIndex] - 1;
+            (scaledWeights[largeIndex] < 1 ? small : large).push(largeIndex);
+        }
+
+        // anything left over is only short of 1 through rounding errors
+        while (!large.isEmpty()) {
+            probabilities[large.pop()] = 1;
+        }
+        while (!small.isEmpty()) {
+            probabilities[small.pop()] = 1;
+        }
+    }
+
+    public int size() {
+        return probabilities.length;
+    }
+
+    public int next(RandomNumberGenerator randomNumberGenerator) {
+        int column = randomNumberGenerator.nextInt(probabilities.length);
+        return randomNumberGenerator.nextDouble(0, 1) < probabilities[column]
+            ? column
+            : aliases[column];
+    }
+}
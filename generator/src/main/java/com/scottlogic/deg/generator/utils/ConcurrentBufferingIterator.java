@@ -0,0 +1,155 @@
+package com.scottlogic.deg.generator.utils;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Drains an iterator on a worker thread into a bounded buffer, so that the consumer can read values
+ * produced concurrently with other work. An infinite source only ever runs bufferSize values ahead of its consumer.
+ *
+ * The worker doesn't wait for space in a full buffer; it gives its thread back to the executor and is resubmitted
+ * once the consumer takes a value. Any number of iterators can therefore share a fixed size executor, even when the
+ * consumer needs values from an iterator whose worker hasn't started whilst the others' buffers are full.
+ */
+public class ConcurrentBufferingIterator<T> implements Iterator<T>, AutoCloseable {
+    private static final Object endOfSource = new Object();
+
+    private final BlockingQueue<Object> buffer;
+    private final Supplier<Iterator<T>> sourceSupplier;
+    private final ExecutorService executor;
+    /** Whether the worker is submitted or running; only the side that changes it from false may submit it */
+    private final AtomicBoolean producing = new AtomicBoolean(true);
+    private volatile boolean closed;
+    private volatile Future<?> producer;
+    private Object nextItem;
+
+    // only used by the worker, which never runs on more than one thread at once
+    private Iterator<T> source;
+    private Object pendingItem;
+    private boolean sourceFinished;
+
+    public ConcurrentBufferingIterator(Supplier<Iterator<T>> sourceSupplier, ExecutorService executor, int bufferSize) {
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.sourceSupplier = sourceSupplier;
+        this.executor = executor;
+        this.producer = executor.submit(this::produce);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextItem == null) {
+            nextItem = take();
+        }
+
+        if (nextItem instanceof ProducerFailure) {
+            throw new IllegalStateException("Unable to produce values", ((ProducerFailure) nextItem).cause);
+        }
+
+        return nextItem != endOfSource;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        T item = (T) nextItem;
+        nextItem = null;
+        return item;
+    }
+
+    /**
+     * Stops the worker, it will not produce any further values
+     */
+    @Override
+    public void close() {
+        closed = true;
+        producer.cancel(true);
+    }
+
+    private void produce() {
+        try {
+            while (!closed) {
+                if (pendingItem == null) {
+                    if (sourceFinished) {
+                        return;
+                    }
+                    pendingItem = nextFromSource();
+                }
+
+                if (buffer.offer(pendingItem)) {
+                    pendingItem = null;
+                    continue;
+                }
+
+                // the buffer is full, give the thread back until the consumer has taken a value. The consumer may
+                // have taken one since the offer, in which case it won't have seen producing as false, so check again
+                producing.set(false);
+                if (buffer.remainingCapacity() == 0 || !producing.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } catch (Throwable e) {
+            // errors are passed on too, otherwise the consumer would wait for values forever
+            sourceFinished = true;
+            pendingItem = null;
+            buffer.clear();
+            buffer.offer(new ProducerFailure(e));
+        }
+    }
+
+    private Object nextFromSource() {
+        if (source == null) {
+            source = sourceSupplier.get();
+        }
+
+        if (source.hasNext()) {
+            return source.next();
+        }
+
+        sourceFinished = true;
+        return endOfSource;
+    }
+
+    private Object take() {
+        Object item;
+        try {
+            item = buffer.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted whilst waiting for values to be produced", e);
+        }
+
+        resumeProducer();
+        return item;
+    }
+
+    private void resumeProducer() {
+        if (closed || !producing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            producer = executor.submit(this::produce);
+        } catch (RejectedExecutionException e) {
+            buffer.offer(new ProducerFailure(e));
+        }
+    }
+
+    private static class ProducerFailure {
+        private final Throwable cause;
+
+        ProducerFailure(Throwable cause) {
+            this.cause = cause;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.scottlogic.deg.generator.utils;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.stream.LongStream;
+
+/**
+ * The positions excluded from an ordered sequence of values, e.g. blacklisted values. The remaining values can be
+ * counted, found by index and iterated without checking each position of the sequence against the exclusions.
+ */
+public class ExclusionIndex {
+    public static final ExclusionIndex NONE = new ExclusionIndex(LongStream.empty());
+
+    private final long[] excludedPositions;
+
+    /**
+     * @param excludedPositions positions in the sequence, in any order; duplicates and negative positions are ignored
+     */
+    public ExclusionIndex(LongStream excludedPositions) {
+        this.excludedPositions = excludedPositions
+            .filter(position -> position >= 0)
+            .sorted()
+            .distinct()
+            .toArray();
+    }
+
+    public int size() {
+        return excludedPositions.length;
+    }
+
+    /**
+     * @return the position in the sequence of the index-th value that isn't excluded
+     */
+    public long getPosition(long index) {
+        // excludedPositions[i] - i is the number of remaining values before the i-th exclusion, so the result is
+        // preceded by every exclusion for which that is no more than index
+        int low = 0;
+        int high = excludedPositions.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (excludedPositions[middle] - middle <= index) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return index + low;
+    }
+
+    /**
+     * @return the positions of the values that aren't excluded, in order, starting from the index-th. The iterator
+     * doesn't end; callers stop at the end of their sequence.
+     */
+    public PrimitiveIterator.OfLong iteratePositionsFrom(long index) {
+        return new PrimitiveIterator.OfLong() {
+            private long nextPosition = getPosition(index);
+            private int nextExclusion = countExcludedBefore(nextPosition);
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public long nextLong() {
+                long position = nextPosition;
+
+                nextPosition++;
+                while (nextExclusion < excludedPositions.length && excludedPositions[nextExclusion] <= nextPosition) {
+                    if (excludedPositions[nextExclusion] == nextPosition) {
+                        nextPosition++;
+                    }
+                    nextExclusion++;
+                }
+
+                return position;
+            }
+        };
+    }
+
+    public boolean isExcluded(long position) {
+        return excludedPositions.length > 0 && Arrays.binarySearch(excludedPositions, position) >= 0;
+    }
+
+    /**
+     * @return the number of excluded positions lower than the given position
+     */
+    public int countExcludedBefore(long position) {
+        int searchResult = Arrays.binarySearch(excludedPositions, position);
+        return searchResult >= 0 ? searchResult : -searchResult - 1;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        return Arrays.equals(excludedPositions, ((ExclusionIndex) obj).excludedPositions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(excludedPositions);
+    }
+}
@@ -1,7 +1,6 @@
 package com.scottlogic.deg.generator.utils;
 
 import java.util.*;
-import java.util.stream.IntStream;
 
 public class FinancialCodeUtils {
     public static final List<String> VALID_COUNTRY_CODES = Arrays.asList("GB", "US");
@@ -41,8 +40,6 @@ public class FinancialCodeUtils {
         return true;
     }
 
-    private static List<Integer> SEDOL_WEIGHTS = Arrays.asList(1, 3, 1, 7, 3, 9, 1);
-
     public static boolean isValidSedolNsin(String nsin) {
         // A SEDOL has length 7, but is prefixed by zeroes when used as a nine-digit NSIN
         return isValidSedolNsin(nsin, nsin.length() - SEDOL_LENGTH);
@@ -87,16 +84,28 @@ public class FinancialCodeUtils {
         return nsin.charAt(CUSIP_LENGTH - 1) == checkDigit;
     }
 
+    private static final int[] SEDOL_WEIGHTS_FROM_END = {9, 3, 7, 1, 3, 1};
+    private static final int[] ALTERNATING_WEIGHTS_FROM_END = {2, 1};
+    private static final String CUSIP_SPECIAL_CHARACTERS = "*@#";
+
+    private static final char[] DIGITS = "0123456789".toCharArray();
+    private static final char[] ALPHANUMERICS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    private static final char[] SEDOL_CHARACTERS = "0123456789BCDFGHJKLMNPQRSTVWXYZ".toCharArray();
+
     public static char calculateSedolCheckDigit(String sedol) {
-        final Iterator<Integer> reverseSedolWeightIterator = new LinkedList<>(SEDOL_WEIGHTS).descendingIterator();
-        reverseSedolWeightIterator.next();
-        return luhnsCheckDigit(sedol, false, false, reverseSedolWeightIterator, Collections.emptyList());
+        return calculateSedolCheckDigit(sedol.toCharArray(), 0, sedol.length());
     }
 
-    private static List<Character> CUSIP_SPECIAL_CHARACTERS = Arrays.asList('*', '@', '#');
+    private static char calculateSedolCheckDigit(char[] code, int offset, int length) {
+        return luhnsCheckDigit(code, offset, length, false, false, SEDOL_WEIGHTS_FROM_END, "");
+    }
 
     public static char calculateCusipCheckDigit(String cusip) {
-        return luhnsCheckDigit(cusip, false, true, new CyclicIterable<>(Arrays.asList(2, 1)).iterator(), CUSIP_SPECIAL_CHARACTERS);
+        return calculateCusipCheckDigit(cusip.toCharArray(), 0, cusip.length());
+    }
+
+    private static char calculateCusipCheckDigit(char[] code, int offset, int length) {
+        return luhnsCheckDigit(code, offset, length, false, true, ALTERNATING_WEIGHTS_FROM_END, CUSIP_SPECIAL_CHARACTERS);
     }
 
     // Validates the check digit at the end of `isin`, which is assumed to be a valid 12-character ISIN
@@ -107,30 +116,104 @@ public class FinancialCodeUtils {
 
     // Generates  the check digit that should be appended to `isin`, which should be the first 11-characters of a valid ISIN
     public static char calculateIsinCheckDigit(String isin) {
-        return luhnsCheckDigit(isin, true, true, new CyclicIterable<>(Arrays.asList(2, 1)).iterator(), Collections.emptyList());
+        return calculateIsinCheckDigit(isin.toCharArray(), 0, isin.length());
     }
 
-    private static char luhnsCheckDigit(String source, boolean splitStartingDigits, boolean splitWeightedDigits,
-                                        Iterator<Integer> weights, List<Character> specialCharacters) {
-        final List<Integer> convertedDigits = source.chars()
-                .map(character -> specialCharacters.contains((char) character)
-                        ? 36 + specialCharacters.indexOf((char) character)
-                        : Character.digit(character, 36))
-                .flatMap(splitStartingDigits ? FinancialCodeUtils::splitDigits : IntStream::of)
-                .collect(ArrayList::new, List::add, ArrayList::addAll);
+    private static char calculateIsinCheckDigit(char[] code, int offset, int length) {
+        return luhnsCheckDigit(code, offset, length, true, true, ALTERNATING_WEIGHTS_FROM_END, "");
+    }
 
-        final int weightedDigitSum = IntStream.range(0, convertedDigits.size())
-                .map(reverseIndex -> convertedDigits.get(convertedDigits.size() - reverseIndex - 1) * weights.next())
-                .flatMap(splitWeightedDigits ? FinancialCodeUtils::splitDigits : IntStream::of)
-                .reduce(0, Integer::sum);
+    /**
+     * Generate a random valid SEDOL, drawing each character evenly from the characters permitted at its position
+     */
+    public static String generateRandomSedol(RandomNumberGenerator randomNumberGenerator) {
+        char[] sedol = new char[SEDOL_LENGTH];
+        fillRandomSedol(sedol, 0, randomNumberGenerator);
+        return new String(sedol);
+    }
+
+    /**
+     * Generate a random valid CUSIP, drawing each character evenly from the characters permitted at its position
+     */
+    public static String generateRandomCusip(RandomNumberGenerator randomNumberGenerator) {
+        char[] cusip = new char[CUSIP_LENGTH];
+        fillRandomCusip(cusip, 0, randomNumberGenerator);
+        return new String(cusip);
+    }
+
+    /**
+     * Generate a random valid ISIN for one of the valid country codes, chosen evenly, with a random NSIN that is valid
+     * for that country
+     */
+    public static String generateRandomIsin(RandomNumberGenerator randomNumberGenerator) {
+        char[] isin = new char[ISIN_LENGTH];
+        String countryCode = VALID_COUNTRY_CODES.get(randomNumberGenerator.nextInt(VALID_COUNTRY_CODES.size()));
+        countryCode.getChars(0, 2, isin, 0);
+
+        if (countryCode.equals("GB")) {
+            isin[2] = '0';
+            isin[3] = '0';
+            fillRandomSedol(isin, 4, randomNumberGenerator);
+        } else if (countryCode.equals("US")) {
+            fillRandomCusip(isin, 2, randomNumberGenerator);
+        } else {
+            fillRandomCharacters(isin, 2, ISIN_LENGTH - 3, ALPHANUMERICS, randomNumberGenerator);
+        }
+
+        isin[ISIN_LENGTH - 1] = calculateIsinCheckDigit(isin, 0, ISIN_LENGTH - 1);
+        return new String(isin);
+    }
+
+    private static void fillRandomSedol(char[] code, int offset, RandomNumberGenerator randomNumberGenerator) {
+        fillRandomCharacters(code, offset, SEDOL_LENGTH - 1, SEDOL_CHARACTERS, randomNumberGenerator);
+        code[offset + SEDOL_LENGTH - 1] = calculateSedolCheckDigit(code, offset, SEDOL_LENGTH - 1);
+    }
+
+    private static void fillRandomCusip(char[] code, int offset, RandomNumberGenerator randomNumberGenerator) {
+        fillRandomCharacters(code, offset, 3, DIGITS, randomNumberGenerator);
+        fillRandomCharacters(code, offset + 3, CUSIP_LENGTH - 4, ALPHANUMERICS, randomNumberGenerator);
+        code[offset + CUSIP_LENGTH - 1] = calculateCusipCheckDigit(code, offset, CUSIP_LENGTH - 1);
+    }
+
+    private static void fillRandomCharacters(char[] code, int offset, int length, char[] permittedCharacters,
+                                             RandomNumberGenerator randomNumberGenerator) {
+        for (int index = offset; index < offset + length; index++) {
+            code[index] = permittedCharacters[randomNumberGenerator.nextInt(permittedCharacters.length)];
+        }
+    }
+
+    /**
+     * Calculate a Luhn-style check digit for the given characters. Each character is converted to its base 36 value
+     * (or 36 onwards for the special characters), optionally split into its decimal digits, and weighted by the given
+     * weights from the last character backwards, repeating the weights as necessary.
+     */
+    private static char luhnsCheckDigit(char[] source, int offset, int length, boolean splitStartingDigits,
+                                        boolean splitWeightedDigits, int[] weightsFromEnd, String specialCharacters) {
+        int weightedDigitSum = 0;
+        int weightIndex = 0;
+
+        for (int index = offset + length - 1; index >= offset; index--) {
+            int specialCharacterIndex = specialCharacters.indexOf(source[index]);
+            int value = specialCharacterIndex >= 0
+                ? 36 + specialCharacterIndex
+                : Character.digit(source[index], 36);
+
+            if (splitStartingDigits && value >= 10) {
+                weightedDigitSum += weightDigit(value % 10, weightsFromEnd[weightIndex++ % weightsFromEnd.length], splitWeightedDigits);
+                value /= 10;
+            }
+
+            weightedDigitSum += weightDigit(value, weightsFromEnd[weightIndex++ % weightsFromEnd.length], splitWeightedDigits);
+        }
 
         int checkDigit = (10 - (weightedDigitSum % 10)) % 10;
         return Character.forDigit(checkDigit, 10);
     }
 
-    private static IntStream splitDigits(int num) {
-        return num >= 10
-                ? IntStream.of(num / 10, num % 10)
-                : IntStream.of(num);
+    private static int weightDigit(int digit, int weight, boolean splitWeightedDigit) {
+        int weightedDigit = digit * weight;
+        return splitWeightedDigit && weightedDigit >= 10
+            ? weightedDigit / 10 + weightedDigit % 10
+            : weightedDigit;
     }
 }
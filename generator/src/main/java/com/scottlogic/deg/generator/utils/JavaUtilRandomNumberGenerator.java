@@ -46,6 +46,33 @@ public class JavaUtilRandomNumberGenerator implements RandomNumberGenerator {
         }
     }
 
+    @Override
+    public long nextLong(long lowerInclusive, long upperExclusive) {
+        // same approach as nextInt, rejecting draws that fall in the incomplete last block of the range
+        if (lowerInclusive < upperExclusive) {
+            long n = upperExclusive - lowerInclusive;
+            if (n > 0) {
+                long bits;
+                long value;
+                do {
+                    bits = random.nextLong() >>> 1;
+                    value = bits % n;
+                } while (bits - value + (n - 1) < 0);
+                return value + lowerInclusive;
+            }
+            else {  // range not representable as long
+                long r;
+                do {
+                    r = random.nextLong();
+                } while (r < lowerInclusive || r >= upperExclusive);
+                return r;
+            }
+        }
+        else {
+            return random.nextLong();
+        }
+    }
+
     @Override
     public double nextDouble(double lowerInclusive, double upperExclusive) {
         return random.nextDouble() * (upperExclusive - lowerInclusive) + lowerInclusive;
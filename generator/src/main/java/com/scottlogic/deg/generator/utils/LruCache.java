@@ -0,0 +1,128 @@
+package com.scottlogic.deg.generator.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache holding at most maxSize entries, the least recently used entry is evicted to make room for
+ * a new one. Counts hits, misses and evictions so that the effectiveness of the cache can be reported.
+ *
+ * Large caches are split into segments by the hash of the key, each with its own lock and an equal share of maxSize,
+ * so threads only contend when they use keys in the same segment. A hit has to lock its segment, as it makes the entry
+ * the most recently used. Entries are evicted from their own segment, so the evicted entry is the least recently used
+ * of its segment rather than of the whole cache.
+ *
+ * Values are computed outside of the lock, so two threads missing on the same key at the same time may both compute
+ * the value; the first to finish is kept. Values must therefore be safe to compute more than once, and must not be null.
+ */
+public class LruCache<K, V> {
+    private static final int MAX_SEGMENTS = 16;
+    /** Caches are only split when each segment can hold at least this many entries */
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final Segment<K, V>[] segments;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public LruCache(int maxSize) {
+        int segmentCount = Math.max(1, Math.min(MAX_SEGMENTS, maxSize / MIN_SEGMENT_SIZE));
+        segments = new Segment[segmentCount];
+        for (int index = 0; index < segmentCount; index++) {
+            // share out the remainder so the segments hold exactly maxSize entries between them
+            int segmentSize = maxSize / segmentCount + (index < maxSize % segmentCount ? 1 : 0);
+            segments[index] = new Segment<>(segmentSize, evictions);
+        }
+    }
+
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> compute) {
+        Segment<K, V> segment = getSegment(key);
+        synchronized (segment) {
+            V value = segment.get(key);
+            if (value != null) {
+                hits.incrementAndGet();
+                return value;
+            }
+        }
+
+        misses.incrementAndGet();
+        V computed = compute.apply(key);
+
+        synchronized (segment) {
+            V existing = segment.putIfAbsent(key, computed);
+            return existing != null ? existing : computed;
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d entries, %d hits, %d misses, %d evictions",
+            size(),
+            getHits(),
+            getMisses(),
+            getEvictions());
+    }
+
+    private Segment<K, V> getSegment(K key) {
+        if (segments.length == 1) {
+            return segments[0];
+        }
+
+        // spread the high bits into the low ones, as HashMap does, as some keys hash on identity or small integers
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[Math.floorMod(hash, segments.length)];
+    }
+
+    /**
+     * An access ordered map, which evicts its least recently used entry when it holds more than maxSize entries
+     */
+    private static class Segment<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+        private final AtomicLong evictions;
+
+        Segment(int maxSize, AtomicLong evictions) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            if (size() <= maxSize) {
+                return false;
+            }
+
+            evictions.incrementAndGet();
+            return true;
+        }
+    }
+}
@@ -6,6 +6,7 @@ public interface RandomNumberGenerator {
     int nextInt();
     int nextInt(int bound);
     int nextInt(int lowerInclusive, int upperExclusive);
+    long nextLong(long lowerInclusive, long upperExclusive);
     double nextDouble(double lowerInclusive, double upperExclusive);
     BigDecimal nextBigDecimal(BigDecimal lowerInclusive, BigDecimal upperExclusive, int scale);
 }
@@ -0,0 +1,59 @@
+package com.scottlogic.deg.generator.utils;
+
+import java.math.BigDecimal;
+
+/**
+ * The random numbers used during generation, all derived from one seed. Each thread draws from its own stream, so no
+ * generator is shared between threads. Before generating a row a walker moves the calling thread onto the stream for
+ * that row of its partition, so the row's values depend only on the seed, the partition and the row number; the same
+ * seed then produces the same data however many threads generate it.
+ */
+public class RandomStreams implements RandomNumberGenerator {
+    private final SplittableRandomNumberGenerator rootGenerator;
+    private final ThreadLocal<SplittableRandomNumberGenerator> currentStream;
+
+    public RandomStreams(long seed) {
+        rootGenerator = new SplittableRandomNumberGenerator(seed);
+        // values drawn outside of a row, e.g. by walkers that don't select row streams, are only reproducible
+        // when generation is single threaded
+        currentStream = ThreadLocal.withInitial(() -> rootGenerator.derive(Thread.currentThread().getId()));
+    }
+
+    /**
+     * Draw the values generated on the calling thread from now on from the stream for the given row of the given
+     * partition
+     */
+    public void useStreamForRow(long partitionNumber, long rowNumber) {
+        currentStream.set(rootGenerator.derive(partitionNumber).derive(rowNumber));
+    }
+
+    @Override
+    public int nextInt() {
+        return currentStream.get().nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return currentStream.get().nextInt(bound);
+    }
+
+    @Override
+    public int nextInt(int lowerInclusive, int upperExclusive) {
+        return currentStream.get().nextInt(lowerInclusive, upperExclusive);
+    }
+
+    @Override
+    public long nextLong(long lowerInclusive, long upperExclusive) {
+        return currentStream.get().nextLong(lowerInclusive, upperExclusive);
+    }
+
+    @Override
+    public double nextDouble(double lowerInclusive, double upperExclusive) {
+        return currentStream.get().nextDouble(lowerInclusive, upperExclusive);
+    }
+
+    @Override
+    public BigDecimal nextBigDecimal(BigDecimal lowerInclusive, BigDecimal upperExclusive, int scale) {
+        return currentStream.get().nextBigDecimal(lowerInclusive, upperExclusive, scale);
+    }
+}
@@ -3,29 +3,51 @@ package com.scottlogic.deg.generator.utils;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
-public class RestartableIterator<T> implements Iterator<T> {
+/**
+ * An iterator that can be restarted from its first item.
+ *
+ * Items are cached as they are produced so that they can be returned again after a restart. When the iterator is
+ * created from a source that can be produced again, at most maxCacheSize items are cached; if the source is larger
+ * than that the cache is discarded and the source is produced again on each restart instead.
+ */
+public class RestartableIterator<T> implements Iterator<T>, AutoCloseable {
     private final List<T> cache = new ArrayList<>();
+    private final Supplier<Stream<T>> source;
+    private final int maxCacheSize;
+    private Stream<T> currentStream;
+    private Iterator<T> underlyingIterator;
+    private boolean cacheExceeded = false;
     private int index = 0;
-    private final Iterator<T> underlyingIterator;
 
     public RestartableIterator(Iterator<T> underlyingIterator) {
+        this.source = null;
+        this.maxCacheSize = Integer.MAX_VALUE;
         this.underlyingIterator = underlyingIterator;
     }
 
+    public RestartableIterator(Supplier<Stream<T>> source, int maxCacheSize) {
+        this.source = source;
+        this.maxCacheSize = maxCacheSize;
+        this.currentStream = source.get();
+        this.underlyingIterator = currentStream.iterator();
+    }
+
     @Override
     public boolean hasNext() {
-        return index < cache.size() || underlyingIterator.hasNext();
+        return (!cacheExceeded && index < cache.size()) || underlyingIterator.hasNext();
     }
 
     @Override
     public T next() {
         T item;
-        if (index < cache.size()) {
+        if (!cacheExceeded && index < cache.size()) {
             item = cache.get(index);
         } else {
             item = underlyingIterator.next();
-            cache.add(item);
+            cacheItem(item);
         }
 
         index++;
@@ -34,6 +56,37 @@ public class RestartableIterator<T> implements Iterator<T> {
     }
 
     public void restart() {
+        if (index == 0) {
+            return;
+        }
+
         index = 0;
+
+        if (cacheExceeded) {
+            close();
+            currentStream = source.get();
+            underlyingIterator = currentStream.iterator();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (currentStream != null) {
+            currentStream.close();
+        }
+    }
+
+    private void cacheItem(T item) {
+        if (cacheExceeded) {
+            return;
+        }
+
+        if (cache.size() < maxCacheSize) {
+            cache.add(item);
+            return;
+        }
+
+        cacheExceeded = true;
+        cache.clear();
     }
 }
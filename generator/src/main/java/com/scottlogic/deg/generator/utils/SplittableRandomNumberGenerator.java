@@ -0,0 +1,76 @@
+package com.scottlogic.deg.generator.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+/**
+ * A RandomNumberGenerator backed by a SplittableRandom, from which independent generators can be derived by number.
+ * A derived generator depends only on this generator's seed and the number it was derived with, not on how many
+ * values have been drawn or which thread derives it. Instances aren't thread safe; each thread should use its own.
+ */
+public class SplittableRandomNumberGenerator implements RandomNumberGenerator {
+    // the odd constant SplittableRandom uses to spread consecutive seeds
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+    private final SplittableRandom random;
+
+    public SplittableRandomNumberGenerator(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * @return a generator whose values are independent of this generator's, and of those derived with other numbers
+     */
+    public SplittableRandomNumberGenerator derive(long streamNumber) {
+        return new SplittableRandomNumberGenerator(mix64(seed + GOLDEN_GAMMA * (streamNumber + 1)));
+    }
+
+    @Override
+    public int nextInt() {
+        return random.nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public int nextInt(int lowerInclusive, int upperExclusive) {
+        return lowerInclusive < upperExclusive
+            ? random.nextInt(lowerInclusive, upperExclusive)
+            : random.nextInt();
+    }
+
+    @Override
+    public long nextLong(long lowerInclusive, long upperExclusive) {
+        return lowerInclusive < upperExclusive
+            ? random.nextLong(lowerInclusive, upperExclusive)
+            : random.nextLong();
+    }
+
+    @Override
+    public double nextDouble(double lowerInclusive, double upperExclusive) {
+        return random.nextDouble() * (upperExclusive - lowerInclusive) + lowerInclusive;
+    }
+
+    @Override
+    public BigDecimal nextBigDecimal(BigDecimal lowerInclusive, BigDecimal upperExclusive, int scale) {
+        return new BigDecimal(random.nextDouble())
+            .multiply(upperExclusive.subtract(lowerInclusive))
+            .add(lowerInclusive)
+            .setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * The MurmurHash3 finaliser, as used by SplittableRandom, so that nearby seeds give unrelated streams
+     */
+    private static long mix64(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
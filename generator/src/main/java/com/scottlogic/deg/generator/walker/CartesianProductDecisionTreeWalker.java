@@ -13,15 +13,16 @@ import com.scottlogic.deg.generator.fieldspecs.RowSpecMerger;
 import com.scottlogic.deg.generator.generation.databags.DataBag;
 import com.scottlogic.deg.generator.generation.databags.RowSpecDataBagGenerator;
 import com.scottlogic.deg.generator.reducer.ConstraintReducer;
+import com.scottlogic.deg.generator.utils.LruCache;
 
-import java.util.Arrays;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class CartesianProductDecisionTreeWalker implements DecisionTreeWalker {
+    private static final int MERGE_CACHE_SIZE = 10_000;
+
     private final ConstraintReducer constraintReducer;
     private final RowSpecMerger rowSpecMerger;
     private final RowSpecDataBagGenerator dataBagSourceFactory;
@@ -36,7 +37,7 @@ public class CartesianProductDecisionTreeWalker implements DecisionTreeWalker {
     }
 
     public Stream<DataBag> walk(DecisionTree tree) {
-        final DecisionTreeWalkerHelper helper = new DecisionTreeWalkerHelper(tree.getFields());
+        final DecisionTreeWalkerHelper helper = new DecisionTreeWalkerHelper(tree.getFields(), tree.getRootNode());
         Stream<RowSpec> rowSpecs = helper.walk(tree.getRootNode());
 
         return FlatMappingSpliterator.flatMap(
@@ -44,11 +45,19 @@ public class CartesianProductDecisionTreeWalker implements DecisionTreeWalker {
             dataBagSourceFactory::createDataBags);
     }
 
+    /**
+     * Walks a single tree. The merge of each option with an accumulated RowSpec is cached, so identical specs reached
+     * through different branches are merged once and share the same RowSpec. Options of sibling decisions that
+     * contradict each other are found before walking, so combinations containing both are skipped without merging.
+     */
     private class DecisionTreeWalkerHelper {
         private final ProfileFields profileFields;
+        private final LruCache<MergeKey, Optional<RowSpec>> mergeCache = new LruCache<>(MERGE_CACHE_SIZE);
+        private final Map<ConstraintNode, Set<ConstraintNode>> contradictingOptions = new IdentityHashMap<>();
 
-        private DecisionTreeWalkerHelper(ProfileFields profileFields) {
+        private DecisionTreeWalkerHelper(ProfileFields profileFields, ConstraintNode rootNode) {
             this.profileFields = profileFields;
+            findContradictingOptions(rootNode);
         }
 
         private RowSpec getIdentityRowSpec() {
@@ -63,21 +72,9 @@ public class CartesianProductDecisionTreeWalker implements DecisionTreeWalker {
         }
 
         public Stream<RowSpec> walk(ConstraintNode option, RowSpec accumulatedSpec) {
-            final Optional<RowSpec> nominalRowSpec = option.getOrCreateRowSpec(() -> constraintReducer.reduceConstraintsToRowSpec(
-                    profileFields,
-                    option.getAtomicConstraints()
-            ));
-
-            if (!nominalRowSpec.isPresent()) {
-                return Stream.empty();
-            }
-
-            final Optional<RowSpec> mergedRowSpecOpt = rowSpecMerger.merge(
-                    Arrays.asList(
-                            nominalRowSpec.get(),
-                            accumulatedSpec
-                    )
-            );
+            final Optional<RowSpec> mergedRowSpecOpt = mergeCache.computeIfAbsent(
+                new MergeKey(option, accumulatedSpec),
+                key -> merge(option, accumulatedSpec));
 
             if (!mergedRowSpecOpt.isPresent()) {
                 return Stream.empty();
@@ -92,18 +89,134 @@ public class CartesianProductDecisionTreeWalker implements DecisionTreeWalker {
             return option.getDecisions()
                 .stream()
                 .reduce(
-                    Stream.of(mergedRowSpec),
+                    Stream.of(new PartialRow(mergedRowSpec, Collections.emptyList())),
                     (acc, decisionNode) -> FlatMappingSpliterator.flatMap(
                         acc,
-                        aRowSpecFromCartesianProductsSoFar -> walk(decisionNode, aRowSpecFromCartesianProductsSoFar)),
-                    Stream::concat);
+                        aRowFromCartesianProductsSoFar -> walk(decisionNode, aRowFromCartesianProductsSoFar)),
+                    Stream::concat)
+                .map(partialRow -> partialRow.rowSpec);
         }
 
-        private Stream<RowSpec> walk(DecisionNode decision, RowSpec accumulatedSpec) {
+        private Stream<PartialRow> walk(DecisionNode decision, PartialRow accumulatedRow) {
             return FlatMappingSpliterator.flatMap(decision
                     .getOptions()
-                    .stream(),
-                    option -> walk(option, accumulatedSpec));
+                    .stream()
+                    .filter(option -> !contradictsAnyOf(option, accumulatedRow.chosenOptions)),
+                    option -> walk(option, accumulatedRow.rowSpec)
+                        .map(rowSpec -> accumulatedRow.with(option, rowSpec)));
+        }
+
+        private Optional<RowSpec> merge(ConstraintNode option, RowSpec accumulatedSpec) {
+            final Optional<RowSpec> nominalRowSpec = getNominalRowSpec(option);
+
+            if (!nominalRowSpec.isPresent()) {
+                return Optional.empty();
+            }
+
+            return rowSpecMerger.merge(
+                    Arrays.asList(
+                            nominalRowSpec.get(),
+                            accumulatedSpec
+                    )
+            );
+        }
+
+        private Optional<RowSpec> getNominalRowSpec(ConstraintNode option) {
+            return option.getOrCreateRowSpec(() -> constraintReducer.reduceConstraintsToRowSpec(
+                    profileFields,
+                    option.getAtomicConstraints()
+            ));
+        }
+
+        private boolean contradictsAnyOf(ConstraintNode option, List<ConstraintNode> chosenOptions) {
+            Set<ConstraintNode> contradictions = contradictingOptions.get(option);
+            if (contradictions == null) {
+                return false;
+            }
+
+            return chosenOptions.stream().anyMatch(contradictions::contains);
+        }
+
+        /**
+         * Compare the atomic constraints of each pair of options from different decisions of the same node, recording
+         * the pairs that can never be combined
+         */
+        private void findContradictingOptions(ConstraintNode node) {
+            List<DecisionNode> decisions = new ArrayList<>(node.getDecisions());
+
+            for (int first = 0; first < decisions.size(); first++) {
+                for (int second = first + 1; second < decisions.size(); second++) {
+                    for (ConstraintNode firstOption : decisions.get(first).getOptions()) {
+                        for (ConstraintNode secondOption : decisions.get(second).getOptions()) {
+                            if (contradict(firstOption, secondOption)) {
+                                addContradiction(firstOption, secondOption);
+                                addContradiction(secondOption, firstOption);
+                            }
+                        }
+                    }
+                }
+            }
+
+            decisions.forEach(decision -> decision.getOptions().forEach(this::findContradictingOptions));
+        }
+
+        private boolean contradict(ConstraintNode firstOption, ConstraintNode secondOption) {
+            Optional<RowSpec> firstSpec = getNominalRowSpec(firstOption);
+            Optional<RowSpec> secondSpec = getNominalRowSpec(secondOption);
+
+            return firstSpec.isPresent()
+                && secondSpec.isPresent()
+                && !rowSpecMerger.merge(Arrays.asList(firstSpec.get(), secondSpec.get())).isPresent();
+        }
+
+        private void addContradiction(ConstraintNode option, ConstraintNode contradictingOption) {
+            contradictingOptions
+                .computeIfAbsent(option, o -> Collections.newSetFromMap(new IdentityHashMap<>()))
+                .add(contradictingOption);
+        }
+    }
+
+    /**
+     * A RowSpec accumulated from some of the decisions of a node, and the options chosen for them
+     */
+    private static class PartialRow {
+        private final RowSpec rowSpec;
+        private final List<ConstraintNode> chosenOptions;
+
+        PartialRow(RowSpec rowSpec, List<ConstraintNode> chosenOptions) {
+            this.rowSpec = rowSpec;
+            this.chosenOptions = chosenOptions;
+        }
+
+        PartialRow with(ConstraintNode option, RowSpec newRowSpec) {
+            List<ConstraintNode> newChosenOptions = new ArrayList<>(chosenOptions.size() + 1);
+            newChosenOptions.addAll(chosenOptions);
+            newChosenOptions.add(option);
+            return new PartialRow(newRowSpec, newChosenOptions);
+        }
+    }
+
+    private static class MergeKey {
+        private final ConstraintNode option;
+        private final RowSpec accumulatedSpec;
+
+        MergeKey(ConstraintNode option, RowSpec accumulatedSpec) {
+            this.option = option;
+            this.accumulatedSpec = accumulatedSpec;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            MergeKey that = (MergeKey) o;
+            return option == that.option &&
+                Objects.equals(accumulatedSpec, that.accumulatedSpec);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(option), accumulatedSpec);
         }
     }
 }
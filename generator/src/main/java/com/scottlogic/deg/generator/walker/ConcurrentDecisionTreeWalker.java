@@ -0,0 +1,41 @@
+package com.scottlogic.deg.generator.walker;
+
+import com.scottlogic.deg.generator.decisiontree.DecisionTree;
+import com.scottlogic.deg.generator.generation.databags.DataBag;
+import com.scottlogic.deg.generator.utils.ConcurrentBufferingIterator;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Walks each tree on the given executor rather than the calling thread, the rows are held in a bounded buffer
+ * until they are consumed. Walking all partitions of a profile through this walker allows them to be generated
+ * in parallel whilst the combination strategy joins them together.
+ */
+public class ConcurrentDecisionTreeWalker implements DecisionTreeWalker {
+    public static final int DEFAULT_BUFFER_SIZE = 1000;
+
+    private final DecisionTreeWalker underlyingWalker;
+    private final ExecutorService executor;
+    private final int bufferSize;
+
+    public ConcurrentDecisionTreeWalker(DecisionTreeWalker underlyingWalker, ExecutorService executor, int bufferSize) {
+        this.underlyingWalker = underlyingWalker;
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public Stream<DataBag> walk(DecisionTree tree) {
+        ConcurrentBufferingIterator<DataBag> iterator = new ConcurrentBufferingIterator<>(
+            () -> underlyingWalker.walk(tree).iterator(),
+            executor,
+            bufferSize);
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+            .onClose(iterator::close);
+    }
+}
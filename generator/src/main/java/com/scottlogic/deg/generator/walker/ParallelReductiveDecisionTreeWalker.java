@@ -0,0 +1,415 @@
+package com.scottlogic.deg.generator.walker;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.generator.decisiontree.DecisionTree;
+import com.scottlogic.deg.generator.generation.databags.DataBag;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+import com.scottlogic.deg.generator.walker.reductive.Merged;
+import com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy.FixFieldStrategy;
+import com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy.FixFieldStrategyFactory;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Walks the tree in the same way as the ReductiveDecisionTreeWalker, but splits it into subtrees which are walked on a
+ * pool of worker threads. A walk starts as a single subtree; whilst fewer than minPendingSubtrees subtrees are waiting
+ * for a worker, a worker splits the subtree it is walking before fixing its next value: it keeps that value for itself
+ * and leaves the rest of the field's values waiting for another worker. The tree is therefore split further wherever
+ * the workers run out of work, rather than at a fixed depth, and workers never wait on each other to find the next
+ * subtree.
+ *
+ * Rows are streamed from the workers through bounded buffers, so memory doesn't grow with the size of the subtrees;
+ * workers wait once their buffers are full. Each walk starts its own workers and stops them once its rows have all
+ * been consumed or its stream is closed.
+ *
+ * When ordered the rows are emitted in the same order as the ReductiveDecisionTreeWalker would emit them, with at most
+ * maxSubtreesInFlight subtrees split off ahead of the one being emitted. Otherwise rows are emitted as soon as any
+ * worker produces them.
+ */
+public class ParallelReductiveDecisionTreeWalker implements DecisionTreeWalker {
+    private static final int DEFAULT_ROW_BUFFER_SIZE = 1000;
+
+    private static final Object endOfSubtree = new Object();
+    private static final Object endOfWalk = new Object();
+    private static final Subtree noMoreSubtrees = new Subtree(new int[0], null, null, null, null);
+
+    private final ReductiveDecisionTreeWalker underlyingWalker;
+    private final FixFieldStrategyFactory fixFieldStrategyFactory;
+    private final int threadCount;
+    private final boolean preserveOrder;
+    private final int minPendingSubtrees;
+    private final int maxSubtreesInFlight;
+    private final int rowBufferSize;
+
+    public ParallelReductiveDecisionTreeWalker(
+        ReductiveDecisionTreeWalker underlyingWalker,
+        FixFieldStrategyFactory fixFieldStrategyFactory,
+        int threadCount,
+        boolean preserveOrder) {
+        this(
+            underlyingWalker,
+            fixFieldStrategyFactory,
+            threadCount,
+            preserveOrder,
+            threadCount,
+            threadCount * 4,
+            DEFAULT_ROW_BUFFER_SIZE);
+    }
+
+    ParallelReductiveDecisionTreeWalker(
+        ReductiveDecisionTreeWalker underlyingWalker,
+        FixFieldStrategyFactory fixFieldStrategyFactory,
+        int threadCount,
+        boolean preserveOrder,
+        int minPendingSubtrees,
+        int maxSubtreesInFlight,
+        int rowBufferSize) {
+        this.underlyingWalker = underlyingWalker;
+        this.fixFieldStrategyFactory = fixFieldStrategyFactory;
+        this.threadCount = threadCount;
+        this.preserveOrder = preserveOrder;
+        this.minPendingSubtrees = minPendingSubtrees;
+        this.maxSubtreesInFlight = maxSubtreesInFlight;
+        this.rowBufferSize = rowBufferSize;
+    }
+
+    @Override
+    public Stream<DataBag> walk(DecisionTree tree) {
+        ReductiveStep initialStep = underlyingWalker.createInitialStep(tree);
+        FixFieldStrategy fixFieldStrategy = fixFieldStrategyFactory.create(tree.getRootNode());
+
+        ParallelWalk walk = new ParallelWalk(initialStep, fixFieldStrategy);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(walk, Spliterator.ORDERED), false)
+            .onClose(walk::close);
+    }
+
+    /**
+     * A subtree to walk on a worker; either a step whose remaining fields should be walked, or a step and the values of
+     * its next field that are still to be walked. The path orders the subtrees as the ReductiveDecisionTreeWalker would
+     * walk them.
+     */
+    private static class Subtree implements Comparable<Subtree> {
+        private final int[] path;
+        private final ReductiveStep step;
+        private final Field field;
+        private final Iterator<DataBagValue> values;
+        private final BlockingQueue<Object> rows;
+
+        Subtree(int[] path, ReductiveStep step, Field field, Iterator<DataBagValue> values, BlockingQueue<Object> rows) {
+            this.path = path;
+            this.step = step;
+            this.field = field;
+            this.values = values;
+            this.rows = rows;
+        }
+
+        int[] childPath(int index) {
+            int[] childPath = Arrays.copyOf(path, path.length + 1);
+            childPath[path.length] = index;
+            return childPath;
+        }
+
+        @Override
+        public int compareTo(Subtree other) {
+            for (int index = 0; index < path.length && index < other.path.length; index++) {
+                int comparison = Integer.compare(path[index], other.path[index]);
+                if (comparison != 0) {
+                    return comparison;
+                }
+            }
+            return Integer.compare(path.length, other.path.length);
+        }
+    }
+
+    /**
+     * Emitted in place of the rest of a subtree's rows when it is split, the rows of the two parts follow in order
+     */
+    private static class Split {
+        private final BlockingQueue<Object> first;
+        private final BlockingQueue<Object> rest;
+
+        Split(BlockingQueue<Object> first, BlockingQueue<Object> rest) {
+            this.first = first;
+            this.rest = rest;
+        }
+    }
+
+    /**
+     * Runs the workers for a single walk and emits the rows they produce. When ordered each subtree has its own
+     * buffer, and the consumer reads the buffers in the order of the subtrees; the first subtree waiting for a worker
+     * is always the next to be taken, so the subtree being emitted is always being walked, finished, or next in line.
+     * Otherwise all workers share a single buffer.
+     */
+    private class ParallelWalk implements Iterator<DataBag>, AutoCloseable {
+        private final FixFieldStrategy fixFieldStrategy;
+        private final BlockingQueue<Subtree> pendingSubtrees = new PriorityBlockingQueue<>();
+        private final AtomicInteger unfinishedSubtrees = new AtomicInteger();
+        private final AtomicInteger subtreesInFlight = new AtomicInteger();
+        private final Deque<BlockingQueue<Object>> buffersToEmit = new ArrayDeque<>();
+        private final BlockingQueue<Object> sharedRows;
+        private ExecutorService executor;
+        private volatile boolean closed;
+        private Object nextItem;
+
+        ParallelWalk(ReductiveStep initialStep, FixFieldStrategy fixFieldStrategy) {
+            this.fixFieldStrategy = fixFieldStrategy;
+            this.sharedRows = preserveOrder ? null : new ArrayBlockingQueue<>(rowBufferSize);
+
+            Subtree wholeTree = new Subtree(new int[0], initialStep, null, null, createBuffer());
+            unfinishedSubtrees.incrementAndGet();
+            pendingSubtrees.add(wholeTree);
+            if (preserveOrder) {
+                buffersToEmit.push(wholeTree.rows);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            startWorkers();
+
+            if (nextItem == null) {
+                nextItem = preserveOrder ? takeOrderedItem() : take(sharedRows);
+            }
+
+            if (nextItem instanceof WalkFailure) {
+                close();
+                throw new IllegalStateException("Unable to walk subtree", ((WalkFailure) nextItem).cause);
+            }
+            if (nextItem == endOfWalk) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public DataBag next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            DataBag row = (DataBag) nextItem;
+            nextItem = null;
+            return row;
+        }
+
+        /**
+         * Stops the workers, they will not walk any further
+         */
+        @Override
+        public void close() {
+            closed = true;
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+
+        private void startWorkers() {
+            if (executor != null || closed) {
+                return;
+            }
+
+            executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+                // an unclosed walk may leave workers waiting on full buffers, they must not prevent the process
+                // from exiting
+                Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            });
+            for (int index = 0; index < threadCount; index++) {
+                executor.execute(this::work);
+            }
+        }
+
+        private void work() {
+            try {
+                while (!closed) {
+                    Subtree subtree = pendingSubtrees.take();
+                    if (subtree == noMoreSubtrees || !walk(subtree)) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Walks the subtree, splitting it whenever other workers are short of subtrees
+         *
+         * @return false if the walk failed
+         */
+        private boolean walk(Subtree subtree) throws InterruptedException {
+            try {
+                while (subtree != null && !closed) {
+                    subtree = walkUntilSplit(subtree);
+                }
+                return true;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Throwable e) {
+                reportFailure(subtree, new WalkFailure(e));
+                return false;
+            }
+        }
+
+        /**
+         * @return the part of the subtree this worker should carry on with if it was split, otherwise null once
+         * the subtree has been walked
+         */
+        private Subtree walkUntilSplit(Subtree subtree) throws InterruptedException {
+            if (subtree.field == null) {
+                if (subtree.step.getState().allFieldsAreFixed() || !shouldSplit()) {
+                    putAll(subtree.rows, underlyingWalker.walkFrom(subtree.step, fixFieldStrategy));
+                    finish(subtree);
+                    return null;
+                }
+
+                Field fieldToFix = fixFieldStrategy.getNextFieldToFix(subtree.step.getState());
+                Iterator<DataBagValue> values = underlyingWalker
+                    .getValuesForField(subtree.step.getTree(), subtree.step.getState(), fieldToFix)
+                    .iterator();
+                subtree = new Subtree(subtree.path, subtree.step, fieldToFix, values, subtree.rows);
+            }
+
+            while (subtree.values.hasNext() && !closed) {
+                Merged<ReductiveStep> mergedStep = underlyingWalker.fixFieldToValue(
+                    subtree.step.getTree(),
+                    subtree.step.getState(),
+                    subtree.field,
+                    subtree.values.next());
+                if (mergedStep.isContradictory()) {
+                    continue;
+                }
+
+                if (!subtree.values.hasNext()) {
+                    // the last value, carry on with it in place of the subtree so it can still be split
+                    return new Subtree(subtree.path, mergedStep.get(), null, null, subtree.rows);
+                }
+
+                if (shouldSplit()) {
+                    return split(subtree, mergedStep.get());
+                }
+
+                putAll(subtree.rows, underlyingWalker.walkFrom(mergedStep.get(), fixFieldStrategy));
+            }
+
+            finish(subtree);
+            return null;
+        }
+
+        /**
+         * Leaves the rest of the subtree's values for another worker
+         *
+         * @return the step for the value just fixed, for this worker to carry on with
+         */
+        private Subtree split(Subtree subtree, ReductiveStep fixedStep) throws InterruptedException {
+            Subtree first = new Subtree(subtree.childPath(0), fixedStep, null, null, createBuffer());
+            Subtree rest = new Subtree(subtree.childPath(1), subtree.step, subtree.field, subtree.values, createBuffer());
+
+            if (preserveOrder) {
+                subtree.rows.put(new Split(first.rows, rest.rows));
+            }
+            unfinishedSubtrees.incrementAndGet();
+            pendingSubtrees.add(rest);
+            return first;
+        }
+
+        private boolean shouldSplit() {
+            return !closed
+                && pendingSubtrees.size() < minPendingSubtrees
+                && (!preserveOrder || subtreesInFlight.get() + 2 <= maxSubtreesInFlight);
+        }
+
+        private void putAll(BlockingQueue<Object> rows, Stream<DataBag> subtreeRows) throws InterruptedException {
+            Iterator<DataBag> iterator = subtreeRows.iterator();
+            while (iterator.hasNext() && !closed) {
+                rows.put(iterator.next());
+            }
+        }
+
+        private void finish(Subtree subtree) throws InterruptedException {
+            if (preserveOrder) {
+                subtree.rows.put(endOfSubtree);
+            }
+
+            if (unfinishedSubtrees.decrementAndGet() == 0) {
+                if (!preserveOrder) {
+                    sharedRows.put(endOfWalk);
+                }
+                // nothing more will be split off, the workers waiting for subtrees can stop
+                for (int index = 0; index < threadCount; index++) {
+                    pendingSubtrees.add(noMoreSubtrees);
+                }
+            }
+        }
+
+        /**
+         * Passes the failure to the consumer in place of the rest of the subtree's rows
+         */
+        private void reportFailure(Subtree subtree, WalkFailure failure) {
+            try {
+                if (preserveOrder) {
+                    subtree.rows.put(failure);
+                } else {
+                    sharedRows.put(failure);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private BlockingQueue<Object> createBuffer() {
+            if (!preserveOrder) {
+                return sharedRows;
+            }
+
+            subtreesInFlight.incrementAndGet();
+            return new ArrayBlockingQueue<>(rowBufferSize);
+        }
+
+        private Object takeOrderedItem() {
+            while (!buffersToEmit.isEmpty()) {
+                Object item = take(buffersToEmit.peek());
+                if (item != endOfSubtree && !(item instanceof Split)) {
+                    return item;
+                }
+
+                buffersToEmit.pop();
+                subtreesInFlight.decrementAndGet();
+                if (item instanceof Split) {
+                    buffersToEmit.push(((Split) item).rest);
+                    buffersToEmit.push(((Split) item).first);
+                }
+            }
+
+            return endOfWalk;
+        }
+
+        private <T> T take(BlockingQueue<T> queue) {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IllegalStateException("Interrupted whilst waiting for a subtree to be walked", e);
+            }
+        }
+    }
+
+    private static class WalkFailure {
+        private final Throwable cause;
+
+        WalkFailure(Throwable cause) {
+            this.cause = cause;
+        }
+    }
+}
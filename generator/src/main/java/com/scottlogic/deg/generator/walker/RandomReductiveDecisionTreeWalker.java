@@ -1,39 +1,105 @@
 package com.scottlogic.deg.generator.walker;
 
 import com.google.inject.Inject;
+import com.scottlogic.deg.common.profile.Field;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
-import com.scottlogic.deg.generator.fieldspecs.RowSpec;
 import com.scottlogic.deg.generator.generation.databags.DataBag;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+import com.scottlogic.deg.generator.utils.RandomStreams;
+import com.scottlogic.deg.generator.walker.reductive.Merged;
+import com.scottlogic.deg.generator.walker.reductive.ReductiveState;
+import com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy.FixFieldStrategy;
+import com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy.FixFieldStrategyFactory;
 
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
+/**
+ * Produces rows by repeatedly descending the tree, fixing each field to the first random value that doesn't
+ * contradict the values already fixed, and backtracking when a subtree cannot produce a row.
+ *
+ * The initial step and the fixing strategy are created once per tree rather than per row, and each row is produced
+ * by iterating over the values directly rather than setting up a stream pipeline per step.
+ *
+ * Each attempt at a row draws its random values from a stream for that attempt of this tree's partition, identified by
+ * its position in the partitioner's order rather than the order partitions are walked in, so the rows don't depend on
+ * which thread walks the tree or on what else that thread has generated.
+ */
 public class RandomReductiveDecisionTreeWalker implements DecisionTreeWalker {
     private final ReductiveDecisionTreeWalker underlyingWalker;
+    private final FixFieldStrategyFactory fixFieldStrategyFactory;
+    private final RandomStreams randomStreams;
 
     @Inject
-    RandomReductiveDecisionTreeWalker(ReductiveDecisionTreeWalker underlyingWalker) {
+    RandomReductiveDecisionTreeWalker(
+        ReductiveDecisionTreeWalker underlyingWalker,
+        FixFieldStrategyFactory fixFieldStrategyFactory,
+        RandomStreams randomStreams) {
         this.underlyingWalker = underlyingWalker;
+        this.fixFieldStrategyFactory = fixFieldStrategyFactory;
+        this.randomStreams = randomStreams;
     }
 
     @Override
     public Stream<DataBag> walk(DecisionTree tree) {
-        Optional<DataBag> firstRowSpecOpt = getFirstRowSpecFromRandomisingIteration(tree);
+        ReductiveStep initialStep = underlyingWalker.createInitialStep(tree);
+        FixFieldStrategy fixFieldStrategy = fixFieldStrategyFactory.create(tree.getRootNode());
+        long partitionNumber = tree.getPartitionNumber();
+        AtomicLong rowNumber = new AtomicLong();
+
+        Optional<DataBag> firstRowOpt = getRandomRow(initialStep, fixFieldStrategy, partitionNumber, rowNumber);
         //noinspection OptionalIsPresent
-        if (!firstRowSpecOpt.isPresent()) {
+        if (!firstRowOpt.isPresent()) {
             return Stream.empty();
         }
 
         return Stream.concat(
-            Stream.of(firstRowSpecOpt.get()),
+            Stream.of(firstRowOpt.get()),
             Stream.generate(() ->
-                getFirstRowSpecFromRandomisingIteration(tree))
+                getRandomRow(initialStep, fixFieldStrategy, partitionNumber, rowNumber))
                     .filter(Optional::isPresent)
                     .map(Optional::get));
     }
 
-    private Optional<DataBag> getFirstRowSpecFromRandomisingIteration(DecisionTree tree) {
-        return underlyingWalker.walk(tree)
-            .findFirst();
+    private Optional<DataBag> getRandomRow(
+        ReductiveStep initialStep,
+        FixFieldStrategy fixFieldStrategy,
+        long partitionNumber,
+        AtomicLong rowNumber) {
+        randomStreams.useStreamForRow(partitionNumber, rowNumber.getAndIncrement());
+        return getRandomRow(initialStep, fixFieldStrategy);
+    }
+
+    private Optional<DataBag> getRandomRow(ReductiveStep step, FixFieldStrategy fixFieldStrategy) {
+        ReductiveState state = step.getState();
+        if (state.allFieldsAreFixed()) {
+            return Optional.of(state.asDataBag());
+        }
+
+        Field fieldToFix = fixFieldStrategy.getNextFieldToFix(state);
+        Iterator<DataBagValue> values = underlyingWalker
+            .getValuesForField(step.getTree(), state, fieldToFix)
+            .iterator();
+
+        while (values.hasNext()) {
+            Merged<ReductiveStep> nextStep = underlyingWalker.fixFieldToValue(
+                step.getTree(),
+                state,
+                fieldToFix,
+                values.next());
+
+            if (nextStep.isContradictory()) {
+                continue;
+            }
+
+            Optional<DataBag> row = getRandomRow(nextStep.get(), fixFieldStrategy);
+            if (row.isPresent()) {
+                return row;
+            }
+        }
+
+        return Optional.empty();
     }
 }
@@ -45,14 +45,40 @@ public class ReductiveDecisionTreeWalker implements DecisionTreeWalker {
     /* initialise the walker with a set (ReductiveState) of unfixed fields */
     @Override
     public Stream<DataBag> walk(DecisionTree tree) {
+        ReductiveStep initialStep = createInitialStep(tree);
+        FixFieldStrategy fixFieldStrategy = fixFieldStrategyFactory.create(tree.getRootNode());
+        return fixNextField(initialStep.getTree(), initialStep.getState(), fixFieldStrategy);
+    }
+
+    ReductiveStep createInitialStep(DecisionTree tree) {
         ReductiveState initialState = new ReductiveState(tree.fields);
         visualise(tree.getRootNode(), initialState);
-        FixFieldStrategy fixFieldStrategy = fixFieldStrategyFactory.create(tree.getRootNode());
-        return fixNextField(tree.getRootNode(), initialState, fixFieldStrategy);
+        return new ReductiveStep(tree.getRootNode(), initialState);
     }
 
-    private Stream<DataBag> fixNextField(ConstraintNode tree, ReductiveState reductiveState, FixFieldStrategy fixFieldStrategy) {
+    Stream<DataBag> fixNextField(ConstraintNode tree, ReductiveState reductiveState, FixFieldStrategy fixFieldStrategy) {
         Field fieldToFix = fixFieldStrategy.getNextFieldToFix(reductiveState);
+        Stream<DataBagValue> values = getValuesForField(tree, reductiveState, fieldToFix);
+
+        return FlatMappingSpliterator.flatMap(
+            values,
+            dataBagValue -> pruneTreeForNextValue(tree, reductiveState, fixFieldStrategy, fieldToFix, dataBagValue));
+    }
+
+    /**
+     * Continue walking the tree from the given step until all fields are fixed
+     * @param step the pruned tree and state produced by fixing a field to a value
+     * @return the rows that can be produced from the step
+     */
+    Stream<DataBag> walkFrom(ReductiveStep step, FixFieldStrategy fixFieldStrategy) {
+        if (step.getState().allFieldsAreFixed()) {
+            return Stream.of(step.getState().asDataBag());
+        }
+
+        return fixNextField(step.getTree(), step.getState(), fixFieldStrategy);
+    }
+
+    Stream<DataBagValue> getValuesForField(ConstraintNode tree, ReductiveState reductiveState, Field fieldToFix) {
         Set<FieldSpec> nextFieldSpecs = reductiveFieldSpecBuilder.getDecisionFieldSpecs(tree, fieldToFix);
 
         if (nextFieldSpecs.isEmpty()){
@@ -60,17 +86,16 @@ public class ReductiveDecisionTreeWalker implements DecisionTreeWalker {
             return Stream.empty();
         }
 
-        Stream<DataBagValue> values = fieldSpecValueGenerator.generate(nextFieldSpecs);
-
-        return FlatMappingSpliterator.flatMap(
-            values,
-            dataBagValue -> pruneTreeForNextValue(tree, reductiveState, fixFieldStrategy, fieldToFix, dataBagValue));
+        return fieldSpecValueGenerator.generate(nextFieldSpecs);
     }
 
-    private Stream<DataBag> pruneTreeForNextValue(
+    /**
+     * Fix the field to the given value and prune the tree of any branches that contradict it
+     * @return the pruned tree and new state, or Merged.contradictory() if the value cannot be used
+     */
+    Merged<ReductiveStep> fixFieldToValue(
         ConstraintNode tree,
         ReductiveState reductiveState,
-        FixFieldStrategy fixFieldStrategy,
         Field field,
         DataBagValue fieldValue){
 
@@ -79,7 +104,7 @@ public class ReductiveDecisionTreeWalker implements DecisionTreeWalker {
         if (reducedTree.isContradictory()){
             //yielding an empty stream will cause back-tracking
             this.monitor.unableToStepFurther(reductiveState);
-            return Stream.empty();
+            return Merged.contradictory();
         }
 
         monitor.fieldFixedToValue(field, fieldValue.getFormattedValue());
@@ -88,11 +113,23 @@ public class ReductiveDecisionTreeWalker implements DecisionTreeWalker {
             reductiveState.withFixedFieldValue(field, fieldValue);
         visualise(reducedTree.get(), newReductiveState);
 
-        if (newReductiveState.allFieldsAreFixed()) {
-            return Stream.of(newReductiveState.asDataBag());
+        return Merged.of(new ReductiveStep(reducedTree.get(), newReductiveState));
+    }
+
+    private Stream<DataBag> pruneTreeForNextValue(
+        ConstraintNode tree,
+        ReductiveState reductiveState,
+        FixFieldStrategy fixFieldStrategy,
+        Field field,
+        DataBagValue fieldValue){
+
+        Merged<ReductiveStep> step = fixFieldToValue(tree, reductiveState, field, fieldValue);
+
+        if (step.isContradictory()){
+            return Stream.empty();
         }
 
-        return fixNextField(reducedTree.get(), newReductiveState, fixFieldStrategy);
+        return walkFrom(step.get(), fixFieldStrategy);
     }
 
     private void visualise(ConstraintNode rootNode, ReductiveState reductiveState){
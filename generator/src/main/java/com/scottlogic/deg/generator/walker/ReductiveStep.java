@@ -0,0 +1,25 @@
+package com.scottlogic.deg.generator.walker;
+
+import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
+import com.scottlogic.deg.generator.walker.reductive.ReductiveState;
+
+/**
+ * The tree and state reached by the reductive walker once a field has been fixed to a value
+ */
+class ReductiveStep {
+    private final ConstraintNode tree;
+    private final ReductiveState state;
+
+    ReductiveStep(ConstraintNode tree, ReductiveState state) {
+        this.tree = tree;
+        this.state = state;
+    }
+
+    ConstraintNode getTree() {
+        return tree;
+    }
+
+    ReductiveState getState() {
+        return state;
+    }
+}
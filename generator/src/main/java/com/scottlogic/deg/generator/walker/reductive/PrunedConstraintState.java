@@ -2,6 +2,7 @@ package com.scottlogic.deg.generator.walker.reductive;
 
 import com.scottlogic.deg.common.profile.Field;
 import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
+import com.scottlogic.deg.generator.decisiontree.AtomicConstraintInterner;
 import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
 import com.scottlogic.deg.generator.decisiontree.DecisionNode;
 import com.scottlogic.deg.generator.decisiontree.TreeConstraintNode;
@@ -9,16 +10,19 @@ import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 class PrunedConstraintState {
 
+    private final AtomicConstraintInterner interner;
     private final Collection<AtomicConstraint> newAtomicConstraints;
     private final Collection<DecisionNode> newDecisionNodes = new ArrayList<>();
     private final Collection<AtomicConstraint> pulledUpAtomicConstraints = new ArrayList<>();
 
     PrunedConstraintState(ConstraintNode constraintNode){
+        interner = constraintNode.getInterner();
         newAtomicConstraints = new ArrayList<>(constraintNode.getAtomicConstraints());
     }
 
@@ -39,7 +43,7 @@ class PrunedConstraintState {
     }
 
     ConstraintNode getNewConstraintNode() {
-        return new TreeConstraintNode(newAtomicConstraints, newDecisionNodes);
+        return new TreeConstraintNode(newAtomicConstraints, newDecisionNodes, Collections.emptySet(), interner);
     }
 
     Map<Field, FieldSpec> addPulledUpFieldsToMap(Map<Field, FieldSpec> previousFieldSpecs) {
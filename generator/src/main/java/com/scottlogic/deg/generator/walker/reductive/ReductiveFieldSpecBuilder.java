@@ -9,29 +9,50 @@ import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpec;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
 import com.scottlogic.deg.generator.reducer.ConstraintReducer;
+import com.scottlogic.deg.generator.utils.LruCache;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class ReductiveFieldSpecBuilder {
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
 
     private final ConstraintReducer constraintReducer;
     private final FieldSpecMerger fieldSpecMerger;
+    private final LruCache<FieldSpecKey, Set<FieldSpec>> fieldSpecCache;
 
     @Inject
     public ReductiveFieldSpecBuilder(ConstraintReducer constraintReducer, FieldSpecMerger fieldSpecMerger) {
+        this(constraintReducer, fieldSpecMerger, DEFAULT_CACHE_SIZE);
+    }
+
+    public ReductiveFieldSpecBuilder(ConstraintReducer constraintReducer, FieldSpecMerger fieldSpecMerger, int cacheSize) {
         this.constraintReducer = constraintReducer;
         this.fieldSpecMerger = fieldSpecMerger;
+        this.fieldSpecCache = new LruCache<>(cacheSize);
     }
 
     /**
      * creates a FieldSpec for a field for the current state of the tree
      * FieldSpec to be used for generating values
+     *
+     * The tree pruner returns the same node when fixing a field doesn't change the tree, so the FieldSpecs are cached
+     * against the node instance and are reused by sibling values rather than being merged again.
      * @param rootNode of the tree to create the fieldSpec for
      * @param field to create the fieldSpec for
      * @return fieldSpec with mustContains restriction if not contradictory, otherwise Optional.empty()
      */
     public Set<FieldSpec> getDecisionFieldSpecs(ConstraintNode rootNode, Field field){
+        return fieldSpecCache.computeIfAbsent(
+            new FieldSpecKey(rootNode, field),
+            key -> createDecisionFieldSpecs(rootNode, field));
+    }
+
+    public LruCache<?, ?> getFieldSpecCache() {
+        return fieldSpecCache;
+    }
+
+    private Set<FieldSpec> createDecisionFieldSpecs(ConstraintNode rootNode, Field field){
         List<AtomicConstraint> constraintsForRootNode =
             AtomicConstraintsHelper.getConstraintsForField(rootNode.getAtomicConstraints(), field);
 
@@ -76,4 +97,27 @@ public class ReductiveFieldSpecBuilder {
             .collect(Collectors.toSet());
     }
 
+    private static class FieldSpecKey {
+        private final ConstraintNode constraintNode;
+        private final Field field;
+
+        FieldSpecKey(ConstraintNode constraintNode, Field field) {
+            this.constraintNode = constraintNode;
+            this.field = field;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            FieldSpecKey that = (FieldSpecKey) o;
+            return constraintNode == that.constraintNode &&
+                Objects.equals(field, that.field);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(constraintNode), field);
+        }
+    }
 }
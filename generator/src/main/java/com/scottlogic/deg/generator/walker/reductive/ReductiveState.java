@@ -8,35 +8,74 @@ import com.scottlogic.deg.generator.generation.databags.DataBagValue;
 import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * The fields that have been fixed so far by the reductive walker.
+ *
+ * Each state only records the most recently fixed field and points to the state it was derived from, so fixing a
+ * field doesn't copy the values of the fields fixed before it. A bit set of the fixed field indexes is kept so that
+ * checking whether a field is fixed doesn't need to walk the chain of states.
+ */
 public class ReductiveState {
 
     private final ProfileFields fields;
-    private final Map<Field, DataBagValue> fieldValues;
+    private final Map<Field, Integer> fieldIndexes;
+    private final ReductiveState parent;
+    private final Field fixedField;
+    private final DataBagValue fixedValue;
+    private final BitSet fixedFieldIndexes;
+    private final int fixedFieldCount;
 
     public ReductiveState(ProfileFields fields) {
-        this(fields, new HashMap<>());
+        this(fields, indexFields(fields), null, null, null, new BitSet(fields.size()), 0);
     }
 
     private ReductiveState(
         ProfileFields fields,
-        Map<Field, DataBagValue> fieldValues) {
+        Map<Field, Integer> fieldIndexes,
+        ReductiveState parent,
+        Field fixedField,
+        DataBagValue fixedValue,
+        BitSet fixedFieldIndexes,
+        int fixedFieldCount) {
         this.fields = fields;
-        this.fieldValues = fieldValues;
+        this.fieldIndexes = fieldIndexes;
+        this.parent = parent;
+        this.fixedField = fixedField;
+        this.fixedValue = fixedValue;
+        this.fixedFieldIndexes = fixedFieldIndexes;
+        this.fixedFieldCount = fixedFieldCount;
     }
 
     public ReductiveState withFixedFieldValue(Field field, DataBagValue value) {
-        Map<Field, DataBagValue> newFixedFieldsMap = new HashMap<>(fieldValues);
-        newFixedFieldsMap.put(field, value);
+        Integer fieldIndex = fieldIndexes.get(field);
+        if (fieldIndex == null) {
+            throw new IllegalArgumentException("Field " + field + " is not one of the fields being generated");
+        }
+        if (fixedFieldIndexes.get(fieldIndex)) {
+            throw new IllegalStateException("Field " + field + " has already been fixed");
+        }
+
+        BitSet newFixedFieldIndexes = (BitSet) fixedFieldIndexes.clone();
+        newFixedFieldIndexes.set(fieldIndex);
 
-        return new ReductiveState(fields, newFixedFieldsMap);
+        return new ReductiveState(fields, fieldIndexes, this, field, value, newFixedFieldIndexes, fixedFieldCount + 1);
     }
 
     public boolean allFieldsAreFixed() {
-        return fieldValues.size() == fields.size();
+        return fixedFieldCount == fields.size();
     }
 
     public boolean isFieldFixed(Field field) {
-        return fieldValues.containsKey(field);
+        Integer fieldIndex = fieldIndexes.get(field);
+        return fieldIndex != null && fixedFieldIndexes.get(fieldIndex);
+    }
+
+    public boolean hasField(Field field) {
+        return fieldIndexes.containsKey(field);
+    }
+
+    public int getFixedFieldCount() {
+        return fixedFieldCount;
     }
 
     @Override
@@ -44,16 +83,23 @@ public class ReductiveState {
         return toString(false);
     }
 
+    /**
+     * Collects the values of all fixed fields, this walks the chain of states so should not be used per step
+     */
     public Map<Field, DataBagValue> getFieldValues() {
-        return this.fieldValues;
+        Map<Field, DataBagValue> fieldValues = new HashMap<>();
+        for (ReductiveState state = this; state.fixedField != null; state = state.parent) {
+            fieldValues.put(state.fixedField, state.fixedValue);
+        }
+        return fieldValues;
     }
 
     public String toString(boolean detailAllFields) {
-        if (fieldValues.size() > 10 && !detailAllFields){
-            return String.format("Fixed fields: %d of %d", this.fieldValues.size(), this.fields.size());
+        if (fixedFieldCount > 10 && !detailAllFields){
+            return String.format("Fixed fields: %d of %d", this.fixedFieldCount, this.fields.size());
         }
 
-        return String.join(", ", fieldValues.entrySet()
+        return String.join(", ", getFieldValues().entrySet()
             .stream()
             .sorted(Comparator.comparing(ff -> ff.getKey().toString()))
             .map(ff -> String.format("%s: %s", ff.getKey(), ff.getValue().getFormattedValue()))
@@ -65,6 +111,14 @@ public class ReductiveState {
     }
 
     public DataBag asDataBag() {
-        return new DataBag(fieldValues);
+        return new DataBag(getFieldValues());
+    }
+
+    private static Map<Field, Integer> indexFields(ProfileFields fields) {
+        Map<Field, Integer> fieldIndexes = new HashMap<>();
+        for (Field field : fields) {
+            fieldIndexes.put(field, fieldIndexes.size());
+        }
+        return fieldIndexes;
     }
 }
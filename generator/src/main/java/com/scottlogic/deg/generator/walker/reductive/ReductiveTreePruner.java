@@ -9,32 +9,52 @@ import com.scottlogic.deg.generator.fieldspecs.FieldSpecHelper;
 import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
 import com.scottlogic.deg.generator.generation.databags.DataBagValue;
 import com.scottlogic.deg.generator.reducer.ConstraintReducer;
+import com.scottlogic.deg.generator.utils.LruCache;
 
 import java.util.*;
 
 public class ReductiveTreePruner {
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
 
     private final FieldSpecMerger merger;
     private final ConstraintReducer constraintReducer;
     private final FieldSpecHelper fieldSpecHelper;
+    private final LruCache<PruneKey, Merged<ConstraintNode>> pruneCache;
 
     @Inject
     public ReductiveTreePruner(FieldSpecMerger merger, ConstraintReducer constraintReducer, FieldSpecHelper fieldSpecHelper) {
+        this(merger, constraintReducer, fieldSpecHelper, DEFAULT_CACHE_SIZE);
+    }
+
+    public ReductiveTreePruner(FieldSpecMerger merger, ConstraintReducer constraintReducer, FieldSpecHelper fieldSpecHelper, int cacheSize) {
         this.merger = merger;
         this.constraintReducer = constraintReducer;
         this.fieldSpecHelper = fieldSpecHelper;
+        this.pruneCache = new LruCache<>(cacheSize);
     }
 
     /**
      * Prunes a tree of any branches that are contradictory to the value of the nextFixedField
+     * Trees are immutable, so the result for the same tree instance, field and value is cached and returned again
      * @param constraintNode The Tree to be pruned
      * @param value the field and value to prune for.
      * @return A pruned tree if the new tree is valid, Merged.contradictory otherwise
      */
     public Merged<ConstraintNode> pruneConstraintNode(ConstraintNode constraintNode, Field field, DataBagValue value) {
-        Map<Field, FieldSpec> fieldToSpec = new HashMap<>();
-        fieldToSpec.put(field, fieldSpecHelper.getFieldSpecForValue(value));
-        return pruneConstraintNode(constraintNode, fieldToSpec);
+        return pruneCache.computeIfAbsent(
+            new PruneKey(constraintNode, field, value),
+            key -> {
+                Map<Field, FieldSpec> fieldToSpec = new HashMap<>();
+                fieldToSpec.put(field, fieldSpecHelper.getFieldSpecForValue(value));
+                return pruneConstraintNode(constraintNode, fieldToSpec);
+            });
+    }
+
+    /**
+     * @return the hits, misses and evictions of the prune cache
+     */
+    public LruCache<?, ?> getPruneCache() {
+        return pruneCache;
     }
 
     private Merged<ConstraintNode> pruneConstraintNode(ConstraintNode constraintNode, Map<Field, FieldSpec> fieldSpecs) {
@@ -44,6 +64,7 @@ public class ReductiveTreePruner {
         }
 
         PrunedConstraintState state = new PrunedConstraintState(constraintNode);
+        boolean decisionsUnchanged = true;
         for (DecisionNode decision : constraintNode.getDecisions()) {
 
             Merged<DecisionNode> prunedDecisionNode = pruneDecisionNode(decision, newFieldSpecs.get());
@@ -51,6 +72,7 @@ public class ReductiveTreePruner {
                 return Merged.contradictory();
             }
 
+            decisionsUnchanged &= prunedDecisionNode.get() == decision;
             state.addPrunedDecision(prunedDecisionNode.get());
         }
 
@@ -60,20 +82,32 @@ public class ReductiveTreePruner {
                 state.addPulledUpFieldsToMap(fieldSpecs));
         }
 
+        // keep the existing instance where nothing was pruned, so that later prunes can be served from the cache
+        if (decisionsUnchanged) {
+            return Merged.of(constraintNode);
+        }
+
         return Merged.of(state.getNewConstraintNode());
     }
 
     private Merged<DecisionNode> pruneDecisionNode(DecisionNode decisionNode,  Map<Field, FieldSpec> fieldSpecs) {
         Collection<ConstraintNode> newConstraintNodes = new ArrayList<>();
+        boolean optionsUnchanged = true;
 
         for (ConstraintNode constraintNode : decisionNode.getOptions()) {
-            pruneConstraintNode(constraintNode, fieldSpecs).ifPresent(newConstraintNodes::add);
+            Merged<ConstraintNode> prunedOption = pruneConstraintNode(constraintNode, fieldSpecs);
+            prunedOption.ifPresent(newConstraintNodes::add);
+            optionsUnchanged &= !prunedOption.isContradictory() && prunedOption.get() == constraintNode;
         }
 
         if (newConstraintNodes.isEmpty()) {
             return Merged.contradictory();
         }
 
+        if (optionsUnchanged) {
+            return Merged.of(decisionNode);
+        }
+
         return Merged.of(new TreeDecisionNode(newConstraintNodes));
     }
 
@@ -135,4 +169,35 @@ public class ReductiveTreePruner {
         map.get(constraint.getField())
             .add(constraint);
     }
+
+    /**
+     * Identifies a prune by the instance of the tree, rather than by value, as comparing trees by value costs
+     * as much as pruning them
+     */
+    private static class PruneKey {
+        private final ConstraintNode constraintNode;
+        private final Field field;
+        private final DataBagValue value;
+
+        PruneKey(ConstraintNode constraintNode, Field field, DataBagValue value) {
+            this.constraintNode = constraintNode;
+            this.field = field;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            PruneKey that = (PruneKey) o;
+            return constraintNode == that.constraintNode &&
+                Objects.equals(field, that.field) &&
+                Objects.equals(value, that.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(constraintNode), field, value);
+        }
+    }
 }
@@ -25,7 +25,7 @@ public class FieldAppearanceFixingStrategy implements FixFieldStrategy {
     @Override
     public Field getNextFieldToFix(ReductiveState reductiveState) {
         return fieldsInFixingOrder.stream()
-            .filter(field -> !reductiveState.isFieldFixed(field) && reductiveState.getFields().stream().anyMatch(pf -> pf.equals(field)))
+            .filter(field -> !reductiveState.isFieldFixed(field) && reductiveState.hasField(field))
             .findFirst()
             .orElse(null);
     }
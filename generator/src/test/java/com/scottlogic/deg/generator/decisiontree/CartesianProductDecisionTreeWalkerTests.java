@@ -7,6 +7,7 @@ import com.scottlogic.deg.common.profile.Rule;
 import com.scottlogic.deg.common.profile.RuleInformation;
 import com.scottlogic.deg.common.profile.constraints.grammatical.ConditionalConstraint;
 import com.scottlogic.deg.common.profile.constraints.atomic.IsInSetConstraint;
+import com.scottlogic.deg.common.profile.constraints.atomic.IsNullConstraint;
 import com.scottlogic.deg.generator.generation.databags.DataBag;
 import com.scottlogic.deg.generator.generation.databags.RowSpecDataBagGenerator;
 import com.scottlogic.deg.generator.reducer.ConstraintReducer;
@@ -22,9 +23,12 @@ import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class CartesianProductDecisionTreeWalkerTests {
@@ -66,6 +70,38 @@ class CartesianProductDecisionTreeWalkerTests {
                 Stream.of(mock(DataBag.class)),
                 Stream.of(mock(DataBag.class))
             );
+        Profile profile = countryProfile();
+
+        final DecisionTree merged = this.dTreeGenerator.analyse(profile);
+
+        final List<DataBag> rowSpecs = dTreeWalker
+            .walk(merged)
+            .collect(Collectors.toList());
+
+        Assert.assertThat(rowSpecs, notNullValue());
+    }
+
+    @Test
+    void walk_withContradictingOptions_onlyCreatesDataForConsistentCombinations() {
+        when(dataBagSourceFactory.createDataBags(any())).thenAnswer(invocation -> Stream.of(mock(DataBag.class)));
+        Profile countryProfile = countryProfile();
+        Field country = countryProfile.getFields().getByName("country");
+        List<Rule> rules = new ArrayList<>(countryProfile.getRules());
+        rules.add(new Rule(
+            rule("country is not null"),
+            Collections.singletonList(new IsNullConstraint(country, rules()).negate())));
+        DecisionTree tree = this.dTreeGenerator.analyse(new Profile(countryProfile.getFields(), rules));
+
+        List<DataBag> rows = dTreeWalker
+            .walk(tree)
+            .collect(Collectors.toList());
+
+        // country is US, GB or neither; every other combination of the conditions contradicts
+        Assert.assertThat(rows.size(), equalTo(3));
+        verify(dataBagSourceFactory, times(3)).createDataBags(any());
+    }
+
+    private static Profile countryProfile() {
         final Field country = new Field("country");
         final Field currency = new Field("currency");
         final Field city = new Field("city");
@@ -122,15 +158,7 @@ class CartesianProductDecisionTreeWalkerTests {
                             Collections.singleton("GBP"),
                             rules())))));
 
-        Profile profile = new Profile(fields, dummyRules);
-
-        final DecisionTree merged = this.dTreeGenerator.analyse(profile);
-
-        final List<DataBag> rowSpecs = dTreeWalker
-            .walk(merged)
-            .collect(Collectors.toList());
-
-        Assert.assertThat(rowSpecs, notNullValue());
+        return new Profile(fields, dummyRules);
     }
 
     private static Set<RuleInformation> rules(){
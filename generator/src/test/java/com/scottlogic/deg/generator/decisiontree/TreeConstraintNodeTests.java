@@ -0,0 +1,96 @@
+package com.scottlogic.deg.generator.decisiontree;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.constraints.atomic.AtomicConstraint;
+import com.scottlogic.deg.common.profile.constraints.atomic.IsInSetConstraint;
+import com.scottlogic.deg.common.profile.constraints.atomic.IsNullConstraint;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class TreeConstraintNodeTests {
+    private final Field field = new Field("field");
+
+    @Test
+    void getAtomicConstraints_withEqualConstraints_shouldReturnEachConstraintOnce() {
+        AtomicConstraint first = new IsInSetConstraint(field, new HashSet<>(Arrays.asList(1, 2)), null);
+        AtomicConstraint second = new IsInSetConstraint(field, new HashSet<>(Arrays.asList(1, 2)), null);
+
+        ConstraintNode node = new TreeConstraintNode(first, second);
+
+        assertThat(node.getAtomicConstraints(), contains(sameInstance(first)));
+    }
+
+    @Test
+    void atomicConstraintExists_withEqualConstraintInstance_shouldReturnTrue() {
+        ConstraintNode node = new TreeConstraintNode(new IsNullConstraint(field, null));
+
+        assertThat(node.atomicConstraintExists(new IsNullConstraint(field, null)), is(true));
+        assertThat(node.atomicConstraintExists(new IsNullConstraint(field, null).negate()), is(false));
+    }
+
+    @Test
+    void cloneWithoutAtomicConstraint_withEqualConstraintInstance_shouldRemoveConstraint() {
+        AtomicConstraint remaining = new IsNullConstraint(field, null).negate();
+        ConstraintNode node = new TreeConstraintNode(new IsNullConstraint(field, null), remaining);
+
+        ConstraintNode result = node.cloneWithoutAtomicConstraint(new IsNullConstraint(field, null));
+
+        assertThat(result.getAtomicConstraints(), contains(sameInstance(remaining)));
+        assertThat(result.atomicConstraintExists(new IsNullConstraint(field, null)), is(false));
+    }
+
+    @Test
+    void equals_withSameConstraintsInDifferentOrder_shouldBeEqual() {
+        AtomicConstraint isNull = new IsNullConstraint(field, null);
+        AtomicConstraint inSet = new IsInSetConstraint(field, Collections.singleton(1), null);
+
+        ConstraintNode first = new TreeConstraintNode(isNull, inSet);
+        ConstraintNode second = new TreeConstraintNode(
+            new IsInSetConstraint(field, Collections.singleton(1), null),
+            new IsNullConstraint(field, null));
+
+        assertThat(first, equalTo(second));
+        assertThat(first.hashCode(), equalTo(second.hashCode()));
+        assertThat(first, not(equalTo(new TreeConstraintNode(isNull))));
+    }
+
+    @Test
+    void equals_withSameConstraintsFromTheSameInterner_shouldBeEqual() {
+        AtomicConstraintInterner interner = new AtomicConstraintInterner();
+
+        ConstraintNode first = new TreeConstraintNode(
+            Arrays.asList(new IsNullConstraint(field, null), new IsInSetConstraint(field, Collections.singleton(1), null)),
+            Collections.emptySet(),
+            Collections.emptySet(),
+            interner);
+        ConstraintNode second = new TreeConstraintNode(
+            Arrays.asList(new IsInSetConstraint(field, Collections.singleton(1), null), new IsNullConstraint(field, null)),
+            Collections.emptySet(),
+            Collections.emptySet(),
+            interner);
+
+        assertThat(first, equalTo(second));
+        assertThat(first.hashCode(), equalTo(second.hashCode()));
+    }
+
+    @Test
+    void getAtomicConstraintIds_withAnotherNodesInterner_shouldReturnTheIdsFromThatInterner() {
+        AtomicConstraint isNull = new IsNullConstraint(field, null);
+        ConstraintNode node = new TreeConstraintNode(isNull);
+        AtomicConstraintInterner otherInterner = new AtomicConstraintInterner();
+        otherInterner.intern(new IsInSetConstraint(field, Collections.singleton(1), null));
+
+        int[] ids = node.getAtomicConstraintIds(otherInterner).toArray();
+
+        assertThat(ids.length, equalTo(1));
+        assertThat(otherInterner.getCanonicalConstraint(ids[0]), equalTo(isNull));
+        assertThat(node.atomicConstraintExists(otherInterner, ids[0]), is(true));
+        assertThat(node.addAtomicConstraints(Collections.emptySet()).getInterner(), sameInstance(node.getInterner()));
+    }
+}
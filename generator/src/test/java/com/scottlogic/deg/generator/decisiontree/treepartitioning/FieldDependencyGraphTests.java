@@ -0,0 +1,86 @@
+package com.scottlogic.deg.generator.decisiontree.treepartitioning;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.common.profile.constraints.atomic.IsNullConstraint;
+import com.scottlogic.deg.generator.decisiontree.DecisionTree;
+import com.scottlogic.deg.generator.decisiontree.TreeConstraintNode;
+import com.scottlogic.deg.generator.decisiontree.TreeDecisionNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class FieldDependencyGraphTests {
+    private final Field a = new Field("A");
+    private final Field b = new Field("B");
+    private final Field c = new Field("C");
+    private final Field d = new Field("D");
+
+    @Test
+    void areDependent_withFieldsLinkedThroughTwoDecisions_shouldReturnTrue() {
+        FieldDependencyGraph graph = new FieldDependencyGraph(tree(
+            new TreeConstraintNode(
+                Collections.emptyList(),
+                Arrays.asList(
+                    decision(a, b),
+                    decision(b, c)))));
+
+        assertThat(graph.areDependent(a, c), is(true));
+        assertThat(graph.areDependent(a, d), is(false));
+    }
+
+    @Test
+    void getDependentFields_withUnconstrainedField_shouldReturnOnlyThatField() {
+        FieldDependencyGraph graph = new FieldDependencyGraph(tree(
+            new TreeConstraintNode(
+                Collections.singletonList(new IsNullConstraint(a, null)),
+                Collections.singletonList(decision(b, c)))));
+
+        assertThat(graph.getDependentFields(d), contains(d));
+        assertThat(graph.getDependentFields(c), contains(b, c));
+    }
+
+    @Test
+    void getDependentFieldGroups_shouldGroupFieldsInProfileOrder() {
+        FieldDependencyGraph graph = new FieldDependencyGraph(tree(
+            new TreeConstraintNode(
+                Collections.emptyList(),
+                Arrays.asList(
+                    decision(d, a),
+                    decision(c)))));
+
+        assertThat(graph.getDependentFieldGroups(), contains(
+            contains(a, d),
+            contains(b),
+            contains(c)));
+    }
+
+    @Test
+    void getDependentFields_withFieldsInNestedDecisions_shouldReturnAllOfThem() {
+        FieldDependencyGraph graph = new FieldDependencyGraph(tree(
+            new TreeConstraintNode(
+                Collections.emptyList(),
+                Collections.singletonList(new TreeDecisionNode(
+                    new TreeConstraintNode(
+                        Collections.emptyList(),
+                        Arrays.asList(decision(a), decision(b, c))))))));
+
+        assertThat(graph.getDependentFields(a), contains(a, b, c));
+        assertThat(graph.getDependentFields(d), contains(d));
+    }
+
+    private TreeDecisionNode decision(Field... fields) {
+        return new TreeDecisionNode(
+            Arrays.stream(fields)
+                .map(field -> new TreeConstraintNode(new IsNullConstraint(field, null)))
+                .toArray(TreeConstraintNode[]::new));
+    }
+
+    private DecisionTree tree(TreeConstraintNode rootNode) {
+        return new DecisionTree(rootNode, new ProfileFields(Arrays.asList(a, b, c, d)), "");
+    }
+}
@@ -0,0 +1,44 @@
+package com.scottlogic.deg.generator.fieldspecs;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.generator.restrictions.SetRestrictions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+
+class RowSpecTests {
+    private final Field field = new Field("field");
+    private final ProfileFields fields = new ProfileFields(Collections.singletonList(field));
+
+    @Test
+    void equals_withSameFieldSpecs_shouldBeEqualWithEqualHashCodes() {
+        RowSpec rowSpec = rowSpec(FieldSpec.Empty.withSetRestrictions(SetRestrictions.fromWhitelist(Collections.singleton("a"))));
+        RowSpec other = rowSpec(FieldSpec.Empty.withSetRestrictions(SetRestrictions.fromWhitelist(Collections.singleton("a"))));
+
+        assertThat(rowSpec, equalTo(other));
+        assertThat(rowSpec.hashCode(), equalTo(other.hashCode()));
+    }
+
+    @Test
+    void equals_withDifferentFieldSpecs_shouldNotBeEqual() {
+        RowSpec rowSpec = rowSpec(FieldSpec.Empty.withSetRestrictions(SetRestrictions.fromWhitelist(Collections.singleton("a"))));
+        RowSpec other = rowSpec(FieldSpec.Empty.withSetRestrictions(SetRestrictions.fromWhitelist(Collections.singleton("b"))));
+
+        assertThat(rowSpec, not(equalTo(other)));
+
+        // and once the hash codes have been computed and kept
+        rowSpec.hashCode();
+        other.hashCode();
+        assertThat(rowSpec, not(equalTo(other)));
+        assertThat(other, not(equalTo(rowSpec)));
+    }
+
+    private RowSpec rowSpec(FieldSpec fieldSpec) {
+        return new RowSpec(fields, Collections.singletonMap(field, fieldSpec));
+    }
+}
@@ -0,0 +1,110 @@
+package com.scottlogic.deg.generator.generation.batches;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.generator.generation.combinationstrategies.CombinationStrategy;
+import com.scottlogic.deg.generator.generation.databags.DataBag;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+import org.junit.Assert;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.hamcrest.core.Is.is;
+
+/**
+ * Checks that a BatchCombinationStrategy produces the same rows, in the same order, as the equivalent
+ * CombinationStrategy. Each partition has a single field, named after the partition.
+ */
+class BatchCombinationStrategyTester {
+    private final BatchCombinationStrategy batchStrategy;
+    private final CombinationStrategy rowStrategy;
+    private final int batchSize;
+    private final List<Field> fields = new ArrayList<>();
+    private final List<List<DataBag>> partitions = new ArrayList<>();
+
+    BatchCombinationStrategyTester(BatchCombinationStrategy batchStrategy, CombinationStrategy rowStrategy, int batchSize) {
+        this.batchStrategy = batchStrategy;
+        this.rowStrategy = rowStrategy;
+        this.batchSize = batchSize;
+    }
+
+    BatchCombinationStrategyTester givenPartition(String fieldName, Object... values) {
+        Field field = new Field(fieldName);
+        fields.add(field);
+        partitions.add(Stream.of(values)
+            .map(value -> new DataBag(Collections.singletonMap(field, new DataBagValue(value))))
+            .collect(Collectors.toList()));
+        return this;
+    }
+
+    void expectSameRowsAsRowStrategy() {
+        List<DataBag> expected = rowStrategy
+            .permute(partitions.stream().map(List::stream))
+            .collect(Collectors.toList());
+
+        Assert.assertThat(getRows(), is(expected));
+    }
+
+    void expectSameRowsAsRowStrategyWhenRestartable() {
+        List<DataBag> expected = rowStrategy
+            .permute(partitions.stream().map(List::stream))
+            .collect(Collectors.toList());
+
+        Assert.assertThat(getRestartableRows(), is(expected));
+    }
+
+    void expectEmpty() {
+        Assert.assertThat(getRows(), is(Collections.emptyList()));
+    }
+
+    private List<DataBag> getRows() {
+        ProfileFields profileFields = new ProfileFields(fields);
+        FieldIndexes fieldIndexes = new FieldIndexes(profileFields);
+
+        List<Stream<RowBatch>> partitionBatches = IntStream.range(0, partitions.size())
+            .mapToObj(index -> batches(partitions.get(index), fields.get(index), fieldIndexes))
+            .collect(Collectors.toList());
+
+        return toDataBags(batchStrategy.permute(partitionBatches, fieldIndexes, batchSize), fieldIndexes);
+    }
+
+    private List<DataBag> getRestartableRows() {
+        ProfileFields profileFields = new ProfileFields(fields);
+        FieldIndexes fieldIndexes = new FieldIndexes(profileFields);
+
+        List<Supplier<Stream<RowBatch>>> partitionBatches = IntStream.range(0, partitions.size())
+            .mapToObj(index -> (Supplier<Stream<RowBatch>>)
+                () -> batches(partitions.get(index), fields.get(index), fieldIndexes))
+            .collect(Collectors.toList());
+
+        return toDataBags(batchStrategy.permuteRestartable(partitionBatches, fieldIndexes, batchSize), fieldIndexes);
+    }
+
+    private static List<DataBag> toDataBags(Stream<RowBatch> batches, FieldIndexes fieldIndexes) {
+        return batches
+            .flatMap(batch -> IntStream.range(0, batch.size()).mapToObj(row -> toDataBag(batch, row, fieldIndexes)))
+            .collect(Collectors.toList());
+    }
+
+    private Stream<RowBatch> batches(List<DataBag> rows, Field field, FieldIndexes fieldIndexes) {
+        Iterable<RowBatch> batches = () -> new DataBagBatchingIterator(
+            rows.iterator(),
+            new ProfileFields(Collections.singletonList(field)),
+            fieldIndexes,
+            batchSize);
+        return StreamSupport.stream(batches.spliterator(), false);
+    }
+
+    private static DataBag toDataBag(RowBatch batch, int row, FieldIndexes fieldIndexes) {
+        Map<Field, DataBagValue> values = new HashMap<>();
+        for (int column : batch.getPopulatedColumns()) {
+            values.put(fieldIndexes.fieldAt(column), batch.getValue(row, column));
+        }
+        return new DataBag(values);
+    }
+}
@@ -0,0 +1,50 @@
+package com.scottlogic.deg.generator.generation.batches;
+
+import com.scottlogic.deg.generator.generation.combinationstrategies.ExhaustiveCombinationStrategy;
+import com.scottlogic.deg.generator.generation.combinationstrategies.ReductiveCombinationStrategy;
+import org.junit.jupiter.api.Test;
+
+class CartesianBatchCombinationStrategyTests {
+
+    @Test
+    void permute_withTwoPartitions_combinesInTheSameWayAsExhaustiveCombinationStrategy() {
+        new BatchCombinationStrategyTester(new CartesianBatchCombinationStrategy(), new ExhaustiveCombinationStrategy(), 2)
+            .givenPartition("letters", "A", "B", "C")
+            .givenPartition("numbers", 1, 2, 3)
+            .expectSameRowsAsRowStrategy();
+    }
+
+    @Test
+    void permute_withPartitionsOfDifferentLengths_combinesInTheSameWayAsReductiveCombinationStrategy() {
+        new BatchCombinationStrategyTester(new CartesianBatchCombinationStrategy(), new ReductiveCombinationStrategy(), 4)
+            .givenPartition("single", "X")
+            .givenPartition("letters", "A", "B", "C")
+            .givenPartition("numbers", 1, 2, 3, 4, 5)
+            .expectSameRowsAsRowStrategy();
+    }
+
+    @Test
+    void permuteRestartable_withPartitionsLargerThanTheCache_combinesInTheSameWayAsExhaustiveCombinationStrategy() {
+        new BatchCombinationStrategyTester(new CartesianBatchCombinationStrategy(2), new ExhaustiveCombinationStrategy(), 2)
+            .givenPartition("letters", "A", "B", "C")
+            .givenPartition("numbers", 1, 2, 3, 4, 5)
+            .givenPartition("colours", "red", "green", "blue")
+            .expectSameRowsAsRowStrategyWhenRestartable();
+    }
+
+    @Test
+    void permuteRestartable_withPartitionsSmallerThanTheCache_combinesInTheSameWayAsExhaustiveCombinationStrategy() {
+        new BatchCombinationStrategyTester(new CartesianBatchCombinationStrategy(), new ExhaustiveCombinationStrategy(), 2)
+            .givenPartition("letters", "A", "B", "C")
+            .givenPartition("numbers", 1, 2, 3, 4, 5)
+            .expectSameRowsAsRowStrategyWhenRestartable();
+    }
+
+    @Test
+    void permute_withAnEmptyPartition_producesNoRows() {
+        new BatchCombinationStrategyTester(new CartesianBatchCombinationStrategy(), new ExhaustiveCombinationStrategy(), 2)
+            .givenPartition("letters", "A", "B", "C")
+            .givenPartition("empty")
+            .expectEmpty();
+    }
+}
@@ -0,0 +1,42 @@
+package com.scottlogic.deg.generator.generation.batches;
+
+import com.scottlogic.deg.generator.generation.combinationstrategies.MinimalCombinationStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MinimalBatchCombinationStrategyTests {
+    private BatchCombinationStrategyTester tester;
+
+    @BeforeEach
+    void beforeEach() {
+        tester = new BatchCombinationStrategyTester(
+            new MinimalBatchCombinationStrategy(),
+            new MinimalCombinationStrategy(),
+            2);
+    }
+
+    @Test
+    void permute_withPartitionsOfSameLength_combinesInTheSameWayAsMinimalCombinationStrategy() {
+        tester
+            .givenPartition("letters", "A", "B", "C")
+            .givenPartition("numbers", 1, 2, 3)
+            .expectSameRowsAsRowStrategy();
+    }
+
+    @Test
+    void permute_withPartitionsOfDifferentLengths_repeatsTheLastRowOfShorterPartitions() {
+        tester
+            .givenPartition("single", "X")
+            .givenPartition("letters", "A", "B", "C")
+            .givenPartition("numbers", 1, 2, 3, 4, 5)
+            .expectSameRowsAsRowStrategy();
+    }
+
+    @Test
+    void permute_withAnEmptyPartition_producesNoRows() {
+        tester
+            .givenPartition("letters", "A", "B", "C")
+            .givenPartition("empty")
+            .expectEmpty();
+    }
+}
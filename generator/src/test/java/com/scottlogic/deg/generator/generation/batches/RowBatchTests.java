@@ -0,0 +1,66 @@
+package com.scottlogic.deg.generator.generation.batches;
+
+import com.scottlogic.deg.common.output.GeneratedObject;
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RowBatchTests {
+    private final Field letters = new Field("letters");
+    private final Field numbers = new Field("numbers");
+    private final ProfileFields profileFields = new ProfileFields(Arrays.asList(letters, numbers));
+    private final FieldIndexes fieldIndexes = new FieldIndexes(profileFields);
+
+    @Test
+    void getFormattedValues_forEachRow_returnsTheRowsValuesInFieldOrder() {
+        RowBatch batch = batchOf(new Object[][] {{"A", 1}, {"B", 2}});
+
+        Assert.assertThat(batch.getRow(0).getFormattedValues(profileFields), is(new Object[] {"A", 1}));
+        Assert.assertThat(batch.getRow(1).getFormattedValues(profileFields), is(new Object[] {"B", 2}));
+    }
+
+    @Test
+    void getFormattedValues_withFieldsInADifferentOrder_returnsTheValuesInTheOrderAskedFor() {
+        RowBatch batch = batchOf(new Object[][] {{"A", 1}});
+        GeneratedObject row = batch.getRow(0);
+
+        row.getFormattedValues(profileFields);
+
+        Assert.assertThat(
+            row.getFormattedValues(new ProfileFields(Arrays.asList(numbers, letters))),
+            is(new Object[] {1, "A"}));
+    }
+
+    @Test
+    void getFormattedValues_withAFieldTheBatchHasNoColumnFor_throws() {
+        RowBatchBuilder builder = new RowBatchBuilder(fieldIndexes, new int[] {0}, 1);
+        builder.set(0, new DataBagValue("A"));
+        builder.endRow();
+        RowBatch batch = builder.build();
+
+        assertThrows(
+            IllegalStateException.class,
+            () -> batch.getRow(0).getFormattedValues(profileFields));
+        Assert.assertThat(
+            batch.getRow(0).getFormattedValues(new ProfileFields(Collections.singletonList(letters))),
+            is(new Object[] {"A"}));
+    }
+
+    private RowBatch batchOf(Object[][] rows) {
+        RowBatchBuilder builder = new RowBatchBuilder(fieldIndexes, new int[] {0, 1}, rows.length);
+        for (Object[] row : rows) {
+            builder.set(0, new DataBagValue(row[0]));
+            builder.set(1, new DataBagValue(row[1]));
+            builder.endRow();
+        }
+        return builder.build();
+    }
+}
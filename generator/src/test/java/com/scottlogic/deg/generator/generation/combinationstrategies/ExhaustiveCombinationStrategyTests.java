@@ -1,11 +1,19 @@
 package com.scottlogic.deg.generator.generation.combinationstrategies;
 
+import com.scottlogic.deg.generator.generation.databags.DataBag;
+import org.junit.Assert;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.scottlogic.deg.generator.generation.combinationstrategies.CombinationStrategyTester.bag;
+import static org.hamcrest.core.Is.is;
 
 class ExhaustiveCombinationStrategyTests {
     private CombinationStrategyTester tester;
@@ -75,4 +83,30 @@ class ExhaustiveCombinationStrategyTests {
 
         tester.expectEmpty();
     }
+
+    @Test
+    void permute_firstSequenceIsInfinite_combinesLazily() {
+        Stream<DataBag> results = new ExhaustiveCombinationStrategy().permute(Stream.of(
+            Stream.generate(() -> bag("X")),
+            Stream.of(bag("A"), bag("B"))));
+
+        Assert.assertThat(results.limit(4).count(), is(4L));
+    }
+
+    @Test
+    void permuteRestartable_sequenceLargerThanCache_producesSequenceAgainForEachCombination() {
+        AtomicInteger timesProduced = new AtomicInteger();
+        Supplier<Stream<DataBag>> letters = () -> Stream.of(bag("A"), bag("B"), bag("C"));
+        Supplier<Stream<DataBag>> numbers = () -> {
+            timesProduced.incrementAndGet();
+            return Stream.of(bag("1"), bag("2"));
+        };
+
+        List<DataBag> results = new ExhaustiveCombinationStrategy(1)
+            .permuteRestartable(Arrays.asList(letters, numbers))
+            .collect(Collectors.toList());
+
+        Assert.assertThat(results.size(), is(6));
+        Assert.assertThat(timesProduced.get(), is(3));
+    }
 }
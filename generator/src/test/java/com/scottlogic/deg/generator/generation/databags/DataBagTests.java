@@ -92,4 +92,28 @@ class DataBagTests {
             IllegalArgumentException.class,
             () -> DataBag.merge(dataBag1, dataBag2));
     }
+
+    @Test
+    void mergedDataBagsShouldEqualADataBagOfAllTheirValues() {
+        // ARRANGE
+        Field idField = new Field("id");
+        Field nameField = new Field("name");
+        Field priceField = new Field("price");
+
+        DataBag dataBag1 = new DataBagBuilder().set(priceField, 4).build();
+        DataBag dataBag2 = new DataBagBuilder().set(idField, 3).build();
+        DataBag dataBag3 = new DataBagBuilder().set(nameField, "foo").build();
+
+        // ACT
+        DataBag mergedDataBag = DataBag.merge(dataBag1, dataBag2, dataBag3);
+
+        // ASSERT
+        Assert.assertThat(
+            mergedDataBag,
+            equalTo(new DataBagBuilder()
+                .set(idField, 3)
+                .set(nameField, "foo")
+                .set(priceField, 4)
+                .build()));
+    }
 }
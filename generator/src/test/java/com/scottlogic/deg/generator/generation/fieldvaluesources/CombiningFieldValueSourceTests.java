@@ -0,0 +1,57 @@
+package com.scottlogic.deg.generator.generation.fieldvaluesources;
+
+import com.scottlogic.deg.generator.restrictions.NumericRestrictions;
+import com.scottlogic.deg.generator.utils.JavaUtilRandomNumberGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class CombiningFieldValueSourceTests {
+    private static final FieldValueSource nullOnlySource =
+        new CannedValuesFieldValueSource(Collections.singletonList(null));
+
+    @Test
+    void generateRandomValues_shouldDrawFromSourcesInProportionToValueCount() {
+        CombiningFieldValueSource source = new CombiningFieldValueSource(Arrays.asList(
+            new CannedValuesFieldValueSource(Arrays.asList("a", "b", "c")),
+            new CannedValuesFieldValueSource(Collections.singletonList("d"))));
+
+        assertThat(countDrawn(source, "d", 10000), both(greaterThan(2250)).and(lessThan(2750)));
+    }
+
+    @Test
+    void generateRandomValues_withNullAndHugeSource_shouldDrawNullAsOftenAsTheOtherSource() {
+        CombiningFieldValueSource source = new CombiningFieldValueSource(Arrays.asList(
+            new RealNumberFieldValueSource(new NumericRestrictions(), Collections.emptySet()),
+            nullOnlySource));
+
+        assertThat(countDrawn(source, null, 10000), both(greaterThan(4750)).and(lessThan(5250)));
+    }
+
+    @Test
+    void generateRandomValues_withSmallAndHugeSources_shouldStillDrawFromSmallSource() {
+        CombiningFieldValueSource source = new CombiningFieldValueSource(Arrays.asList(
+            new RealNumberFieldValueSource(new NumericRestrictions(), Collections.emptySet()),
+            new CannedValuesFieldValueSource(Collections.singletonList("a"))));
+
+        assertThat(countDrawn(source, "a", 100000), both(greaterThan(50)).and(lessThan(150)));
+    }
+
+    private static int countDrawn(FieldValueSource source, Object value, int draws) {
+        Iterator<Object> values = source.generateRandomValues(new JavaUtilRandomNumberGenerator(0)).iterator();
+
+        int count = 0;
+        for (int i = 0; i < draws; i++) {
+            Object drawn = values.next();
+            if (value == null ? drawn == null : value.equals(drawn)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -390,6 +390,33 @@ class RealNumberFieldValueSourceTests {
         Assert.assertThat(a, not(equalTo(b)));
     }
 
+    @Test
+    void getValueAt_withBlacklist_shouldMatchAllValues() {
+        givenLowerBound(0, true);
+        givenUpperBound(1, true);
+        givenScale(1);
+        givenBlacklist(0.1, 0.2, 0.5);
+
+        List<Object> allValues = new ArrayList<>();
+        getObjectUnderTest().generateAllValues().forEach(allValues::add);
+
+        for (int index = 0; index < allValues.size(); index++) {
+            Assert.assertThat(getObjectUnderTest().getValueAt(index), equalTo(allValues.get(index)));
+        }
+    }
+
+    @Test
+    void generateAllValues_withIndexRange_shouldStartPastLargeNumberOfValues() {
+        givenLowerBound(0, true);
+        givenScale(0);
+        givenBlacklist(5_000_000_000L);
+
+        List<Object> values = new ArrayList<>();
+        getObjectUnderTest().generateAllValues(4_999_999_999L, 5_000_000_001L).forEach(values::add);
+
+        Assert.assertThat(values, contains(new BigDecimal(4_999_999_999L), new BigDecimal(5_000_000_001L)));
+    }
+
     @Test
     public void interestingValuesInclusively_UpperLimitLargerThanConfig_IncludesConfigMax() {
         givenLowerBound(-10, true);
@@ -0,0 +1,83 @@
+package com.scottlogic.deg.generator.generation.fieldvaluesources;
+
+import com.scottlogic.deg.generator.restrictions.NumericLimit;
+import com.scottlogic.deg.generator.restrictions.NumericRestrictions;
+import com.scottlogic.deg.generator.utils.JavaUtilRandomNumberGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ScaledLongFieldValueSourceTests {
+    @Test
+    void toScaledLongSource_withDefaultLimits_shouldNotCreateSource() {
+        RealNumberFieldValueSource source = new RealNumberFieldValueSource(new NumericRestrictions(), Collections.emptySet());
+
+        assertThat(source.toScaledLongSource().isPresent(), is(false));
+    }
+
+    @Test
+    void generateAllValues_withBlacklist_shouldMatchRealNumberSource() {
+        RealNumberFieldValueSource source = realNumberSource(2, "-1.5", "1.5", 0.5, 1, "-1.49", 1.499);
+        FieldValueSource scaledSource = source.toScaledLongSource().get();
+
+        assertThat(values(scaledSource.generateAllValues()), equalTo(values(source.generateAllValues())));
+        assertThat(scaledSource.getValueCount(), equalTo(source.getValueCount()));
+    }
+
+    @Test
+    void generateInterestingValues_shouldMatchRealNumberSource() {
+        RealNumberFieldValueSource source = realNumberSource(0, "-1000000000000", "9000000000000", 0, 8999999999999L);
+        FieldValueSource scaledSource = source.toScaledLongSource().get();
+
+        assertThat(values(scaledSource.generateInterestingValues()), equalTo(values(source.generateInterestingValues())));
+    }
+
+    @Test
+    void generateRandomValues_shouldProduceValuesWithinLimitsAndNotBlacklisted() {
+        FieldValueSource source = realNumberSource(1, "0", "1", 0.5).toScaledLongSource().get();
+
+        Iterator<Object> values = source.generateRandomValues(new JavaUtilRandomNumberGenerator(0)).iterator();
+
+        Set<Object> generated = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            generated.add(values.next());
+        }
+        assertThat(
+            generated.stream().map(value -> ((BigDecimal) value).toPlainString()).collect(Collectors.toSet()),
+            containsInAnyOrder("0.0", "0.1", "0.2", "0.3", "0.4", "0.6", "0.7", "0.8", "0.9", "1.0"));
+    }
+
+    @Test
+    void generateRandomValues_withAllButOneValueBlacklisted_shouldProduceTheRemainingValue() {
+        FieldValueSource source = realNumberSource(1, "0", "1", 0, 0.1, 0.2, 0.3, 0.4, 0.6, 0.7, 0.8, 0.9, 1).toScaledLongSource().get();
+
+        Iterator<Object> values = source.generateRandomValues(new JavaUtilRandomNumberGenerator(0)).iterator();
+
+        assertThat(((BigDecimal) values.next()).toPlainString(), equalTo("0.5"));
+        assertThat(((BigDecimal) values.next()).toPlainString(), equalTo("0.5"));
+    }
+
+    @Test
+    void generateRandomValues_withEveryValueBlacklisted_shouldProduceNoValues() {
+        FieldValueSource source = realNumberSource(0, "1", "3", 1, 2, 3).toScaledLongSource().get();
+
+        assertThat(source.generateRandomValues(new JavaUtilRandomNumberGenerator(0)).iterator().hasNext(), is(false));
+    }
+
+    private static RealNumberFieldValueSource realNumberSource(int scale, String min, String max, Object... blacklist) {
+        NumericRestrictions restrictions = new NumericRestrictions(scale);
+        restrictions.min = new NumericLimit<>(new BigDecimal(min), true);
+        restrictions.max = new NumericLimit<>(new BigDecimal(max), true);
+        return new RealNumberFieldValueSource(restrictions, new HashSet<>(Arrays.asList(blacklist)));
+    }
+
+    private static List<Object> values(Iterable<Object> values) {
+        return StreamSupport.stream(values.spliterator(), false).collect(Collectors.toList());
+    }
+}
@@ -1,5 +1,6 @@
 package com.scottlogic.deg.generator.generation.fieldvaluesources.datetime;
 
+import com.scottlogic.deg.common.profile.constraintdetail.Timescale;
 import com.scottlogic.deg.generator.restrictions.DateTimeRestrictions;
 import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
 import org.junit.Assert;
@@ -11,6 +12,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
 
@@ -63,6 +65,66 @@ public class DateTimeFieldValueSourceTests {
     }
 
 
+    @Test
+    void getValueAt_withBlacklistedMonth_shouldSkipBlacklistedMonth() {
+        DateTimeRestrictions restrictions = new DateTimeRestrictions(Timescale.MONTHS);
+        restrictions.min = new DateTimeRestrictions.DateTimeLimit(createDate(2018, 1, 15), true);
+        restrictions.max = new DateTimeRestrictions.DateTimeLimit(createDate(2019, 1, 1), false);
+        fieldSource = new DateTimeFieldValueSource(restrictions, Collections.singleton(createDate(2018, 3, 1)));
+
+        Assert.assertThat(fieldSource.getValueAt(0), equalTo(createDate(2018, 2, 1)));
+        Assert.assertThat(fieldSource.getValueAt(1), equalTo(createDate(2018, 4, 1)));
+        Assert.assertThat(fieldSource.getValueAt(9), equalTo(createDate(2018, 12, 1)));
+    }
+
+    @Test
+    void generateAllValues_withIndexRanges_shouldProduceDisjointSlicesOfAllValues() {
+        DateTimeRestrictions restrictions = new DateTimeRestrictions(Timescale.DAYS);
+        restrictions.min = new DateTimeRestrictions.DateTimeLimit(createDate(2018, 1, 1), true);
+        restrictions.max = new DateTimeRestrictions.DateTimeLimit(createDate(2018, 1, 10), false);
+        fieldSource = new DateTimeFieldValueSource(restrictions, Collections.singleton(createDate(2018, 1, 4)));
+
+        List<Object> slicedValues = new ArrayList<>();
+        fieldSource.generateAllValues(0, 3).forEach(slicedValues::add);
+        fieldSource.generateAllValues(3, 100).forEach(slicedValues::add);
+        List<Object> allValues = new ArrayList<>();
+        fieldSource.generateAllValues().forEach(allValues::add);
+
+        Assert.assertThat(slicedValues, equalTo(allValues));
+        Assert.assertThat(allValues.size(), equalTo(8));
+        Assert.assertThat(allValues, not(hasItem(createDate(2018, 1, 4))));
+    }
+
+    @Test
+    void getValueCount_withHoursGranularityAndBlacklist_shouldCountEveryHourNotBlacklisted() {
+        DateTimeRestrictions restrictions = new DateTimeRestrictions(Timescale.HOURS);
+        restrictions.min = new DateTimeRestrictions.DateTimeLimit(createDate(2018, 1, 1), true);
+        restrictions.max = new DateTimeRestrictions.DateTimeLimit(createDate(2018, 1, 3), false);
+        fieldSource = new DateTimeFieldValueSource(restrictions, Collections.singleton(createDate(2018, 1, 2)));
+
+        Assert.assertThat(fieldSource.getValueCount(), equalTo(47L));
+    }
+
+    @Test
+    void getValueCount_withDaysGranularitySpanningMonths_shouldCountEveryDay() {
+        DateTimeRestrictions restrictions = new DateTimeRestrictions(Timescale.DAYS);
+        restrictions.min = new DateTimeRestrictions.DateTimeLimit(createDate(2018, 1, 1), true);
+        restrictions.max = new DateTimeRestrictions.DateTimeLimit(createDate(2018, 3, 1), true);
+        fieldSource = new DateTimeFieldValueSource(restrictions, Collections.emptySet());
+
+        Assert.assertThat(fieldSource.getValueCount(), equalTo(60L));
+    }
+
+    @Test
+    void getValueCount_withMillisGranularity_shouldCountEveryMillisecond() {
+        DateTimeRestrictions restrictions = new DateTimeRestrictions(Timescale.MILLIS);
+        restrictions.min = new DateTimeRestrictions.DateTimeLimit(createDate(2018, 1, 1), true);
+        restrictions.max = new DateTimeRestrictions.DateTimeLimit(createDate(2018, 1, 1).plusSeconds(2), false);
+        fieldSource = new DateTimeFieldValueSource(restrictions, Collections.emptySet());
+
+        Assert.assertThat(fieldSource.getValueCount(), equalTo(2000L));
+    }
+
     @Test
     public void getRandomValues_withExclusiveUpperBound_shouldGenerateCorrectValues() {
         LocalDate date = LocalDate.of(2018, 1, 10);
@@ -446,6 +508,11 @@ public class DateTimeFieldValueSourceTests {
             return 0;
         }
 
+        @Override
+        public long nextLong(long lowerInclusive, long upperExclusive) {
+            return lowerInclusive + (long) (nextDoubleValue * (upperExclusive - 1 - lowerInclusive));
+        }
+
         @Override
         public double nextDouble(double lower, double upper) {
             return nextDoubleValue * (upper - lower) + lower;
@@ -4,7 +4,6 @@ import dk.brics.automaton.Automaton;
 import org.junit.Assert;
 import org.junit.jupiter.api.Test;
 
-import java.util.HashMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -153,7 +152,7 @@ class AutomatonUtilsTests {
     }
 
     private static Automaton getAutomaton(String regex){
-        return AutomatonUtils.createAutomaton(regex, true, new HashMap<>());
+        return AutomatonUtils.createAutomaton(regex, true);
     }
 
     private static String repeat(Character character, int times){
@@ -0,0 +1,102 @@
+package com.scottlogic.deg.generator.generation.string;
+
+import com.scottlogic.deg.generator.utils.JavaUtilRandomNumberGenerator;
+import com.scottlogic.deg.generator.utils.RandomNumberGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+class CompiledAutomatonTests {
+    @Test
+    void generateRandomString_withRangeAcrossSurrogates_onlyGeneratesCharactersEitherSideOfThem() {
+        CompiledAutomaton automaton = compile("[\uD7FF-\uE000]");
+        RandomNumberGenerator random = new JavaUtilRandomNumberGenerator(0);
+
+        Set<String> values = new HashSet<>();
+        for (int count = 0; count < 100; count++) {
+            values.add(automaton.generateRandomString(random));
+        }
+
+        assertThat(values, containsInAnyOrder("\uD7FF", "\uE000"));
+    }
+
+    @Test
+    void generateRandomString_withRepeatedRanges_generatesMatchingStrings() {
+        CompiledAutomaton automaton = compile("[a-c]{2}(x|yz)?[0-9]+");
+        RandomNumberGenerator random = new JavaUtilRandomNumberGenerator(0);
+
+        for (int count = 0; count < 100; count++) {
+            assertThat(automaton.generateRandomString(random), matchesPattern("[a-c]{2}(x|yz)?[0-9]+"));
+        }
+    }
+
+    @Test
+    void generateRandomString_withOnlyTheEmptyString_generatesTheEmptyString() {
+        CompiledAutomaton automaton = compile("a{0}");
+
+        assertThat(automaton.generateRandomString(new JavaUtilRandomNumberGenerator(0)), equalTo(""));
+    }
+
+    @Test
+    void generateUniformRandomString_withFiniteStrings_generatesEachStringEquallyOften() {
+        CompiledAutomaton automaton = compile("a?|[a-c]{2}[xy]");
+        RandomNumberGenerator random = new JavaUtilRandomNumberGenerator(0);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int count = 0; count < 20_000; count++) {
+            counts.merge(automaton.generateUniformRandomString(random), 1, Integer::sum);
+        }
+
+        assertThat(counts.size(), equalTo(20));
+        counts.values().forEach(count -> assertThat(count, allOf(greaterThan(800), lessThan(1200))));
+    }
+
+    @Test
+    void canSampleUniformly_withInfiniteStrings_isFalse() {
+        assertThat(compile("[a-c]+x").canSampleUniformly(), is(false));
+    }
+
+    @Test
+    void iterateMatches_withFiniteStrings_producesThemInLexicographicOrder() {
+        CompiledAutomaton automaton = compile("b?|a[bc]d?");
+
+        List<String> values = new ArrayList<>();
+        automaton.iterateMatches(0).forEachRemaining(values::add);
+
+        assertThat(values, contains("", "ab", "abd", "ac", "acd", "b"));
+    }
+
+    @Test
+    void getMatch_withLargeNumberOfStrings_producesStringAtIndex() {
+        CompiledAutomaton automaton = compile("[a-z]{8}");
+        long lastIndex = 208_827_064_575L;
+
+        assertThat(automaton.getMatchCount(), equalTo(lastIndex + 1));
+        assertThat(automaton.getMatch(0), equalTo("aaaaaaaa"));
+        assertThat(automaton.getMatch(27), equalTo("aaaaaabb"));
+        assertThat(automaton.getMatch(lastIndex), equalTo("zzzzzzzz"));
+    }
+
+    @Test
+    void skip_withMatchIterator_continuesFromIndexAfterSkippedStrings() {
+        CompiledAutomaton automaton = compile("[a-c]{3}");
+        CompiledAutomaton.MatchIterator iterator = automaton.iterateMatches(1);
+
+        iterator.skip(25);
+
+        assertThat(iterator.next(), equalTo("ccc"));
+        assertThat(iterator.hasNext(), is(false));
+    }
+
+    @Test
+    void getMatchCount_withMoreStringsThanCanBeCounted_isCapped() {
+        assertThat(compile("[a-z]{20}").getMatchCount(), equalTo(Long.MAX_VALUE));
+    }
+
+    private static CompiledAutomaton compile(String regex) {
+        return CompiledAutomaton.compile(AutomatonUtils.createAutomaton(regex, true));
+    }
+}
@@ -0,0 +1,88 @@
+package com.scottlogic.deg.generator.generation.string;
+
+import com.scottlogic.deg.generator.utils.JavaUtilRandomNumberGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class LengthRestrictedStringGeneratorTests {
+    @Test
+    void toString_withExcludedLength_shouldRepresentPermittedLengthsAsRegex() {
+        StringGenerator generator = new LengthRestrictedStringGenerator(0, null, Collections.singleton(10));
+
+        assertThat(generator.toString(), equalTo("/^(.{0,9}|.{11,})$/"));
+    }
+
+    @Test
+    void getValueCount_withBoundedLengths_shouldMatchEquivalentRegex() {
+        LengthRestrictedStringGenerator generator = new LengthRestrictedStringGenerator(0, 2, Collections.emptySet());
+
+        assertThat(generator.getValueCount(), equalTo(generator.asRegexGenerator().getValueCount()));
+    }
+
+    @Test
+    void getValueAt_withExcludedLengths_shouldMatchEquivalentRegex() {
+        LengthRestrictedStringGenerator generator =
+            new LengthRestrictedStringGenerator(0, 10, new HashSet<>(Arrays.asList(5, 7)));
+        RegexStringGenerator regexGenerator = generator.asRegexGenerator();
+
+        for (long index : new long[] { 0, 1, 63_487, 63_488, 1_000_000_000L, generator.getValueCount() - 1 }) {
+            assertThat(generator.getValueAt(index), equalTo(regexGenerator.getValueAt(index)));
+        }
+    }
+
+    @Test
+    void generateRandomValues_withUnboundedLength_shouldProduceStringsOfPermittedLengths() {
+        StringGenerator generator = new LengthRestrictedStringGenerator(3, null, Collections.singleton(4));
+
+        Iterator<String> values = generator.generateRandomValues(new JavaUtilRandomNumberGenerator(0)).iterator();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(values.next().length(), both(greaterThanOrEqualTo(3)).and(not(equalTo(4))));
+        }
+    }
+
+    @Test
+    void generateRandomValues_withUniformSampling_shouldProduceStringsOfPermittedLengths() {
+        StringGenerator generator = new LengthRestrictedStringGenerator(0, 3, Collections.singleton(3))
+            .withUniformSampling();
+
+        Iterator<String> values = generator.generateRandomValues(new JavaUtilRandomNumberGenerator(0)).iterator();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(values.next().length(), equalTo(2));
+        }
+    }
+
+    @Test
+    void intersect_withLengthRestrictedGenerator_shouldNotCreateAutomaton() {
+        StringGenerator generator = new LengthRestrictedStringGenerator(2, 10, Collections.emptySet())
+            .intersect(new LengthRestrictedStringGenerator(5, null, Collections.emptySet()));
+
+        assertThat(generator, instanceOf(LengthRestrictedStringGenerator.class));
+        assertThat(generator.toString(), equalTo("/^.{5,10}$/"));
+    }
+
+    @Test
+    void intersect_withNonOverlappingLengthRestrictedGenerator_shouldProduceNoStrings() {
+        StringGenerator generator = new LengthRestrictedStringGenerator(2, 4, Collections.emptySet())
+            .intersect(new LengthRestrictedStringGenerator(5, null, Collections.emptySet()));
+
+        assertThat(generator, instanceOf(NoStringsStringGenerator.class));
+    }
+
+    @Test
+    void intersect_withRegexGenerator_shouldIntersectAutomatons() {
+        StringGenerator generator = new LengthRestrictedStringGenerator(2, 4, Collections.emptySet())
+            .intersect(new RegexStringGenerator("[a-c]*", true));
+
+        assertThat(generator, instanceOf(RegexStringGenerator.class));
+        assertThat(generator.getValueCount(), equalTo(9L + 27L + 81L));
+    }
+}
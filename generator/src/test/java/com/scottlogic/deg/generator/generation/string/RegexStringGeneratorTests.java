@@ -1,5 +1,6 @@
 package com.scottlogic.deg.generator.generation.string;
 
+import com.scottlogic.deg.common.ValidationException;
 import com.scottlogic.deg.generator.utils.IterableAsStream;
 import com.scottlogic.deg.generator.utils.JavaUtilRandomNumberGenerator;
 import org.hamcrest.core.Is;
@@ -428,4 +429,83 @@ public class RegexStringGeneratorTests {
 
         assertThat(match, is(false));
     }
+
+    @Test
+    void constructor_withRegexAlreadyUsed_reusesTheCachedAutomaton(){
+        long hitsBefore = RegexStringGenerator.getRegexAutomatonCache().getHits();
+
+        new RegexStringGenerator("^cached-regex-[0-9]$", true);
+        new RegexStringGenerator("^cached-regex-[0-9]$", true);
+
+        assertThat(RegexStringGenerator.getRegexAutomatonCache().getHits() - hitsBefore, is(1L));
+    }
+
+    @Test
+    void intersect_withResultLargerThanStateBudget_shouldThrowValidationException(){
+        StringGenerator first = new RegexStringGenerator("[a-z]{10,20}", true, 20);
+        StringGenerator second = new RegexStringGenerator("[a-f]*x[a-z]*", true, 20);
+
+        assertThrows(ValidationException.class, () -> first.intersect(second));
+    }
+
+    @Test
+    void intersect_withIntersectionCachedUnderHigherStateBudget_shouldThrowValidationException(){
+        StringGenerator first = new RegexStringGenerator("[a-z]{10,20}", true);
+        StringGenerator second = new RegexStringGenerator("[a-f]*x[a-z]*", true);
+        first.intersect(second);
+
+        StringGenerator firstWithSmallBudget = new RegexStringGenerator("[a-z]{10,20}", true, 20);
+
+        assertThrows(ValidationException.class, () -> firstWithSmallBudget.intersect(second));
+    }
+
+    @Test
+    void complement_withResultLargerThanStateBudget_shouldThrowValidationException(){
+        StringGenerator generator = new RegexStringGenerator("[a-z]{10,20}", true, 20);
+
+        assertThrows(ValidationException.class, generator::complement);
+    }
+
+    @Test
+    void union_withLargeAutomatons_shouldMinimiseResult(){
+        RegexStringGenerator first = new RegexStringGenerator("a{200}", true, 201);
+        RegexStringGenerator second = new RegexStringGenerator("a{200}", true, 201);
+
+        StringGenerator union = first.union(second);
+
+        assertThat(union.getValueCount(), is(1L));
+    }
+
+    @Test
+    void union_withResultLargerThanStateBudget_shouldThrowValidationException(){
+        RegexStringGenerator first = new RegexStringGenerator("a{200}", true, 201);
+        RegexStringGenerator second = new RegexStringGenerator("b{200}", true, 201);
+
+        assertThrows(ValidationException.class, () -> first.union(second));
+    }
+
+    @Test
+    void intersect_withOperandsInEitherOrder_reusesTheCachedIntersection(){
+        RegexStringGenerator first = new RegexStringGenerator("^intersection-[a-c]+$", true);
+        RegexStringGenerator second = new RegexStringGenerator("^intersection-[b-d]{1,3}$", true);
+        long hitsBefore = RegexStringGenerator.getIntersectionCache().getHits();
+
+        StringGenerator firstIntersection = first.intersect(second);
+        StringGenerator secondIntersection = second.intersect(first);
+
+        assertThat(RegexStringGenerator.getIntersectionCache().getHits() - hitsBefore, is(1L));
+        assertThat(secondIntersection, equalTo(firstIntersection));
+    }
+
+    @Test
+    void getValueAt_withIndexOfValue_returnsSameValueAsGeneratingAllValues(){
+        RegexStringGenerator generator = new RegexStringGenerator("^[a-c]{1,2}[xy]$", true);
+
+        List<String> allValues = new ArrayList<>();
+        generator.generateAllValues().iterator().forEachRemaining(allValues::add);
+
+        for (int index = 0; index < allValues.size(); index++) {
+            assertThat(generator.getValueAt(index), equalTo(allValues.get(index)));
+        }
+    }
 }
@@ -1,7 +1,11 @@
 package com.scottlogic.deg.generator.generation.string;
 
+import com.scottlogic.deg.generator.utils.FinancialCodeUtils;
+import com.scottlogic.deg.generator.utils.JavaUtilRandomNumberGenerator;
 import org.junit.jupiter.api.Test;
 
+import java.util.Iterator;
+
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -41,4 +45,15 @@ public class SedolStringGeneratorTests {
 
         assertTrue(matches);
     }
+
+    @Test
+    public void shouldProduceValidRandomSedolCodesWhenComplementedTwice(){
+        StringGenerator SedolGenerator = new SedolStringGenerator().complement().complement();
+
+        Iterator<String> sedols = SedolGenerator.generateRandomValues(new JavaUtilRandomNumberGenerator(0)).iterator();
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(FinancialCodeUtils.isValidSedolNsin(sedols.next()));
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.scottlogic.deg.generator.restrictions;
 
 import com.scottlogic.deg.common.profile.constraints.atomic.StandardConstraintTypes;
+import com.scottlogic.deg.common.util.Defaults;
 import com.scottlogic.deg.generator.generation.string.IsinStringGenerator;
 import com.scottlogic.deg.generator.generation.string.RegexStringGenerator;
 import com.scottlogic.deg.generator.generation.string.StringGenerator;
@@ -313,13 +314,14 @@ class TextualRestrictionsTests {
     }
 
     @Test
-    void createGenerator_withContradictingOfLengthAndContainingRegexConstraint_shouldCreateNoStrings() {
+    void createGenerator_withLongOfLengthAndContainingRegexConstraint_shouldCreateStringsOfPrescribedLength() {
         StringRestrictions restrictions = containsRegex("[a-z]{0,9}", false)
             .intersect(ofLength(100, false)).restrictions;
 
         StringGenerator generator = restrictions.createGenerator();
 
-        assertGeneratorCannotGenerateAnyStrings(generator);
+        Iterator<String> stringValueIterator = generator.generateAllValues().iterator();
+        Assert.assertThat(stringValueIterator.next().length(), equalTo(100));
     }
 
     @Test
@@ -572,6 +574,65 @@ class TextualRestrictionsTests {
         Assert.assertThat(generator.toString(), equalTo("/^.{0,3}$/"));
     }
 
+    @Test
+    void intersect_withMatchingRegexesWithDifferentLiteralPrefixes_shouldBeUnsuccessful() {
+        MergeResult<StringRestrictions> result = matchingRegex("abc[0-9]+", false)
+            .intersect(matchingRegex("abd.*", false));
+
+        Assert.assertThat(result.successful, is(false));
+    }
+
+    @Test
+    void intersect_withMatchingRegexesWithCompatibleLiteralPrefixes_shouldBeSuccessful() {
+        MergeResult<StringRestrictions> result = matchingRegex("ab[0-9]+", false)
+            .intersect(matchingRegex("ab1.*", false));
+
+        Assert.assertThat(result.successful, is(true));
+    }
+
+    @Test
+    void intersect_withLiteralMatchingRegexOfExcludedLength_shouldBeUnsuccessful() {
+        MergeResult<StringRestrictions> result = matchingRegex("^abc$", false)
+            .intersect(ofLength(3, true));
+
+        Assert.assertThat(result.successful, is(false));
+    }
+
+    @Test
+    void intersect_withContainingLiteralLongerThanMaxLength_shouldBeUnsuccessful() {
+        MergeResult<StringRestrictions> result = containsRegex("abcdef", false)
+            .intersect(maxLength(5));
+
+        Assert.assertThat(result.successful, is(false));
+    }
+
+    @Test
+    void intersect_withOptionalLastCharacterOfLiteral_shouldBeSuccessful() {
+        MergeResult<StringRestrictions> result = matchingRegex("abc?", false)
+            .intersect(ofLength(2, false));
+
+        Assert.assertThat(result.successful, is(true));
+        assertGeneratorCanGenerateAtLeastOneString(result.restrictions.createGenerator());
+    }
+
+    @Test
+    void intersect_withRegexesOnlyAnAutomatonShowsAreContradictory_shouldBeSuccessfulAndCreateNoStrings() {
+        MergeResult<StringRestrictions> result = matchingRegex("[a-c]+", false)
+            .intersect(matchingRegex("[x-z]+", false));
+
+        Assert.assertThat(result.successful, is(true));
+        assertGeneratorCannotGenerateAnyStrings(result.restrictions.createGenerator());
+    }
+
+    @Test
+    void intersect_withRestrictionsThatAddNothing_shouldReturnExistingInstance() {
+        StringRestrictions restrictions = matchingRegex("[a-z]{0,9}", false);
+
+        MergeResult<StringRestrictions> result = restrictions.intersect(restrictions);
+
+        Assert.assertThat(result.restrictions, sameInstance(restrictions));
+    }
+
     private static StringRestrictions ofLength(int length, boolean negate){
         return new TextualRestrictions(
             negate ? null : length,
@@ -580,7 +641,8 @@ class TextualRestrictionsTests {
             Collections.emptySet(),
             negate ? Collections.singleton(length) : Collections.emptySet(),
             Collections.emptySet(),
-            Collections.emptySet());
+            Collections.emptySet(),
+            Defaults.DEFAULT_MAX_AUTOMATON_STATES);
     }
 
     private static StringRestrictions maxLength(int length){
@@ -591,7 +653,8 @@ class TextualRestrictionsTests {
             Collections.emptySet(),
             Collections.emptySet(),
             Collections.emptySet(),
-            Collections.emptySet());
+            Collections.emptySet(),
+            Defaults.DEFAULT_MAX_AUTOMATON_STATES);
     }
 
     private static StringRestrictions minLength(int length){
@@ -602,7 +665,8 @@ class TextualRestrictionsTests {
             Collections.emptySet(),
             Collections.emptySet(),
             Collections.emptySet(),
-            Collections.emptySet());
+            Collections.emptySet(),
+            Defaults.DEFAULT_MAX_AUTOMATON_STATES);
     }
 
     private static StringRestrictions matchingRegex(String regex, @SuppressWarnings("SameParameterValue") boolean negate){
@@ -615,7 +679,8 @@ class TextualRestrictionsTests {
             Collections.emptySet(),
             Collections.emptySet(),
             negate ? Collections.singleton(pattern) : Collections.emptySet(),
-            Collections.emptySet());
+            Collections.emptySet(),
+            Defaults.DEFAULT_MAX_AUTOMATON_STATES);
     }
 
     private static StringRestrictions containsRegex(String regex, @SuppressWarnings("SameParameterValue") boolean negate){
@@ -628,7 +693,8 @@ class TextualRestrictionsTests {
             negate ? Collections.emptySet() : Collections.singleton(pattern),
             Collections.emptySet(),
             Collections.emptySet(),
-            negate ? Collections.singleton(pattern) : Collections.emptySet());
+            negate ? Collections.singleton(pattern) : Collections.emptySet(),
+            Defaults.DEFAULT_MAX_AUTOMATON_STATES);
     }
 
     private static StringRestrictions aValid(@SuppressWarnings("SameParameterValue") StandardConstraintTypes type, @SuppressWarnings("SameParameterValue") boolean negate){
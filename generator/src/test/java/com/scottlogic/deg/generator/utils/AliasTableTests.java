@@ -0,0 +1,30 @@
+package com.scottlogic.deg.generator.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class AliasTableTests {
+    @Test
+    void next_withUnevenWeights_shouldPickIndicesInProportionToWeights() {
+        AliasTable table = new AliasTable(new double[] { 1, 0, 3, 6 });
+        RandomNumberGenerator randomNumberGenerator = new JavaUtilRandomNumberGenerator(0);
+
+        int[] counts = new int[table.size()];
+        for (int i = 0; i < 100000; i++) {
+            counts[table.next(randomNumberGenerator)]++;
+        }
+
+        assertThat(counts[0], both(greaterThan(9000)).and(lessThan(11000)));
+        assertThat(counts[1], equalTo(0));
+        assertThat(counts[2], both(greaterThan(29000)).and(lessThan(31000)));
+        assertThat(counts[3], both(greaterThan(59000)).and(lessThan(61000)));
+    }
+
+    @Test
+    void construct_withAllWeightsZero_shouldThrow() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[] { 0, 0 }));
+    }
+}
@@ -0,0 +1,122 @@
+package com.scottlogic.deg.generator.utils;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.core.Is.is;
+
+class ConcurrentBufferingIteratorTests {
+    private ExecutorService executor;
+
+    @BeforeEach
+    void beforeEach() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void next_underlyingIteratorHasMultipleValues_returnsAllValuesInOrder() {
+        ConcurrentBufferingIterator<String> iterator = getIterator(Arrays.asList("First", "Second", "Third"), 2);
+
+        List<String> values = new ArrayList<>();
+        iterator.forEachRemaining(values::add);
+
+        Assert.assertThat(values, is(Arrays.asList("First", "Second", "Third")));
+    }
+
+    @Test
+    void hasNext_underlyingIteratorEmpty_returnsFalse() {
+        ConcurrentBufferingIterator<String> iterator = getIterator(Collections.emptyList(), 2);
+
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    void next_underlyingIteratorHasNoMoreValues_throwsNoSuchElementException() {
+        ConcurrentBufferingIterator<String> iterator = getIterator(Collections.singletonList("Test"), 2);
+
+        iterator.next();
+
+        Assertions.assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void next_underlyingIteratorIsInfinite_returnsValuesUntilClosed() {
+        ConcurrentBufferingIterator<String> iterator = new ConcurrentBufferingIterator<>(
+            () -> Stream.generate(() -> "value").iterator(),
+            executor,
+            2);
+
+        for (int index = 0; index < 10; index++) {
+            Assert.assertThat(iterator.next(), is("value"));
+        }
+
+        iterator.close();
+    }
+
+    @Test
+    void hasNext_underlyingIteratorThrows_throwsIllegalStateException() {
+        ConcurrentBufferingIterator<String> iterator = new ConcurrentBufferingIterator<>(
+            () -> { throw new UnsupportedOperationException("unable to iterate"); },
+            executor,
+            2);
+
+        Assertions.assertThrows(IllegalStateException.class, iterator::hasNext);
+    }
+
+    @Test
+    void hasNext_underlyingIteratorThrowsError_throwsIllegalStateException() {
+        ConcurrentBufferingIterator<String> iterator = new ConcurrentBufferingIterator<>(
+            () -> { throw new StackOverflowError(); },
+            executor,
+            2);
+
+        Assertions.assertThrows(IllegalStateException.class, iterator::hasNext);
+    }
+
+    @Test
+    void next_moreInfiniteIteratorsThanThreads_returnsValuesFromEachIterator() {
+        ConcurrentBufferingIterator<String> first = new ConcurrentBufferingIterator<>(
+            () -> Stream.generate(() -> "first").iterator(),
+            executor,
+            2);
+        ConcurrentBufferingIterator<String> second = new ConcurrentBufferingIterator<>(
+            () -> Stream.generate(() -> "second").iterator(),
+            executor,
+            2);
+
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int index = 0; index < 10; index++) {
+                Assert.assertThat(second.next(), is("second"));
+                Assert.assertThat(first.next(), is("first"));
+            }
+        });
+
+        first.close();
+        second.close();
+    }
+
+    private ConcurrentBufferingIterator<String> getIterator(List<String> values, int bufferSize) {
+        return new ConcurrentBufferingIterator<>(
+            values::iterator,
+            executor,
+            bufferSize);
+    }
+}
@@ -0,0 +1,41 @@
+package com.scottlogic.deg.generator.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.PrimitiveIterator;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ExclusionIndexTests {
+    @Test
+    void getPosition_withExclusionsBeforeAndAtIndex_shouldSkipExcludedPositions() {
+        ExclusionIndex index = new ExclusionIndex(LongStream.of(3, 2, 0, 2));
+
+        assertThat(index.size(), equalTo(3));
+        assertThat(index.getPosition(0), equalTo(1L));
+        assertThat(index.getPosition(1), equalTo(4L));
+        assertThat(index.getPosition(2), equalTo(5L));
+    }
+
+    @Test
+    void iteratePositionsFrom_shouldProduceSamePositionsAsGetPosition() {
+        ExclusionIndex index = new ExclusionIndex(LongStream.of(1, 2, 5, 9));
+
+        PrimitiveIterator.OfLong positions = index.iteratePositionsFrom(2);
+
+        for (long i = 2; i < 10; i++) {
+            assertThat(positions.nextLong(), equalTo(index.getPosition(i)));
+        }
+    }
+
+    @Test
+    void countExcludedBefore_shouldNotCountExclusionAtPosition() {
+        ExclusionIndex index = new ExclusionIndex(LongStream.of(1, 2, 5));
+
+        assertThat(index.countExcludedBefore(5), equalTo(2));
+        assertThat(index.isExcluded(5), is(true));
+        assertThat(index.isExcluded(4), is(false));
+    }
+}
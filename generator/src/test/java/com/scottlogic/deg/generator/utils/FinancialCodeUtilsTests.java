@@ -63,4 +63,34 @@ public class FinancialCodeUtilsTests {
             assertThat(FinancialCodeUtils.isValidIsin(isin), is(false));
         }
     }
+
+    @Test
+    public void testGeneratedRandomIsinsAreValid() {
+        RandomNumberGenerator randomNumberGenerator = new JavaUtilRandomNumberGenerator(0);
+
+        for (int i = 0; i < 1000; i++) {
+            String isin = FinancialCodeUtils.generateRandomIsin(randomNumberGenerator);
+            assertThat(isin, FinancialCodeUtils.isValidIsin(isin), is(true));
+        }
+    }
+
+    @Test
+    public void testGeneratedRandomSedolsAreValid() {
+        RandomNumberGenerator randomNumberGenerator = new JavaUtilRandomNumberGenerator(0);
+
+        for (int i = 0; i < 1000; i++) {
+            String sedol = FinancialCodeUtils.generateRandomSedol(randomNumberGenerator);
+            assertThat(sedol, FinancialCodeUtils.isValidSedolNsin(sedol), is(true));
+        }
+    }
+
+    @Test
+    public void testGeneratedRandomCusipsAreValid() {
+        RandomNumberGenerator randomNumberGenerator = new JavaUtilRandomNumberGenerator(0);
+
+        for (int i = 0; i < 1000; i++) {
+            String cusip = FinancialCodeUtils.generateRandomCusip(randomNumberGenerator);
+            assertThat(cusip, FinancialCodeUtils.isValidCusipNsin(cusip), is(true));
+        }
+    }
 }
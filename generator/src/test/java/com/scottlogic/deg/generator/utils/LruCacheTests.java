@@ -0,0 +1,45 @@
+package com.scottlogic.deg.generator.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class LruCacheTests {
+    @Test
+    void computeIfAbsent_withMoreKeysThanMaxSize_shouldHoldMaxSizeEntries() {
+        LruCache<Integer, String> cache = new LruCache<>(1000);
+
+        for (int key = 0; key < 5000; key++) {
+            cache.computeIfAbsent(key, Object::toString);
+        }
+
+        assertThat(cache.size(), is(1000));
+        assertThat(cache.getEvictions(), is(4000L));
+    }
+
+    @Test
+    void computeIfAbsent_withRecentlyUsedKey_shouldReturnCachedValue() {
+        LruCache<Integer, String> cache = new LruCache<>(1000);
+        cache.computeIfAbsent(1, key -> "first");
+
+        String value = cache.computeIfAbsent(1, key -> "second");
+
+        assertThat(value, is("first"));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getMisses(), is(1L));
+    }
+
+    @Test
+    void computeIfAbsent_withSmallCache_shouldEvictLeastRecentlyUsedEntry() {
+        LruCache<Integer, String> cache = new LruCache<>(2);
+        cache.computeIfAbsent(1, Object::toString);
+        cache.computeIfAbsent(2, Object::toString);
+        cache.computeIfAbsent(1, Object::toString);
+
+        cache.computeIfAbsent(3, Object::toString);
+
+        assertThat(cache.computeIfAbsent(1, key -> "recomputed"), is("1"));
+        assertThat(cache.computeIfAbsent(2, key -> "recomputed"), is("recomputed"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.scottlogic.deg.generator.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class RandomStreamsTests {
+    @Test
+    void useStreamForRow_onDifferentThreadsAfterOtherDraws_shouldProduceSameValues() throws ExecutionException, InterruptedException {
+        RandomStreams randomStreams = new RandomStreams(42);
+
+        randomStreams.useStreamForRow(1, 7);
+        long expected = randomStreams.nextLong(0, Long.MAX_VALUE);
+
+        long onOtherThread = CompletableFuture.supplyAsync(() -> {
+            randomStreams.nextInt();
+            randomStreams.useStreamForRow(1, 7);
+            return randomStreams.nextLong(0, Long.MAX_VALUE);
+        }).get();
+
+        assertThat(onOtherThread, equalTo(expected));
+    }
+
+    @Test
+    void useStreamForRow_withDifferentRowsOrPartitions_shouldProduceDifferentValues() {
+        RandomStreams randomStreams = new RandomStreams(42);
+
+        randomStreams.useStreamForRow(1, 7);
+        long row = randomStreams.nextLong(0, Long.MAX_VALUE);
+        randomStreams.useStreamForRow(1, 8);
+        long nextRow = randomStreams.nextLong(0, Long.MAX_VALUE);
+        randomStreams.useStreamForRow(2, 7);
+        long otherPartition = randomStreams.nextLong(0, Long.MAX_VALUE);
+
+        assertThat(nextRow, not(equalTo(row)));
+        assertThat(otherPartition, not(anyOf(equalTo(row), equalTo(nextRow))));
+    }
+}
@@ -5,8 +5,11 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 class RestartableIteratorTests {
     @Test
@@ -158,6 +161,44 @@ class RestartableIteratorTests {
         Assert.assertFalse(result);
     }
 
+    @Test
+    void next_sourceLargerThanCacheAndRestartCalled_producesSourceAgain() {
+        AtomicInteger timesProduced = new AtomicInteger();
+        RestartableIterator<String> iterator = new RestartableIterator<>(
+            () -> {
+                timesProduced.incrementAndGet();
+                return Stream.of("First String", "Second String", "Third String");
+            },
+            2);
+
+        iterator.forEachRemaining(value -> {});
+        iterator.restart();
+        List<String> values = new ArrayList<>();
+        iterator.forEachRemaining(values::add);
+
+        Assert.assertEquals(2, timesProduced.get());
+        Assert.assertEquals(Arrays.asList("First String", "Second String", "Third String"), values);
+    }
+
+    @Test
+    void next_sourceWithinCacheAndRestartCalled_returnsCachedValues() {
+        AtomicInteger timesProduced = new AtomicInteger();
+        RestartableIterator<String> iterator = new RestartableIterator<>(
+            () -> {
+                timesProduced.incrementAndGet();
+                return Stream.of("First String", "Second String");
+            },
+            2);
+
+        iterator.forEachRemaining(value -> {});
+        iterator.restart();
+        List<String> values = new ArrayList<>();
+        iterator.forEachRemaining(values::add);
+
+        Assert.assertEquals(1, timesProduced.get());
+        Assert.assertEquals(Arrays.asList("First String", "Second String"), values);
+    }
+
     private RestartableIterator<String> getIterator(List<String> values) {
         return new RestartableIterator<>(values.iterator());
     }
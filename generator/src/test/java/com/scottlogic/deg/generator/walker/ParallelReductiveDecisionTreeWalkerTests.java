@@ -0,0 +1,172 @@
+package com.scottlogic.deg.generator.walker;
+
+import com.scottlogic.deg.common.profile.Field;
+import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.generator.config.detail.DataGenerationType;
+import com.scottlogic.deg.generator.decisiontree.DecisionTree;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecFactory;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecHelper;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
+import com.scottlogic.deg.generator.generation.FieldSpecValueGenerator;
+import com.scottlogic.deg.generator.generation.NoopDataGeneratorMonitor;
+import com.scottlogic.deg.generator.generation.StandardFieldValueSourceEvaluator;
+import com.scottlogic.deg.generator.generation.databags.DataBag;
+import com.scottlogic.deg.generator.reducer.ConstraintReducer;
+import com.scottlogic.deg.generator.restrictions.StringRestrictionsFactory;
+import com.scottlogic.deg.generator.utils.JavaUtilRandomNumberGenerator;
+import com.scottlogic.deg.generator.walker.reductive.NoOpIterationVisualiser;
+import com.scottlogic.deg.generator.walker.reductive.ReductiveFieldSpecBuilder;
+import com.scottlogic.deg.generator.walker.reductive.ReductiveTreePruner;
+import com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy.FixFieldStrategyFactory;
+import org.hamcrest.collection.IsIterableContainingInAnyOrder;
+import org.junit.Assert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.scottlogic.deg.generator.builders.ConstraintNodeBuilder.constraintNode;
+import static org.hamcrest.core.Is.is;
+
+class ParallelReductiveDecisionTreeWalkerTests {
+    private final Field field1 = new Field("field1");
+    private final Field field2 = new Field("field2");
+    private final Field field3 = new Field("field3");
+    private DecisionTree tree;
+    private ReductiveDecisionTreeWalker sequentialWalker;
+
+    @BeforeEach
+    void beforeEach() {
+        tree = new DecisionTree(
+            constraintNode()
+                .where(field1).isInSet(1, 2, 3, 4, 5)
+                .where(field2).isInSet("a", "b", "c")
+                .where(field3).isInSet(10, 20)
+                .withDecision(
+                    constraintNode().where(field1).isInSet(1, 2, 3),
+                    constraintNode().where(field2).isInSet("a"))
+                .build(),
+            new ProfileFields(Arrays.asList(field1, field2, field3)),
+            "");
+
+        FieldSpecMerger fieldSpecMerger = new FieldSpecMerger();
+        ConstraintReducer constraintReducer = new ConstraintReducer(
+            new FieldSpecFactory(new StringRestrictionsFactory()),
+            fieldSpecMerger);
+
+        sequentialWalker = new ReductiveDecisionTreeWalker(
+            new NoOpIterationVisualiser(),
+            new ReductiveFieldSpecBuilder(constraintReducer, fieldSpecMerger),
+            new NoopDataGeneratorMonitor(),
+            new ReductiveTreePruner(fieldSpecMerger, constraintReducer, new FieldSpecHelper()),
+            new FieldSpecValueGenerator(
+                DataGenerationType.FULL_SEQUENTIAL,
+                new StandardFieldValueSourceEvaluator(),
+                new JavaUtilRandomNumberGenerator(0)),
+            new FixFieldStrategyFactory());
+    }
+
+    @Test
+    void walk_whenOrdered_producesSameRowsInSameOrderAsSequentialWalker() {
+        List<DataBag> expected = sequentialWalker.walk(tree).collect(Collectors.toList());
+
+        List<DataBag> actual = parallelWalker(true).walk(tree).collect(Collectors.toList());
+
+        Assert.assertFalse(actual.isEmpty());
+        Assert.assertThat(actual, is(expected));
+    }
+
+    @Test
+    void walk_whenUnordered_producesSameRowsAsSequentialWalker() {
+        List<DataBag> expected = sequentialWalker.walk(tree).collect(Collectors.toList());
+
+        List<DataBag> actual = parallelWalker(false).walk(tree).collect(Collectors.toList());
+
+        Assert.assertThat(actual, IsIterableContainingInAnyOrder.containsInAnyOrder(expected.toArray()));
+    }
+
+    @Test
+    void walk_whenOrderedAndSplittingAtEveryValue_producesSameRowsInSameOrderAsSequentialWalker() {
+        List<DataBag> expected = sequentialWalker.walk(tree).collect(Collectors.toList());
+
+        List<DataBag> actual = new ParallelReductiveDecisionTreeWalker(
+            sequentialWalker,
+            new FixFieldStrategyFactory(),
+            4,
+            true,
+            100,
+            100,
+            1)
+            .walk(tree)
+            .collect(Collectors.toList());
+
+        Assert.assertThat(actual, is(expected));
+    }
+
+    @Test
+    void walk_whenUnorderedAndSplittingAtEveryValue_producesSameRowsAsSequentialWalker() {
+        List<DataBag> expected = sequentialWalker.walk(tree).collect(Collectors.toList());
+
+        List<DataBag> actual = new ParallelReductiveDecisionTreeWalker(
+            sequentialWalker,
+            new FixFieldStrategyFactory(),
+            4,
+            false,
+            100,
+            100,
+            1)
+            .walk(tree)
+            .collect(Collectors.toList());
+
+        Assert.assertThat(actual, IsIterableContainingInAnyOrder.containsInAnyOrder(expected.toArray()));
+    }
+
+    @Test
+    void walk_whenOrderedWithSmallBuffersAndMoreSubtreesThanThreads_producesSameRowsInSameOrderAsSequentialWalker() {
+        List<DataBag> expected = sequentialWalker.walk(tree).collect(Collectors.toList());
+
+        List<DataBag> actual = new ParallelReductiveDecisionTreeWalker(
+            sequentialWalker,
+            new FixFieldStrategyFactory(),
+            2,
+            true,
+            2,
+            3,
+            1)
+            .walk(tree)
+            .collect(Collectors.toList());
+
+        Assert.assertThat(actual, is(expected));
+    }
+
+    @Test
+    void walk_whenStreamClosedBeforeAllRowsConsumed_producesFirstRows() {
+        List<DataBag> expected = sequentialWalker.walk(tree).limit(2).collect(Collectors.toList());
+
+        List<DataBag> actual;
+        try (Stream<DataBag> rows = new ParallelReductiveDecisionTreeWalker(
+            sequentialWalker,
+            new FixFieldStrategyFactory(),
+            2,
+            true,
+            1,
+            1,
+            1)
+            .walk(tree)) {
+            actual = rows.limit(2).collect(Collectors.toList());
+        }
+
+        Assert.assertThat(actual, is(expected));
+    }
+
+    private ParallelReductiveDecisionTreeWalker parallelWalker(boolean preserveOrder) {
+        return new ParallelReductiveDecisionTreeWalker(
+            sequentialWalker,
+            new FixFieldStrategyFactory(),
+            4,
+            preserveOrder);
+    }
+}
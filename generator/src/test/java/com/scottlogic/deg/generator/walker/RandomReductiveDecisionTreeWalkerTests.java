@@ -2,90 +2,204 @@ package com.scottlogic.deg.generator.walker;
 
 import com.scottlogic.deg.common.profile.Field;
 import com.scottlogic.deg.common.profile.ProfileFields;
+import com.scottlogic.deg.generator.config.detail.DataGenerationType;
+import com.scottlogic.deg.generator.decisiontree.ConstraintNode;
 import com.scottlogic.deg.generator.decisiontree.DecisionTree;
 import com.scottlogic.deg.generator.decisiontree.TreeConstraintNode;
-import com.scottlogic.deg.generator.fieldspecs.RowSpec;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecFactory;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecHelper;
+import com.scottlogic.deg.generator.fieldspecs.FieldSpecMerger;
+import com.scottlogic.deg.generator.generation.FieldSpecValueGenerator;
+import com.scottlogic.deg.generator.generation.NoopDataGeneratorMonitor;
+import com.scottlogic.deg.generator.generation.StandardFieldValueSourceEvaluator;
 import com.scottlogic.deg.generator.generation.databags.DataBag;
+import com.scottlogic.deg.generator.generation.databags.DataBagValue;
+import com.scottlogic.deg.generator.reducer.ConstraintReducer;
+import com.scottlogic.deg.generator.restrictions.StringRestrictionsFactory;
+import com.scottlogic.deg.generator.utils.RandomStreams;
+import com.scottlogic.deg.generator.walker.reductive.Merged;
+import com.scottlogic.deg.generator.walker.reductive.NoOpIterationVisualiser;
+import com.scottlogic.deg.generator.walker.reductive.ReductiveFieldSpecBuilder;
+import com.scottlogic.deg.generator.walker.reductive.ReductiveState;
+import com.scottlogic.deg.generator.walker.reductive.ReductiveTreePruner;
 import com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy.FixFieldStrategy;
+import com.scottlogic.deg.generator.walker.reductive.fieldselectionstrategy.FixFieldStrategyFactory;
 import org.junit.Assert;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static org.hamcrest.CoreMatchers.hasItems;
+import static com.scottlogic.deg.generator.builders.ConstraintNodeBuilder.constraintNode;
 import static org.hamcrest.core.Is.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
 class RandomReductiveDecisionTreeWalkerTests {
+    private final Field field = new Field("field1");
+    private final DataBagValue firstValue = new DataBagValue("first-random-value");
+    private final DataBagValue secondValue = new DataBagValue("second-random-value");
+    private final DataBagValue thirdValue = new DataBagValue("third-random-value");
+    private ConstraintNode rootNode;
     private DecisionTree tree;
     private RandomReductiveDecisionTreeWalker walker;
     private ReductiveDecisionTreeWalker underlyingWalker;
+    private FixFieldStrategyFactory fixFieldStrategyFactory;
 
     @BeforeEach
     public void beforeEach(){
+        rootNode = new TreeConstraintNode();
         tree = new DecisionTree(
-            new TreeConstraintNode(),
-            new ProfileFields(Arrays.asList(new Field("field1"), new Field("field2"))),
+            rootNode,
+            new ProfileFields(Collections.singletonList(field)),
             "test-tree");
 
         underlyingWalker = mock(ReductiveDecisionTreeWalker.class);
-        walker = new RandomReductiveDecisionTreeWalker(underlyingWalker);
+        when(underlyingWalker.createInitialStep(tree))
+            .thenReturn(new ReductiveStep(rootNode, new ReductiveState(tree.fields)));
+        when(underlyingWalker.fixFieldToValue(eq(rootNode), any(ReductiveState.class), eq(field), any(DataBagValue.class)))
+            .thenAnswer(invocation -> {
+                ReductiveState state = (ReductiveState) invocation.getArguments()[1];
+                DataBagValue value = (DataBagValue) invocation.getArguments()[3];
+                return Merged.of(new ReductiveStep(rootNode, state.withFixedFieldValue(field, value)));
+            });
+
+        FixFieldStrategy fixFieldStrategy = mock(FixFieldStrategy.class);
+        when(fixFieldStrategy.getNextFieldToFix(any(ReductiveState.class))).thenReturn(field);
+        fixFieldStrategyFactory = mock(FixFieldStrategyFactory.class);
+        when(fixFieldStrategyFactory.create(rootNode)).thenReturn(fixFieldStrategy);
+
+        walker = new RandomReductiveDecisionTreeWalker(underlyingWalker, fixFieldStrategyFactory, new RandomStreams(0));
     }
 
     /**
-     * If RANDOM mode is enabled there should be two rows of data where field1 & field2 have (synthetically) random
-     * values for each row
+     * If RANDOM mode is enabled there should be two rows of data where field1 has a (synthetically) random
+     * value for each row
      */
     @Test
-    public void shouldProduceTwoRowsOfRandomDataOneRowSpecFromEachIteration() {
-        when(underlyingWalker.walk(tree)).thenReturn(
-            Stream.of(rowSpec("first-iteration-first-random-row"), rowSpec("first-iteration-second-random-row")),
-            Stream.of(rowSpec("second-iteration-first-random-row"), rowSpec("second-iteration-second-random-row"))
-        );
+    public void shouldProduceTwoRowsOfRandomDataOneRowFromEachIteration() {
+        when(underlyingWalker.getValuesForField(eq(rootNode), any(ReductiveState.class), eq(field))).thenReturn(
+            Stream.of(firstValue, secondValue),
+            Stream.of(thirdValue));
 
         List<DataBag> result = walker.walk(tree).limit(2).collect(Collectors.toList());
 
-        verify(underlyingWalker, times(2)).walk(tree);
         Assert.assertThat(
-            result.stream().map(DataBag::toString).collect(Collectors.toList()),
-            hasItems("first-iteration-first-random-row", "second-iteration-first-random-row"));
+            result.stream().map(row -> row.getDataBagValue(field)).collect(Collectors.toList()),
+            is(Arrays.asList(firstValue, thirdValue)));
     }
 
     @Test
-    public void shouldProduceNoData() {
-        when(underlyingWalker.walk(tree)).thenReturn(
-            Stream.of(rowSpec("first-iteration-first-random-row"), rowSpec("first-iteration-second-random-row")),
-            Stream.empty(),
-            Stream.of(rowSpec("third-iteration-first-random-row"), rowSpec("third-iteration-second-random-row"))
-        );
+    public void walk_whenProducingManyRows_createsTheInitialStepAndStrategyOnce() {
+        when(underlyingWalker.getValuesForField(eq(rootNode), any(ReductiveState.class), eq(field)))
+            .thenAnswer(invocation -> Stream.of(firstValue));
 
-        List<DataBag> result = walker.walk(tree).limit(2).collect(Collectors.toList());
+        walker.walk(tree).limit(5).collect(Collectors.toList());
 
-        verify(underlyingWalker, times(3)).walk(tree);
-        Assert.assertThat(
-            result.stream().map(DataBag::toString).collect(Collectors.toList()),
-            hasItems("first-iteration-first-random-row", "third-iteration-first-random-row"));
+        verify(underlyingWalker, times(1)).createInitialStep(tree);
+        verify(fixFieldStrategyFactory, times(1)).create(rootNode);
+    }
+
+    @Test
+    public void walk_whenFirstValueIsContradictory_usesTheNextValue() {
+        when(underlyingWalker.getValuesForField(eq(rootNode), any(ReductiveState.class), eq(field)))
+            .thenReturn(Stream.of(firstValue, secondValue));
+        doReturn(Merged.contradictory())
+            .when(underlyingWalker).fixFieldToValue(eq(rootNode), any(ReductiveState.class), eq(field), eq(firstValue));
+
+        List<DataBag> result = walker.walk(tree).limit(1).collect(Collectors.toList());
+
+        Assert.assertThat(result.get(0).getDataBagValue(field), is(secondValue));
     }
 
     @Test
     public void shouldAccommodateNoDataInSubsequentIteration() {
-        when(underlyingWalker.walk(tree)).thenReturn(
+        when(underlyingWalker.getValuesForField(eq(rootNode), any(ReductiveState.class), eq(field))).thenReturn(
             Stream.empty()
         );
 
         List<DataBag> result = walker.walk(tree).limit(2).collect(Collectors.toList());
 
-        verify(underlyingWalker, times(1)).walk(tree);
+        verify(underlyingWalker, times(1)).getValuesForField(eq(rootNode), any(ReductiveState.class), eq(field));
         Assert.assertThat(
             result.stream().iterator().hasNext(),
             is(false));
     }
 
-    private static DataBag rowSpec(String detail) {
-        return mock(DataBag.class, detail);
+    @Test
+    public void walk_withSameSeedOnOneOrManyThreads_producesSameRows() {
+        List<List<DataBag>> singleThreadedRows = walkPartitionsConcurrently(1);
+        List<List<DataBag>> multiThreadedRows = walkPartitionsConcurrently(4);
+
+        Assert.assertThat(multiThreadedRows, is(singleThreadedRows));
+    }
+
+    /**
+     * Walk two partitions with the same seed on the given number of threads, the buffers only hold one row so the
+     * partitions are interleaved on the threads they share
+     */
+    private static List<List<DataBag>> walkPartitionsConcurrently(int threadCount) {
+        Field field1 = new Field("field1");
+        Field field2 = new Field("field2");
+        Field field3 = new Field("field3");
+        List<DecisionTree> partitions = Arrays.asList(
+            new DecisionTree(
+                constraintNode()
+                    .where(field1).isInSet(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)
+                    .where(field2).isInSet("a", "b", "c", "d", "e", "f", "g", "h", "i", "j")
+                    .build(),
+                new ProfileFields(Arrays.asList(field1, field2)),
+                "",
+                0),
+            new DecisionTree(
+                constraintNode()
+                    .where(field3).isInSet(11, 12, 13, 14, 15, 16, 17, 18, 19, 20)
+                    .build(),
+                new ProfileFields(Collections.singletonList(field3)),
+                "",
+                1));
+
+        RandomStreams randomStreams = new RandomStreams(42);
+        FieldSpecMerger fieldSpecMerger = new FieldSpecMerger();
+        ConstraintReducer constraintReducer = new ConstraintReducer(
+            new FieldSpecFactory(new StringRestrictionsFactory()),
+            fieldSpecMerger);
+        ReductiveDecisionTreeWalker reductiveWalker = new ReductiveDecisionTreeWalker(
+            new NoOpIterationVisualiser(),
+            new ReductiveFieldSpecBuilder(constraintReducer, fieldSpecMerger),
+            new NoopDataGeneratorMonitor(),
+            new ReductiveTreePruner(fieldSpecMerger, constraintReducer, new FieldSpecHelper()),
+            new FieldSpecValueGenerator(DataGenerationType.RANDOM, new StandardFieldValueSourceEvaluator(), randomStreams),
+            new FixFieldStrategyFactory());
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            DecisionTreeWalker walker = new ConcurrentDecisionTreeWalker(
+                new RandomReductiveDecisionTreeWalker(reductiveWalker, new FixFieldStrategyFactory(), randomStreams),
+                executor,
+                1);
+
+            List<Iterator<DataBag>> walks = partitions.stream()
+                .map(partition -> walker.walk(partition).iterator())
+                .collect(Collectors.toList());
+            List<List<DataBag>> rows = Arrays.asList(new ArrayList<>(), new ArrayList<>());
+            for (int row = 0; row < 50; row++) {
+                for (int partition = 0; partition < walks.size(); partition++) {
+                    rows.get(partition).add(walks.get(partition).next());
+                }
+            }
+            return rows;
+        } finally {
+            executor.shutdownNow();
+        }
     }
-}
\ No newline at end of file
+}
@@ -44,4 +44,19 @@ class ReductiveStateTests {
 
         assertThat(stateWithBothFixedFields.getFieldValues(), sameBeanAs(expected));
     }
+
+    @Test
+    void withFixedFieldValue_doesNotChangeTheStateItWasDerivedFrom() {
+        ReductiveState stateWithOneFixedField = reductiveState.withFixedFieldValue(field1, value1);
+        ReductiveState siblingState = stateWithOneFixedField.withFixedFieldValue(field2, value2);
+
+        Map<Field, DataBagValue> expected = new HashMap<>();
+        expected.put(field1, value1);
+
+        assertThat(stateWithOneFixedField.getFieldValues(), sameBeanAs(expected));
+        assertThat(stateWithOneFixedField.isFieldFixed(field2), sameBeanAs(false));
+        assertThat(stateWithOneFixedField.getFixedFieldCount(), sameBeanAs(1));
+        assertThat(siblingState.isFieldFixed(field2), sameBeanAs(true));
+        assertThat(siblingState.getFixedFieldCount(), sameBeanAs(2));
+    }
 }
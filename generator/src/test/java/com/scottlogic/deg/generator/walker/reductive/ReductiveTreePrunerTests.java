@@ -9,6 +9,7 @@ import com.scottlogic.deg.generator.generation.databags.DataBagValue;
 import com.scottlogic.deg.generator.reducer.ConstraintReducer;
 import com.scottlogic.deg.generator.restrictions.SetRestrictions;
 import com.scottlogic.deg.generator.restrictions.StringRestrictionsFactory;
+import org.junit.Assert;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
@@ -392,6 +393,75 @@ class ReductiveTreePrunerTests {
         assertThat(actual, sameBeanAs(expected));
     }
 
+    // CACHING
+
+    @Test
+    public void pruneConstraintNode_sameTreeFieldAndValuePrunedTwice_returnsCachedResult() {
+        //Arrange
+        Set<Object> inputWhitelist = new HashSet<>(Arrays.asList(1, 2));
+        ConstraintNode tree = new TreeConstraintNode(new IsLessThanConstantConstraint(field, 5, Collections.emptySet()));
+        FieldSpec inputFieldSpec = FieldSpec.Empty.withSetRestrictions(
+            SetRestrictions.fromWhitelist(inputWhitelist));
+
+        when(fieldSpecHelper.getFieldSpecForValue(any())).thenReturn(inputFieldSpec);
+
+        //Act
+        Merged<ConstraintNode> first = treePruner.pruneConstraintNode(tree, field, fieldValue());
+        Merged<ConstraintNode> second = treePruner.pruneConstraintNode(tree, field, fieldValue());
+
+        //Assert
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, treePruner.getPruneCache().getHits());
+        Assert.assertEquals(1, treePruner.getPruneCache().getMisses());
+    }
+
+    @Test
+    public void pruneConstraintNode_equalButDistinctTrees_areNotServedFromCache() {
+        //Arrange
+        Set<Object> inputWhitelist = new HashSet<>(Arrays.asList(1, 2));
+        FieldSpec inputFieldSpec = FieldSpec.Empty.withSetRestrictions(
+            SetRestrictions.fromWhitelist(inputWhitelist));
+
+        when(fieldSpecHelper.getFieldSpecForValue(any())).thenReturn(inputFieldSpec);
+
+        //Act
+        treePruner.pruneConstraintNode(
+            new TreeConstraintNode(new IsLessThanConstantConstraint(field, 5, Collections.emptySet())), field, fieldValue());
+        treePruner.pruneConstraintNode(
+            new TreeConstraintNode(new IsLessThanConstantConstraint(field, 5, Collections.emptySet())), field, fieldValue());
+
+        //Assert
+        Assert.assertEquals(0, treePruner.getPruneCache().getHits());
+        Assert.assertEquals(2, treePruner.getPruneCache().getMisses());
+    }
+
+    @Test
+    public void pruneConstraintNode_cacheIsFull_evictsLeastRecentlyUsedPrune() {
+        //Arrange
+        ReductiveTreePruner pruner = new ReductiveTreePruner(
+            new FieldSpecMerger(),
+            new ConstraintReducer(
+                new FieldSpecFactory(new StringRestrictionsFactory()),
+                new FieldSpecMerger()),
+            fieldSpecHelper,
+            1);
+        Set<Object> inputWhitelist = new HashSet<>(Arrays.asList(1, 2));
+        ConstraintNode tree = new TreeConstraintNode(new IsLessThanConstantConstraint(field, 5, Collections.emptySet()));
+        FieldSpec inputFieldSpec = FieldSpec.Empty.withSetRestrictions(
+            SetRestrictions.fromWhitelist(inputWhitelist));
+
+        when(fieldSpecHelper.getFieldSpecForValue(any())).thenReturn(inputFieldSpec);
+
+        //Act
+        pruner.pruneConstraintNode(tree, field, new DataBagValue(1));
+        pruner.pruneConstraintNode(tree, field, new DataBagValue(2));
+        pruner.pruneConstraintNode(tree, field, new DataBagValue(1));
+
+        //Assert
+        Assert.assertEquals(0, pruner.getPruneCache().getHits());
+        Assert.assertEquals(2, pruner.getPruneCache().getEvictions());
+    }
+
     private DataBagValue fieldValue() {
         return new DataBagValue("TODO");
     }
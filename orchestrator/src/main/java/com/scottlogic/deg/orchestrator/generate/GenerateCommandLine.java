@@ -11,13 +11,17 @@ import picocli.CommandLine;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 
 import static com.scottlogic.deg.generator.config.detail.CombinationStrategyType.MINIMAL;
+import static com.scottlogic.deg.common.util.Defaults.DEFAULT_MAX_AUTOMATON_STATES;
 import static com.scottlogic.deg.common.util.Defaults.DEFAULT_MAX_ROWS;
 import static com.scottlogic.deg.generator.config.detail.DataGenerationType.RANDOM;
 import static com.scottlogic.deg.output.guice.OutputFormat.CSV;
 import static com.scottlogic.deg.generator.config.detail.TreeWalkerType.REDUCTIVE;
+import static com.scottlogic.deg.generator.config.detail.GenerationEngineType.STREAMING;
+import static com.scottlogic.deg.generator.config.detail.StringSamplingType.WALK;
 
 /**
  * This class holds the generate specific command line options.
@@ -84,22 +88,69 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
     @SuppressWarnings("unused")
     private CombinationStrategyType combinationType = MINIMAL;
 
+    @CommandLine.Option(
+        names = {"--combination-cache-rows"},
+        description = "Defines the maximum number of rows of each partition held in memory when combining partitions, larger partitions are generated again instead",
+        hidden = true)
+    private int maxCachedRowsPerPartition = 100_000;
+
     @CommandLine.Option(
         names = {"--no-partition"},
         description = "Prevents tree partitioning",
         hidden = true)
     private boolean dontPartitionTrees;
 
+    @CommandLine.Option(
+        names = {"--partition-threads"},
+        description = "Defines the number of threads used to generate independent partitions of the profile concurrently",
+        hidden = true)
+    private int partitionThreadCount = 1;
+
     @CommandLine.Option(names = {"-w", "--walker-type"},
         description = "Determines the tree walker that should be used (${COMPLETION-CANDIDATES})",
         hidden = true)
     private TreeWalkerType walkerType = REDUCTIVE;
 
+    @CommandLine.Option(
+        names = {"--walker-threads"},
+        description = "Defines the number of threads the reductive walker uses when generating all combinations",
+        hidden = true)
+    private int walkerThreadCount = 1;
+
+    @CommandLine.Option(
+        names = {"--unordered"},
+        description = "Allows multi-threaded tree walking to emit rows in any order",
+        hidden = true)
+    private boolean allowUnorderedRows = false;
+
+    @CommandLine.Option(
+        names = {"--generation-engine"},
+        description = "Determines whether rows are generated one at a time or in batches (${COMPLETION-CANDIDATES})",
+        hidden = true)
+    private GenerationEngineType generationEngineType = STREAMING;
+
+    @CommandLine.Option(
+        names = {"--string-sampling"},
+        description = "Determines how random strings are drawn from regular expressions; UNIFORM draws evenly from all the matches of a finite expression (${COMPLETION-CANDIDATES})",
+        hidden = true)
+    private StringSamplingType stringSamplingType = WALK;
+
+    @CommandLine.Option(
+        names = {"--max-automaton-states"},
+        description = "Defines the most states an automaton combined from regular expression constraints may have before generation is stopped",
+        hidden = true)
+    private int maxAutomatonStates = DEFAULT_MAX_AUTOMATON_STATES;
+
     @CommandLine.Option(
         names = {"-n", "--max-rows"},
         description = "Defines the maximum number of rows that should be generated")
     private long maxRows = DEFAULT_MAX_ROWS;
 
+    @CommandLine.Option(
+        names = {"--seed"},
+        description = "Defines the seed for random generation, the same profile and seed produce the same data regardless of the number of threads")
+    private Long seed;
+
     @CommandLine.Option(
         names = {"--quiet"},
         description = "Turns OFF default monitoring")
@@ -130,6 +181,36 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         return !this.dontPartitionTrees;
     }
 
+    @Override
+    public int getPartitionThreadCount() {
+        return this.partitionThreadCount;
+    }
+
+    @Override
+    public int getWalkerThreadCount() {
+        return this.walkerThreadCount;
+    }
+
+    @Override
+    public boolean allowUnorderedRows() {
+        return this.allowUnorderedRows;
+    }
+
+    @Override
+    public GenerationEngineType getGenerationEngineType() {
+        return this.generationEngineType;
+    }
+
+    @Override
+    public StringSamplingType getStringSamplingType() {
+        return this.stringSamplingType;
+    }
+
+    @Override
+    public int getMaxAutomatonStates() {
+        return this.maxAutomatonStates;
+    }
+
     @Override
     public boolean dontOptimise() {
         return this.dontOptimise;
@@ -170,6 +251,11 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         return this.combinationType;
     }
 
+    @Override
+    public int getMaxCachedRowsPerPartition() {
+        return this.maxCachedRowsPerPartition;
+    }
+
     @Override
     public TreeWalkerType getWalkerType() {
         return this.walkerType;
@@ -196,6 +282,11 @@ public class GenerateCommandLine implements AllConfigSource, Callable<Integer> {
         return maxRows;
     }
 
+    @Override
+    public Optional<Long> getSeed() {
+        return Optional.ofNullable(seed);
+    }
+
     @Override
     public boolean visualiseReductions() {
         return visualiseReductions;
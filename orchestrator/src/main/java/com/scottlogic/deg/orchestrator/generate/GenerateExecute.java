@@ -66,8 +66,9 @@ public class GenerateExecute {
     }
 
     private void outputData(Profile profile, Stream<GeneratedObject> generatedDataItems) throws IOException {
-        try (DataSetWriter writer = singleDatasetOutputTarget.openWriter(profile.getFields())) {
-            generatedDataItems.forEach(row -> {
+        try (DataSetWriter writer = singleDatasetOutputTarget.openWriter(profile.getFields());
+             Stream<GeneratedObject> rows = generatedDataItems) {
+            rows.forEach(row -> {
                 try {
                     writer.writeRow(row);
                 } catch (IOException e) {
@@ -100,8 +100,9 @@ public class ViolateExecute {
         Stream<GeneratedObject> generatedDataItems,
         SingleDatasetOutputTarget outputTarget) throws IOException
     {
-        try (DataSetWriter writer = outputTarget.openWriter(profile.getFields())) {
-            generatedDataItems.forEach(row -> {
+        try (DataSetWriter writer = outputTarget.openWriter(profile.getFields());
+             Stream<GeneratedObject> rows = generatedDataItems) {
+            rows.forEach(row -> {
                 try {
                     writer.writeRow(row);
                 } catch (IOException e) {
@@ -2,6 +2,7 @@ package com.scottlogic.deg.orchestrator.cucumber.testframework.utils;
 
 import com.google.inject.Inject;
 import com.scottlogic.deg.common.profile.Profile;
+import com.scottlogic.deg.common.util.Defaults;
 import com.scottlogic.deg.generator.config.detail.*;
 import com.scottlogic.deg.orchestrator.guice.AllConfigSource;
 import com.scottlogic.deg.orchestrator.violate.ViolateConfigSource;
@@ -11,6 +12,7 @@ import com.scottlogic.deg.profile.v0_1.AtomicConstraintType;
 import java.io.File;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 
 public class CucumberGenerationConfigSource implements AllConfigSource, ViolateConfigSource {
     private final CucumberTestState state;
@@ -55,11 +57,51 @@ public class CucumberGenerationConfigSource implements AllConfigSource, ViolateC
         return state.maxRows;
     }
 
+    @Override
+    public Optional<Long> getSeed() {
+        return Optional.empty();
+    }
+
     @Override
     public boolean shouldDoPartitioning() {
         return false;
     }
 
+    @Override
+    public int getPartitionThreadCount() {
+        return 1;
+    }
+
+    @Override
+    public int getWalkerThreadCount() {
+        return 1;
+    }
+
+    @Override
+    public int getMaxCachedRowsPerPartition() {
+        return 100_000;
+    }
+
+    @Override
+    public boolean allowUnorderedRows() {
+        return false;
+    }
+
+    @Override
+    public GenerationEngineType getGenerationEngineType() {
+        return GenerationEngineType.STREAMING;
+    }
+
+    @Override
+    public StringSamplingType getStringSamplingType() {
+        return StringSamplingType.WALK;
+    }
+
+    @Override
+    public int getMaxAutomatonStates() {
+        return Defaults.DEFAULT_MAX_AUTOMATON_STATES;
+    }
+
     @Override
     public boolean dontOptimise() {
         return false;
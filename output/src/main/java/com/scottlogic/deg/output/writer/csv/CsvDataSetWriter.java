@@ -15,7 +15,6 @@ import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.stream.Collectors;
 
 class CsvDataSetWriter implements DataSetWriter {
     private static final DateTimeFormatter standardDateFormat = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
@@ -47,10 +46,11 @@ class CsvDataSetWriter implements DataSetWriter {
 
     @Override
     public void writeRow(GeneratedObject row) throws IOException {
-        csvPrinter.printRecord(fieldOrder.stream()
-                .map(row::getFormattedValue)
-                .map(CsvDataSetWriter::wrapInQuotesIfString)
-                .collect(Collectors.toList()));
+        Object[] values = row.getFormattedValues(fieldOrder);
+        for (int index = 0; index < values.length; index++) {
+            values[index] = wrapInQuotesIfString(values[index]);
+        }
+        csvPrinter.printRecord(values);
 
         csvPrinter.flush();
     }
@@ -38,9 +38,12 @@ class JsonDataSetWriter implements DataSetWriter {
 
     @Override
     public void writeRow(GeneratedObject row) throws IOException {
+        Object[] values = row.getFormattedValues(fields);
         Map<Field, Object> jsonObject = new HashMap<>();
-        fields.forEach(field -> jsonObject
-            .put(field , convertValue(row.getFormattedValue(field))));
+        int index = 0;
+        for (Field field : fields) {
+            jsonObject.put(field, convertValue(values[index++]));
+        }
 
         writer.write(jsonObject);
     }